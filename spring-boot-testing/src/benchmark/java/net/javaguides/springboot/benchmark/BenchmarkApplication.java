@@ -0,0 +1,99 @@
+package net.javaguides.springboot.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import net.javaguides.springboot.SpringBootTestingApplication;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeBulkService;
+
+/**
+ * Boots the application for benchmarks and load tests. The database defaults to
+ * a private in-memory H2 instance in PostgreSQL mode; set
+ * {@code -Dbenchmark.db.url}, {@code -Dbenchmark.db.username} and
+ * {@code -Dbenchmark.db.password} to run the same code against PostgreSQL.
+ * Passing {@code spring.profiles.active=reactive} as a property, in a build
+ * with {@code -Preactive}, starts the WebFlux and R2DBC variant against the
+ * same database instead.
+ */
+public final class BenchmarkApplication {
+
+	private static final int INSERT_CHUNK_SIZE=1000;
+
+	private BenchmarkApplication() {
+	}
+
+	/**
+	 * @param properties extra application properties as {@code name=value}
+	 */
+	public static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+		List<String> args=new ArrayList<>(databaseArguments());
+		args.add("--spring.jpa.show-sql=false");
+		args.add("--logging.level.root=WARN");
+		for(String property : properties) {
+			args.add("--" + property);
+		}
+		return new SpringApplicationBuilder(SpringBootTestingApplication.class)
+				.web(webApplicationType)
+				.bannerMode(Banner.Mode.OFF)
+				.logStartupInfo(false)
+				.run(args.toArray(String[]::new));
+	}
+
+	public static List<String> databaseArguments() {
+		String url=System.getProperty("benchmark.db.url", "");
+		if(!url.isBlank()) {
+			String username=System.getProperty("benchmark.db.username", "postgres");
+			String password=System.getProperty("benchmark.db.password", "");
+			return List.of(
+					"--spring.datasource.url=" + url,
+					"--spring.datasource.username=" + username,
+					"--spring.datasource.password=" + password,
+					// used by the reactive profile: jdbc:postgresql://... becomes r2dbc:postgresql://...
+					"--spring.r2dbc.url=" + url.replaceFirst("^jdbc:", "r2dbc:"),
+					"--spring.r2dbc.username=" + username,
+					"--spring.r2dbc.password=" + password);
+		}
+		String database="benchmark-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+		return List.of(
+				"--spring.datasource.url=jdbc:h2:mem:" + database,
+				"--spring.datasource.driver-class-name=org.h2.Driver",
+				"--spring.datasource.username=sa",
+				"--spring.datasource.password=",
+				"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+				"--spring.r2dbc.url=r2dbc:h2:mem:///" + database,
+				"--spring.r2dbc.username=sa",
+				"--spring.r2dbc.password=");
+	}
+
+	/**
+	 * Fills the table with {@code count} employees whose emails start with
+	 * {@code emailPrefix}, using the bulk insert path.
+	 */
+	public static void insertEmployees(ApplicationContext context, int count, String emailPrefix) {
+		EmployeeBulkService bulkService=context.getBean(EmployeeBulkService.class);
+		for(int start=0; start < count; start+=INSERT_CHUNK_SIZE) {
+			List<Employee> chunk=new ArrayList<>(INSERT_CHUNK_SIZE);
+			for(int i=start; i < Math.min(count, start + INSERT_CHUNK_SIZE); i++) {
+				chunk.add(employee(i, emailPrefix));
+			}
+			bulkService.saveEmployees(chunk);
+		}
+	}
+
+	public static Employee employee(long n, String emailPrefix) {
+		return Employee.builder()
+				.firstName("First" + n)
+				.lastName("Last" + n)
+				.email(emailPrefix + n + "@example.com")
+				.build();
+	}
+
+}
@@ -0,0 +1,95 @@
+package net.javaguides.springboot.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+
+/**
+ * Request dispatch through the full MVC stack (handler mapping, argument
+ * resolution, message conversion) via MockMvc, without socket I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class EmployeeControllerBenchmark {
+
+	private static final int HOT_SET_SIZE=1000;
+
+	private ConfigurableApplicationContext context;
+
+	private MockMvc mockMvc;
+
+	private ObjectMapper objectMapper;
+
+	private long[] hotIds;
+
+	private final AtomicLong createdEmployees=new AtomicLong();
+
+	@Setup
+	public void setup() {
+		context=BenchmarkApplication.start(WebApplicationType.SERVLET, "server.port=0");
+		mockMvc=MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+		objectMapper=context.getBean(ObjectMapper.class);
+
+		BenchmarkApplication.insertEmployees(context, HOT_SET_SIZE, "hot");
+		List<Employee> hotSet=context.getBean(EmployeeService.class).getEmployeesAfter(0L, HOT_SET_SIZE);
+		hotIds=hotSet.stream().mapToLong(Employee::getId).toArray();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public MvcResult getEmployeeById() throws Exception {
+		long id=hotIds[ThreadLocalRandom.current().nextInt(hotIds.length)];
+		return mockMvc.perform(get("/api/employees/{id}", id)).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult getEmployeePage() throws Exception {
+		return mockMvc.perform(get("/api/employees").param("limit", "100")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult saveEmployee() throws Exception {
+		Employee employee=BenchmarkApplication.employee(createdEmployees.incrementAndGet(), "created");
+		return mockMvc.perform(post("/api/employees")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsBytes(employee)))
+				.andReturn();
+	}
+
+}
@@ -0,0 +1,405 @@
+package net.javaguides.springboot.benchmark;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.javaguides.springboot.dto.BulkItemResult;
+import net.javaguides.springboot.dto.BulkResponse;
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Open-loop load generator for the {@code /api/employees} endpoints.
+ * <p>
+ * Requests are started on a fixed schedule regardless of how fast responses
+ * come back, and latency is measured from the scheduled start, so a stalled
+ * server shows up in the tail instead of silently lowering the offered load
+ * (coordinated omission). Unless {@code target} is given, the application is
+ * started in-process on a random port against the embedded database from
+ * {@link BenchmarkApplication}.
+ * <p>
+ * Arguments are {@code name=value} pairs; arguments starting with {@code --}
+ * are passed to the application as properties.
+ * <pre>
+ * rate=500                  requests per second offered
+ * duration=30               measured seconds
+ * warmup=10                 unmeasured seconds before that
+ * seed=1000                 employees created before the run
+ * mix=get:70,page:10,create:10,update:7,delete:3
+ * maxInFlight=10000         requests beyond this are counted as dropped
+ * target=http://host:port   load an already running instance
+ * out=target/loadtest.hgrm  HdrHistogram percentile output, in milliseconds
+ * clients=0                 spread requests over this many X-Client-Id values, 0 for none
+ * </pre>
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@loadtest -Dloadtest.args="rate=2000 duration=60"
+ * mvn -Pbenchmark test-compile exec:exec@loadtest -Dloadtest.args="rate=2000 duration=60 clients=50
+ *     --app.load-shedding.enabled=true --app.load-shedding.client-header=X-Client-Id"
+ * </pre>
+ */
+public class EmployeeLoadTest {
+
+	enum Operation {
+		GET, PAGE, CREATE, UPDATE, DELETE
+	}
+
+	private static final long HIGHEST_TRACKABLE_MICROS=TimeUnit.MINUTES.toMicros(5);
+
+	private final HttpClient client=HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	private final ObjectMapper objectMapper=new ObjectMapper();
+
+	private final String baseUrl;
+
+	private final int rate;
+
+	private final int durationSeconds;
+
+	private final int warmupSeconds;
+
+	private final int seed;
+
+	private final int maxInFlight;
+
+	private final Operation[] schedule;
+
+	private final Path out;
+
+	private final int clients;
+
+	private long[] seededIds;
+
+	private final ConcurrentLinkedQueue<Long> createdIds=new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong emailSequence=new AtomicLong();
+
+	private final Map<Operation, Histogram> histograms=new EnumMap<>(Operation.class);
+
+	private final Histogram total=new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+	/** Successful requests only, since rejected ones come back fast and flatter the total. */
+	private final Histogram successful=new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+	private final Map<Integer, LongAdder> statusCounts=new ConcurrentHashMap<>();
+
+	private final LongAdder transportErrors=new LongAdder();
+
+	private final LongAdder dropped=new LongAdder();
+
+	private final AtomicInteger inFlight=new AtomicInteger();
+
+	EmployeeLoadTest(String baseUrl, Map<String, String> options) {
+		this.baseUrl=baseUrl;
+		this.rate=Integer.parseInt(options.getOrDefault("rate", "500"));
+		this.durationSeconds=Integer.parseInt(options.getOrDefault("duration", "30"));
+		this.warmupSeconds=Integer.parseInt(options.getOrDefault("warmup", "10"));
+		this.seed=Integer.parseInt(options.getOrDefault("seed", "1000"));
+		this.maxInFlight=Integer.parseInt(options.getOrDefault("maxInFlight", "10000"));
+		this.schedule=schedule(options.getOrDefault("mix", "get:70,page:10,create:10,update:7,delete:3"));
+		this.out=Path.of(options.getOrDefault("out", "target/loadtest.hgrm"));
+		this.clients=Integer.parseInt(options.getOrDefault("clients", "0"));
+		for(Operation operation : Operation.values()) {
+			histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options=new LinkedHashMap<>();
+		List<String> properties=new ArrayList<>();
+		parseArguments(args, options, properties);
+
+		ConfigurableApplicationContext context=null;
+		String target=options.get("target");
+		if(target == null) {
+			context=BenchmarkApplication.start(WebApplicationType.SERVLET, properties.toArray(String[]::new));
+			target="http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+		}
+		try {
+			new EmployeeLoadTest(target, options).run();
+		} finally {
+			if(context != null) {
+				context.close();
+			}
+		}
+	}
+
+	/**
+	 * Splits {@code name=value} options from {@code --property=value}
+	 * application properties; the in-process server gets a random port unless
+	 * one is given.
+	 */
+	static void parseArguments(String[] args, Map<String, String> options, List<String> properties) {
+		for(String arg : args) {
+			if(arg.startsWith("--")) {
+				properties.add(arg.substring(2));
+			} else if(arg.contains("=")) {
+				options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+			}
+		}
+		if(properties.stream().noneMatch(property -> property.startsWith("server.port="))) {
+			properties.add(0, "server.port=0");
+		}
+	}
+
+	void run() throws Exception {
+		seedEmployees();
+
+		long interval=TimeUnit.SECONDS.toNanos(1) / rate;
+		long start=System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+		long measureFrom=start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+		long end=measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+		System.out.printf("Offering %d req/s to %s for %ds (+%ds warmup)%n", rate, baseUrl, durationSeconds, warmupSeconds);
+		for(long i=0; ; i++) {
+			long intendedStart=start + i * interval;
+			if(intendedStart >= end) {
+				break;
+			}
+			long wait=intendedStart - System.nanoTime();
+			if(wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			Operation operation=schedule[(int) (i % schedule.length)];
+			boolean measured=intendedStart >= measureFrom;
+			if(inFlight.incrementAndGet() > maxInFlight) {
+				inFlight.decrementAndGet();
+				if(measured) {
+					dropped.increment();
+				}
+				continue;
+			}
+			send(operation, intendedStart, measured);
+		}
+
+		long drainDeadline=System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while(inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+			Thread.sleep(10);
+		}
+		report();
+	}
+
+	private void send(Operation operation, long intendedStart, boolean measured) {
+		client.sendAsync(withClient(request(operation)), BodyHandlers.ofByteArray())
+				.whenComplete((response, error) -> {
+					long micros=TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+					inFlight.decrementAndGet();
+					if(error != null) {
+						if(measured) {
+							transportErrors.increment();
+						}
+						return;
+					}
+					if(operation == Operation.CREATE && response.statusCode() == 201) {
+						rememberCreated(response);
+					}
+					if(measured) {
+						histograms.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+						total.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+						if(response.statusCode() / 100 == 2) {
+							successful.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+						}
+						statusCounts.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+					}
+				});
+	}
+
+	private HttpRequest request(Operation operation) {
+		ThreadLocalRandom random=ThreadLocalRandom.current();
+		switch(operation) {
+			case PAGE:
+				return HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees?limit=50&afterId="
+						+ seededIds[random.nextInt(seededIds.length)])).GET().build();
+			case CREATE:
+				return json(HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees")),
+						"POST", newEmployee("load"));
+			case UPDATE:
+				long id=seededIds[random.nextInt(seededIds.length)];
+				Employee employee=BenchmarkApplication.employee(id, "seed");
+				employee.setFirstName("Updated" + random.nextInt(1000));
+				return json(HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees/" + id)), "PUT", employee);
+			case DELETE:
+				Long createdId=createdIds.poll();
+				if(createdId != null) {
+					return HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees/" + createdId)).DELETE().build();
+				}
+				// nothing created yet: fall through to a read so the offered rate is kept
+			case GET:
+			default:
+				return HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees/"
+						+ seededIds[random.nextInt(seededIds.length)])).GET().build();
+		}
+	}
+
+	private HttpRequest withClient(HttpRequest request) {
+		if(clients <= 0) {
+			return request;
+		}
+		return HttpRequest.newBuilder(request, (name, value) -> true)
+				.header("X-Client-Id", "client-" + ThreadLocalRandom.current().nextInt(clients))
+				.build();
+	}
+
+	private HttpRequest json(HttpRequest.Builder builder, String method, Object body) {
+		try {
+			return builder.header("Content-Type", "application/json")
+					.method(method, BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+					.build();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Employee newEmployee(String prefix) {
+		return BenchmarkApplication.employee(emailSequence.incrementAndGet(), prefix + System.nanoTime() + "-");
+	}
+
+	private void rememberCreated(HttpResponse<byte[]> response) {
+		try {
+			createdIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+		} catch (IOException e) {
+			transportErrors.increment();
+		}
+	}
+
+	private void seedEmployees() throws Exception {
+		List<Long> ids=new ArrayList<>(seed);
+		for(int start=0; start < seed; start+=1000) {
+			List<Employee> chunk=new ArrayList<>();
+			for(int i=start; i < Math.min(seed, start + 1000); i++) {
+				chunk.add(BenchmarkApplication.employee(i, "seed" + System.nanoTime() + "-"));
+			}
+			HttpResponse<byte[]> response=client.send(
+					json(HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees/bulk")), "POST", chunk),
+					BodyHandlers.ofByteArray());
+			BulkResponse bulkResponse=objectMapper.readValue(response.body(), BulkResponse.class);
+			for(BulkItemResult result : bulkResponse.getResults()) {
+				if(result.getId() != null) {
+					ids.add(result.getId());
+				}
+			}
+		}
+		if(ids.isEmpty()) {
+			throw new IllegalStateException("Seeding created no employees; set seed to at least 1");
+		}
+		seededIds=ids.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	private void report() throws IOException {
+		System.out.printf("%n%-8s %10s %10s %10s %10s %10s %10s%n",
+				"op", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+		for(Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+			printRow(entry.getKey().name(), entry.getValue());
+		}
+		printRow("ALL", total);
+		printRow("2XX", successful);
+		System.out.printf("%nstatus codes: %s, transport errors: %d, dropped (over maxInFlight): %d%n",
+				new TreeMap<>(statusCounts), transportErrors.sum(), dropped.sum());
+
+		if(out.getParent() != null) {
+			Files.createDirectories(out.getParent());
+		}
+		try (PrintStream stream=new PrintStream(new FileOutputStream(out.toFile()))) {
+			total.outputPercentileDistribution(stream, 1000.0);
+		}
+		System.out.println("Latency distribution (ms) written to " + out.toAbsolutePath());
+	}
+
+	Histogram totalLatency() {
+		return total;
+	}
+
+	int durationSeconds() {
+		return durationSeconds;
+	}
+
+	/**
+	 * Measured requests that did not get a 2xx response, including transport
+	 * errors and requests dropped over {@code maxInFlight}.
+	 */
+	long failures() {
+		long failures=transportErrors.sum() + dropped.sum();
+		for(Map.Entry<Integer, LongAdder> entry : statusCounts.entrySet()) {
+			if(entry.getKey() / 100 != 2) {
+				failures+=entry.getValue().sum();
+			}
+		}
+		return failures;
+	}
+
+	private void printRow(String name, Histogram histogram) {
+		System.out.printf("%-8s %10d %10.1f %10.2f %10.2f %10.2f %10.2f%n", name,
+				histogram.getTotalCount(),
+				histogram.getTotalCount() / (double) durationSeconds,
+				histogram.getValueAtPercentile(50) / 1000.0,
+				histogram.getValueAtPercentile(99) / 1000.0,
+				histogram.getValueAtPercentile(99.9) / 1000.0,
+				histogram.getMaxValue() / 1000.0);
+	}
+
+	/**
+	 * Expands {@code get:70,page:10,...} into a 100-slot (or weight-sum sized)
+	 * round-robin schedule, interleaved so consecutive requests vary.
+	 */
+	static Operation[] schedule(String mix) {
+		Map<Operation, Integer> weights=new EnumMap<>(Operation.class);
+		int sum=0;
+		for(String part : mix.split(",")) {
+			String[] pair=part.trim().split(":");
+			int weight=Integer.parseInt(pair[1]);
+			weights.put(Operation.valueOf(pair[0].toUpperCase()), weight);
+			sum+=weight;
+		}
+		Operation[] schedule=new Operation[sum];
+		Map<Operation, Integer> placed=new EnumMap<>(Operation.class);
+		for(int slot=0; slot < sum; slot++) {
+			// pick the operation furthest behind its share so far
+			Operation next=null;
+			double worst=Double.MAX_VALUE;
+			for(Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+				double share=placed.getOrDefault(entry.getKey(), 0) / (double) entry.getValue();
+				if(share < worst) {
+					worst=share;
+					next=entry.getKey();
+				}
+			}
+			placed.merge(next, 1, Integer::sum);
+			schedule[slot]=next;
+		}
+		return schedule;
+	}
+
+}
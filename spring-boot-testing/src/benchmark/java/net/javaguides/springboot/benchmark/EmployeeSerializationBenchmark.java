@@ -0,0 +1,124 @@
+package net.javaguides.springboot.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Jackson encode/decode cost of the payloads the controller produces: a single
+ * employee and the list returned by {@code /api/allemployees}, in JSON and in
+ * the binary formats of {@code WireFormatConfig}. The payload sizes, plain and
+ * gzipped as with {@code server.compression}, are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class EmployeeSerializationBenchmark {
+
+	@Param({"100", "10000"})
+	private int listSize;
+
+	@Param({"json", "smile", "cbor"})
+	private String format;
+
+	private ObjectWriter employeeWriter;
+
+	private ObjectWriter listWriter;
+
+	private ObjectReader employeeReader;
+
+	private ObjectReader listReader;
+
+	private Employee employee;
+
+	private List<Employee> employees;
+
+	private byte[] employeePayload;
+
+	private byte[] listPayload;
+
+	@Setup
+	public void setup() throws Exception {
+		// same builder Spring Boot uses for the MVC message converters
+		Jackson2ObjectMapperBuilder builder=Jackson2ObjectMapperBuilder.json();
+		ObjectMapper objectMapper=switch(format) {
+			case "smile" -> builder.factory(new SmileFactory()).build();
+			case "cbor" -> builder.factory(new CBORFactory()).build();
+			default -> builder.build();
+		};
+		employeeWriter=objectMapper.writerFor(Employee.class);
+		listWriter=objectMapper.writerFor(new TypeReference<List<Employee>>() { });
+		employeeReader=objectMapper.readerFor(Employee.class);
+		listReader=objectMapper.readerFor(new TypeReference<List<Employee>>() { });
+
+		employee=BenchmarkApplication.employee(1, "employee");
+		employee.setId(1L);
+		employees=new ArrayList<>(listSize);
+		for(int i=0; i < listSize; i++) {
+			Employee listEmployee=BenchmarkApplication.employee(i, "employee");
+			listEmployee.setId(i);
+			employees.add(listEmployee);
+		}
+		employeePayload=employeeWriter.writeValueAsBytes(employee);
+		listPayload=listWriter.writeValueAsBytes(employees);
+		System.out.printf("%n%s, %d employees: %d bytes, %d gzipped; one employee: %d bytes%n",
+				format, listSize, listPayload.length, gzippedSize(listPayload), employeePayload.length);
+	}
+
+	private static int gzippedSize(byte[] payload) throws IOException {
+		ByteArrayOutputStream bytes=new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip=new GZIPOutputStream(bytes)) {
+			gzip.write(payload);
+		}
+		return bytes.size();
+	}
+
+	@Benchmark
+	public byte[] serializeEmployee() throws Exception {
+		return employeeWriter.writeValueAsBytes(employee);
+	}
+
+	@Benchmark
+	public byte[] serializeEmployeeList() throws Exception {
+		return listWriter.writeValueAsBytes(employees);
+	}
+
+	@Benchmark
+	public Employee deserializeEmployee() throws Exception {
+		return employeeReader.readValue(employeePayload);
+	}
+
+	@Benchmark
+	public List<Employee> deserializeEmployeeList() throws Exception {
+		return listReader.readValue(listPayload);
+	}
+
+}
@@ -0,0 +1,169 @@
+package net.javaguides.springboot.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeSearch;
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+
+/**
+ * Service and repository hot paths against the embedded database. The table is
+ * pre-filled with {@code tableSize} rows on top of a hot set of
+ * {@value #HOT_SET_SIZE} rows, so comparing runs across sizes shows whether
+ * create and lookup latency stay flat as the table grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+	static final int HOT_SET_SIZE=1000;
+
+	private static final Set<String> VIEW_FIELDS=EmployeeView.parseFields("firstName,email");
+
+	@Param({"0", "100000"})
+	private int tableSize;
+
+	private ConfigurableApplicationContext context;
+
+	private EmployeeService employeeService;
+
+	private EmployeeRepository employeeRepository;
+
+	private long[] hotIds;
+
+	private List<Long> hotIdList;
+
+	private final AtomicLong createdEmployees=new AtomicLong();
+
+	@Setup
+	public void setup() {
+		context=BenchmarkApplication.start(WebApplicationType.NONE);
+		employeeService=context.getBean(EmployeeService.class);
+		employeeRepository=context.getBean(EmployeeRepository.class);
+
+		BenchmarkApplication.insertEmployees(context, HOT_SET_SIZE, "hot");
+		BenchmarkApplication.insertEmployees(context, tableSize, "filler");
+		List<Employee> hotSet=employeeService.getEmployeesAfter(0L, HOT_SET_SIZE);
+		hotIds=hotSet.stream().mapToLong(Employee::getId).toArray();
+		hotIdList=hotSet.stream().map(Employee::getId).toList();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Employee saveEmployee() {
+		return employeeService.saveEmployee(BenchmarkApplication.employee(createdEmployees.incrementAndGet(), "created"));
+	}
+
+	@Benchmark
+	public Optional<Employee> getEmployeeById() {
+		return employeeService.getEmployeeById(randomHotId());
+	}
+
+	@Benchmark
+	public Optional<Employee> findByEmail() {
+		int n=ThreadLocalRandom.current().nextInt(HOT_SET_SIZE);
+		return employeeRepository.findByEmail("hot" + n + "@example.com");
+	}
+
+	/**
+	 * A page of {@code HOT_SET_SIZE} employees built by the query's constructor
+	 * expression; {@link #loadEmployeeEntities()} is the same rows as entities.
+	 */
+	@Benchmark
+	public EmployeePage<Employee> getEmployeePage() {
+		return employeeService.getEmployeePage(0L, HOT_SET_SIZE);
+	}
+
+	@Benchmark
+	public EmployeePage<EmployeeView> getEmployeeViewPage() {
+		return employeeService.getEmployeeViewPage(0L, HOT_SET_SIZE, VIEW_FIELDS);
+	}
+
+	@Benchmark
+	public List<Employee> loadEmployeeEntities() {
+		return employeeRepository.findAllById(hotIdList);
+	}
+
+	/**
+	 * A prefix that matches eleven hot-set emails whatever the table size. With
+	 * the search indexes (PostgreSQL only) the time should stay flat as
+	 * {@code tableSize} grows; without them it grows with the table.
+	 */
+	@Benchmark
+	public EmployeeSearchPage searchByEmailPrefix() {
+		EmployeeSearch search=new EmployeeSearch();
+		search.setEmail("HOT" + ThreadLocalRandom.current().nextInt(10, 100));
+		search.setSort("lastName");
+		return employeeService.searchEmployees(search, 20);
+	}
+
+	/**
+	 * A page from the middle of the table in last-name order, which the index
+	 * serves by seeking to the cursor instead of sorting the table.
+	 */
+	@Benchmark
+	public EmployeeSearchPage searchSortedByLastName() {
+		EmployeeSearch search=new EmployeeSearch();
+		search.setSort("lastName");
+		search.setAfter(search.cursor(randomHotId(), "last" + ThreadLocalRandom.current().nextInt(HOT_SET_SIZE)));
+		return employeeService.searchEmployees(search, 20);
+	}
+
+	/**
+	 * Reads the employee and saves a changed copy: the one read may be the
+	 * cached instance, which the benchmark threads share and must not modify.
+	 */
+	@Benchmark
+	public Employee updateEmployee() {
+		Employee employee=employeeService.getEmployeeById(randomHotId()).orElseThrow();
+		return employeeService.updateEmployee(new Employee(employee.getId(),
+				"Updated" + ThreadLocalRandom.current().nextInt(), employee.getLastName(), employee.getEmail(),
+				employee.getVersion()));
+	}
+
+	/**
+	 * The same change as {@link #updateEmployee()} without the read.
+	 */
+	@Benchmark
+	public boolean patchEmployee() {
+		Employee changes=Employee.builder().firstName("Patched" + ThreadLocalRandom.current().nextInt()).build();
+		return employeeService.patchEmployee(randomHotId(), changes, null);
+	}
+
+	private long randomHotId() {
+		return hotIds[ThreadLocalRandom.current().nextInt(hotIds.length)];
+	}
+
+}
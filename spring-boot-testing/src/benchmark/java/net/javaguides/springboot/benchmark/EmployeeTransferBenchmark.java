@@ -0,0 +1,118 @@
+package net.javaguides.springboot.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import net.javaguides.springboot.dto.EmployeeFormat;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeTransferService;
+
+/**
+ * Import and export throughput of the whole table, reported in rows per second
+ * for each format. Every invocation moves {@value #ROWS} rows; the file is
+ * rendered in memory up front so only parsing and the database are measured.
+ * Against PostgreSQL ({@code -Dbenchmark.db.url}) CSV export and both imports
+ * go through {@code COPY}; on the embedded database they use a cursor and JDBC
+ * batches. Run with {@code -prof gc} to see that allocation per row does not
+ * depend on the file size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(EmployeeTransferBenchmark.ROWS)
+@Warmup(iterations=2, time=5)
+@Measurement(iterations=5, time=5)
+@Fork(1)
+public class EmployeeTransferBenchmark {
+
+	static final int ROWS=100_000;
+
+	@Param({"CSV", "NDJSON"})
+	private EmployeeFormat format;
+
+	private ConfigurableApplicationContext context;
+
+	private EmployeeTransferService employeeTransferService;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private byte[] file;
+
+	@Setup
+	public void setup() {
+		context=BenchmarkApplication.start(WebApplicationType.NONE);
+		employeeTransferService=context.getBean(EmployeeTransferService.class);
+		jdbcTemplate=context.getBean(JdbcTemplate.class);
+		file=render(format);
+		// leaves the table full for the export benchmark
+		employeeTransferService.importEmployees(format, new ByteArrayInputStream(file));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	/** Empties the table before each import so the emails in the file are new again. */
+	@State(Scope.Benchmark)
+	public static class EmptyTable {
+
+		@Setup(Level.Invocation)
+		public void truncate(EmployeeTransferBenchmark benchmark) {
+			benchmark.jdbcTemplate.execute("truncate table " + Employee.TABLE_NAME);
+		}
+
+	}
+
+	@Benchmark
+	public long importEmployees(EmptyTable emptyTable) {
+		return employeeTransferService.importEmployees(format, new ByteArrayInputStream(file));
+	}
+
+	@Benchmark
+	public long exportEmployees() {
+		return employeeTransferService.exportEmployees(format, OutputStream.nullOutputStream());
+	}
+
+	private static byte[] render(EmployeeFormat format) {
+		ByteArrayOutputStream bytes=new ByteArrayOutputStream();
+		try (PrintStream out=new PrintStream(bytes, false, StandardCharsets.UTF_8)) {
+			if(format == EmployeeFormat.CSV) {
+				out.print("firstName,lastName,email\n");
+			}
+			for(int i=0; i < ROWS; i++) {
+				Employee employee=BenchmarkApplication.employee(i, "transfer");
+				if(format == EmployeeFormat.CSV) {
+					out.printf("%s,%s,%s%n", employee.getFirstName(), employee.getLastName(), employee.getEmail());
+				} else {
+					out.printf("{\"firstName\":\"%s\",\"lastName\":\"%s\",\"email\":\"%s\"}%n",
+							employee.getFirstName(), employee.getLastName(), employee.getEmail());
+				}
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+}
@@ -0,0 +1,181 @@
+package net.javaguides.springboot.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import net.javaguides.springboot.dto.BulkResponse;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeBulkService;
+import net.javaguides.springboot.service.EmployeeService;
+
+/**
+ * The CRUD paths of {@link EmployeeService} and {@link EmployeeBulkService}
+ * under each setting of the {@code prod} profile taken on its own, so the
+ * effect of every setting can be read off against {@code baseline}
+ * (application.properties) and {@code none} (Hibernate without batching).
+ * {@code prod} is the whole profile. The pool size prints at setup.
+ * <p>
+ * The driver settings only exist for PostgreSQL, so this needs
+ * {@code -Dbenchmark.db.url}. Eight threads share the pool; reads miss the
+ * application caches, so every operation reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=2, time=3)
+@Measurement(iterations=3, time=3)
+@Threads(8)
+@Fork(1)
+public class JdbcTuningBenchmark {
+
+	static final int HOT_SET_SIZE=4000;
+
+	static final int BULK_SIZE=200;
+
+	private static final String DRIVER="spring.datasource.hikari.data-source-properties.";
+
+	private static final String HIBERNATE="spring.jpa.properties.hibernate.";
+
+	@Param({"none", "baseline", "pool", "statementCache", "rewriteBatch", "fetchSize", "inPadding", "prod"})
+	private String settings;
+
+	private ConfigurableApplicationContext context;
+
+	private EmployeeService employeeService;
+
+	private EmployeeBulkService employeeBulkService;
+
+	private EmployeeRepository employeeRepository;
+
+	private List<Employee> hotSet;
+
+	private long[] hotIds;
+
+	private final AtomicLong createdEmployees=new AtomicLong();
+
+	private final AtomicInteger threadSlices=new AtomicInteger();
+
+	static String[] properties(String settings) {
+		return switch(settings) {
+			case "none" -> new String[] { HIBERNATE + "jdbc.batch_size=1", HIBERNATE + "order_inserts=false", HIBERNATE + "order_updates=false" };
+			case "baseline" -> new String[0];
+			case "pool" -> new String[] { "app.datasource.pool.auto-size=true", "app.datasource.pool.expected-concurrency=50" };
+			case "statementCache" -> new String[] { DRIVER + "prepareThreshold=1", DRIVER + "preparedStatementCacheQueries=512",
+					DRIVER + "preparedStatementCacheSizeMiB=8" };
+			case "rewriteBatch" -> new String[] { DRIVER + "reWriteBatchedInserts=true" };
+			case "fetchSize" -> new String[] { HIBERNATE + "jdbc.fetch_size=100" };
+			case "inPadding" -> new String[] { HIBERNATE + "query.in_clause_parameter_padding=true" };
+			// every run starts from an empty table, unlike the profile's update
+			case "prod" -> new String[] { "spring.profiles.active=prod", "spring.jpa.hibernate.ddl-auto=create-drop" };
+			default -> throw new IllegalArgumentException("Unknown settings: " + settings);
+		};
+	}
+
+	@Setup
+	public void setup() {
+		if(System.getProperty("benchmark.db.url", "").isBlank()) {
+			throw new IllegalStateException("JdbcTuningBenchmark measures PostgreSQL driver settings; set -Dbenchmark.db.url");
+		}
+		context=BenchmarkApplication.start(WebApplicationType.NONE, properties(settings));
+		employeeService=context.getBean(EmployeeService.class);
+		employeeBulkService=context.getBean(EmployeeBulkService.class);
+		employeeRepository=context.getBean(EmployeeRepository.class);
+		System.out.println(settings + ": pool size " + context.getBean(HikariDataSource.class).getMaximumPoolSize());
+
+		BenchmarkApplication.insertEmployees(context, HOT_SET_SIZE, "hot");
+		hotSet=employeeService.getEmployeesAfter(0L, HOT_SET_SIZE);
+		hotIds=hotSet.stream().mapToLong(Employee::getId).toArray();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	/** Rows of the hot set that only this thread updates in bulk, so concurrent batches never wait on each other's locks. */
+	@State(Scope.Thread)
+	public static class ThreadSlice {
+
+		private final List<Employee> employees=new ArrayList<>();
+
+		private int updates;
+
+		@Setup
+		public void setup(JdbcTuningBenchmark benchmark, BenchmarkParams params) {
+			int slice=benchmark.threadSlices.getAndIncrement();
+			for(int i=slice; i < benchmark.hotSet.size() && employees.size() < BULK_SIZE; i+=params.getThreads()) {
+				employees.add(benchmark.hotSet.get(i));
+			}
+		}
+
+	}
+
+	@Benchmark
+	public Employee saveEmployee() {
+		return employeeService.saveEmployee(BenchmarkApplication.employee(createdEmployees.incrementAndGet(), "created"));
+	}
+
+	/** One IN lookup of the emails, then the inserts as JDBC batches. */
+	@Benchmark
+	public BulkResponse saveEmployees() {
+		List<Employee> employees=new ArrayList<>(BULK_SIZE);
+		for(int i=0; i < BULK_SIZE; i++) {
+			employees.add(BenchmarkApplication.employee(createdEmployees.incrementAndGet(), "bulk"));
+		}
+		return employeeBulkService.saveEmployees(employees);
+	}
+
+	@Benchmark
+	public Optional<Employee> findByEmail() {
+		return employeeRepository.findByEmail("hot" + ThreadLocalRandom.current().nextInt(HOT_SET_SIZE) + "@example.com");
+	}
+
+	@Benchmark
+	public EmployeePage<Employee> getEmployeePage() {
+		return employeeService.getEmployeePage(0L, 1000);
+	}
+
+	@Benchmark
+	public boolean patchEmployee() {
+		Employee changes=Employee.builder().firstName("Patched" + ThreadLocalRandom.current().nextInt()).build();
+		return employeeService.patchEmployee(hotIds[ThreadLocalRandom.current().nextInt(hotIds.length)], changes, null);
+	}
+
+	/** An IN lookup of the ids, then the changed entities as JDBC batches of updates. */
+	@Benchmark
+	public BulkResponse updateEmployees(ThreadSlice slice) {
+		int update=++slice.updates;
+		List<Employee> employees=new ArrayList<>(slice.employees.size());
+		for(Employee employee : slice.employees) {
+			employees.add(new Employee(employee.getId(), "Updated" + update, employee.getLastName(), employee.getEmail()));
+		}
+		return employeeBulkService.updateEmployees(employees);
+	}
+
+}
@@ -0,0 +1,210 @@
+package net.javaguides.springboot.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the packaged application as a new process once per startup mode and
+ * prints the median startup time and resident memory side by side:
+ * <ul>
+ * <li>{@code jvm}: the plain jar</li>
+ * <li>{@code aot}: the same jar with {@code -Dspring.aot.enabled=true}</li>
+ * <li>{@code cds} and {@code aot-cds}: the same two with a class data sharing
+ * archive, dumped by a training run of this class before the measured runs</li>
+ * <li>{@code native}: the GraalVM executable, skipped when it was not built</li>
+ * </ul>
+ * Every JVM mode runs the jar in {@code target/cds}, so package with
+ * {@code mvn -Paot,cds package} first; the AOT modes fail on a jar packaged
+ * without {@code -Paot}. Startup is the time Spring Boot reports in its
+ * {@code Started ... in} line, wall is that line as seen by this process, and
+ * RSS is read from {@code /proc} right after it, before any request.
+ * <p>
+ * Arguments are {@code runs=5}, {@code modes=jvm,aot,cds,aot-cds,native},
+ * {@code jvmArgs=-Xmx512m,...} for the JVM modes, {@code dir} and
+ * {@code native}; {@code --property=value} arguments go to every run. The
+ * database is the embedded default unless {@code -Dbenchmark.db.url} is set.
+ */
+public class StartupComparison {
+
+	private static final Pattern STARTED=Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+
+	private static final long TIMEOUT_SECONDS=120;
+
+	private final Path directory;
+
+	private final Path nativeExecutable;
+
+	private final List<String> jvmArgs;
+
+	private final List<String> properties;
+
+	StartupComparison(Map<String, String> options, List<String> properties) {
+		this.directory=Path.of(options.getOrDefault("dir", "target/cds")).toAbsolutePath();
+		this.nativeExecutable=Path.of(options.getOrDefault("native", "target/spring-boot-testing")).toAbsolutePath();
+		this.jvmArgs=options.containsKey("jvmArgs") ? Arrays.asList(options.get("jvmArgs").split(",")) : List.of();
+		this.properties=properties;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options=new LinkedHashMap<>();
+		List<String> properties=new ArrayList<>();
+		EmployeeLoadTest.parseArguments(args, options, properties);
+		int runs=Integer.parseInt(options.getOrDefault("runs", "5"));
+		StartupComparison comparison=new StartupComparison(options, properties);
+
+		Map<String, List<Startup>> results=new LinkedHashMap<>();
+		for(String mode : options.getOrDefault("modes", "jvm,aot,cds,aot-cds,native").split(",")) {
+			System.out.printf("%n=== %s ===%n", mode);
+			List<String> command=comparison.command(mode);
+			if(command == null) {
+				System.out.println("skipped: " + comparison.nativeExecutable + " does not exist");
+				continue;
+			}
+			List<Startup> startups=new ArrayList<>();
+			for(int run=1; run <= runs; run++) {
+				Startup startup=comparison.start(command);
+				System.out.printf("run %d: started in %.3f s, wall %d ms, RSS %.1f MB%n", run,
+						startup.seconds(), startup.wallMillis(), startup.rssKilobytes() / 1024.0);
+				startups.add(startup);
+			}
+			results.put(mode, startups);
+		}
+
+		System.out.printf("%n%-10s %12s %10s %10s%n", "mode", "started s", "wall ms", "RSS MB");
+		for(Map.Entry<String, List<Startup>> entry : results.entrySet()) {
+			List<Startup> startups=entry.getValue();
+			System.out.printf("%-10s %12.3f %10d %10.1f%n", entry.getKey(),
+					median(startups.stream().mapToDouble(Startup::seconds).toArray()),
+					(long) median(startups.stream().mapToDouble(Startup::wallMillis).toArray()),
+					median(startups.stream().mapToDouble(Startup::rssKilobytes).toArray()) / 1024.0);
+		}
+	}
+
+	/**
+	 * The command line of {@code mode}, after the training run for the CDS modes;
+	 * {@code null} when the native executable was not built.
+	 */
+	List<String> command(String mode) throws IOException, InterruptedException {
+		if(mode.equals("native")) {
+			return Files.isExecutable(nativeExecutable) ? List.of(nativeExecutable.toString()) : null;
+		}
+		List<String> command=new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(jvmArgs);
+		switch(mode) {
+			case "jvm" -> {
+			}
+			case "aot" -> command.add("-Dspring.aot.enabled=true");
+			case "cds", "aot-cds" -> {
+				if(mode.equals("aot-cds")) {
+					command.add("-Dspring.aot.enabled=true");
+				}
+				Path archive=directory.resolve("startup-" + mode + ".jsa");
+				Files.deleteIfExists(archive);
+				List<String> training=new ArrayList<>(command);
+				training.add("-XX:ArchiveClassesAtExit=" + archive);
+				training.add("-Xlog:cds=error");
+				training.addAll(jar());
+				training.add("--app.startup.exit=true");
+				train(training);
+				command.add("-XX:SharedArchiveFile=" + archive);
+			}
+			default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+		}
+		command.addAll(jar());
+		return command;
+	}
+
+	private List<String> jar() throws IOException {
+		try (var files=Files.list(directory)) {
+			Path jar=files.filter(file -> file.getFileName().toString().endsWith("-cds.jar"))
+					.findFirst()
+					.orElseThrow(() -> new IllegalStateException("No jar in " + directory + "; package with mvn -Paot,cds package"));
+			return List.of("-jar", jar.toString());
+		}
+	}
+
+	private void train(List<String> command) throws IOException, InterruptedException {
+		Process process=process(command).start();
+		List<String> output=new ArrayList<>();
+		try (BufferedReader reader=new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			reader.lines().forEach(output::add);
+		}
+		if(!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS) || process.exitValue() != 0) {
+			process.destroyForcibly();
+			throw new IllegalStateException("Training run failed:\n" + String.join("\n", output));
+		}
+	}
+
+	Startup start(List<String> command) throws IOException, InterruptedException {
+		long start=System.nanoTime();
+		Process process=process(command).start();
+		List<String> output=new ArrayList<>();
+		try (BufferedReader reader=new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			String line;
+			while((line=reader.readLine()) != null) {
+				output.add(line);
+				Matcher matcher=STARTED.matcher(line);
+				if(matcher.find()) {
+					long wallMillis=TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+					return new Startup(Double.parseDouble(matcher.group(1)), wallMillis, rssKilobytes(process.pid()));
+				}
+			}
+			throw new IllegalStateException("The application did not start:\n" + String.join("\n", output));
+		} finally {
+			process.destroy();
+			if(!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	private ProcessBuilder process(List<String> command) {
+		List<String> args=new ArrayList<>(command);
+		args.addAll(BenchmarkApplication.databaseArguments());
+		args.add("--spring.jpa.show-sql=false");
+		args.add("--spring.main.banner-mode=off");
+		for(String property : properties) {
+			args.add("--" + property);
+		}
+		return new ProcessBuilder(args)
+				.directory(directory.toFile())
+				.redirectErrorStream(true);
+	}
+
+	/** VmRSS of the process, or 0 where there is no {@code /proc}. */
+	static long rssKilobytes(long pid) throws IOException {
+		Path status=Path.of("/proc", Long.toString(pid), "status");
+		if(!Files.exists(status)) {
+			return 0;
+		}
+		return Files.readAllLines(status).stream()
+				.filter(line -> line.startsWith("VmRSS:"))
+				.map(line -> line.replaceAll("\\D", ""))
+				.mapToLong(Long::parseLong)
+				.findFirst()
+				.orElse(0);
+	}
+
+	static double median(double[] values) {
+		double[] sorted=values.clone();
+		Arrays.sort(sorted);
+		int middle=sorted.length / 2;
+		return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+	}
+
+	record Startup(double seconds, long wallMillis, long rssKilobytes) {
+	}
+
+}
@@ -0,0 +1,79 @@
+package net.javaguides.springboot.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs {@link EmployeeLoadTest} once per execution model with identical load
+ * and prints throughput and tail latency side by side: Tomcat's platform-thread
+ * pool, the {@code virtual} profile and, when listed in {@code modes}, the
+ * {@code reactive} profile (WebFlux on Netty with R2DBC). Each run gets a fresh
+ * application and database; per-run distributions go to
+ * {@code target/loadtest-<mode>.hgrm}.
+ * <p>
+ * Takes the same arguments as {@link EmployeeLoadTest}, plus
+ * {@code modes=platform,virtual} and {@code poolSize=20}, the JDBC or R2DBC pool
+ * size used by every run so they compete for the same number of connections.
+ * The in-memory default database never blocks on I/O, which is what virtual
+ * threads and the reactive stack help with, so meaningful numbers need
+ * {@code -Dbenchmark.db.url} pointing at PostgreSQL. To push the platform pool
+ * past its 200 threads, offer more concurrent work than that:
+ * <pre>
+ * mvn -Preactive,benchmark test-compile exec:exec@threads \
+ *     -Dbenchmark.db.url=jdbc:postgresql://localhost:5432/employees \
+ *     -Dloadtest.args="rate=5000 duration=60 poolSize=50 modes=platform,virtual,reactive"
+ * </pre>
+ */
+public class ThreadModelComparison {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options=new LinkedHashMap<>();
+		List<String> properties=new ArrayList<>();
+		EmployeeLoadTest.parseArguments(args, options, properties);
+		String poolSize=options.getOrDefault("poolSize", "20");
+		properties.add("spring.datasource.hikari.maximum-pool-size=" + poolSize);
+		properties.add("spring.r2dbc.pool.initial-size=" + poolSize);
+		properties.add("spring.r2dbc.pool.max-size=" + poolSize);
+		String out=options.getOrDefault("out", "target/loadtest.hgrm");
+
+		Map<String, EmployeeLoadTest> results=new LinkedHashMap<>();
+		for(String mode : options.getOrDefault("modes", "platform,virtual").split(",")) {
+			List<String> modeProperties=new ArrayList<>(properties);
+			if(!mode.equals("platform")) {
+				modeProperties.add("spring.profiles.active=" + mode);
+			}
+			Map<String, String> modeOptions=new LinkedHashMap<>(options);
+			modeOptions.put("out", out.replaceFirst("(\\.hgrm)?$", "-" + mode + ".hgrm"));
+
+			System.out.printf("%n=== %s ===%n", mode);
+			try (ConfigurableApplicationContext context=BenchmarkApplication.start(WebApplicationType.SERVLET,
+					modeProperties.toArray(String[]::new))) {
+				String target="http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+				EmployeeLoadTest loadTest=new EmployeeLoadTest(target, modeOptions);
+				loadTest.run();
+				results.put(mode, loadTest);
+			}
+		}
+
+		System.out.printf("%n%-10s %10s %10s %10s %10s %10s %10s%n",
+				"mode", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "failures");
+		for(Map.Entry<String, EmployeeLoadTest> entry : results.entrySet()) {
+			Histogram histogram=entry.getValue().totalLatency();
+			System.out.printf("%-10s %10.1f %10.2f %10.2f %10.2f %10.2f %10d%n", entry.getKey(),
+					histogram.getTotalCount() / (double) entry.getValue().durationSeconds(),
+					histogram.getValueAtPercentile(50) / 1000.0,
+					histogram.getValueAtPercentile(99) / 1000.0,
+					histogram.getValueAtPercentile(99.9) / 1000.0,
+					histogram.getMaxValue() / 1000.0,
+					entry.getValue().failures());
+		}
+	}
+
+}
@@ -2,12 +2,18 @@ package net.javaguides.springboot;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class SpringBootTestingApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(SpringBootTestingApplication.class, args);
+		ConfigurableApplicationContext context=SpringApplication.run(SpringBootTestingApplication.class, args);
+		// training runs for the class data sharing archive stop once started; read
+		// here rather than by a conditional bean so that AOT builds honour it too
+		if(context.getEnvironment().getProperty("app.startup.exit", Boolean.class, false)) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
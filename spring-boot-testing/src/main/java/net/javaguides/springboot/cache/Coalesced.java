@@ -0,0 +1,25 @@
+package net.javaguides.springboot.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Concurrent calls of the method with equal arguments share one invocation,
+ * see {@link CoalescingAspect}. Only for reads whose result may be handed to
+ * several callers at once.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+
+	/**
+	 * Names the method in {@code app.coalescing.methods.<name>} and in the
+	 * {@code method} tag of the metrics.
+	 */
+	String value();
+
+}
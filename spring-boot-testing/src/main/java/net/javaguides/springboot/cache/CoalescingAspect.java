@@ -0,0 +1,91 @@
+package net.javaguides.springboot.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.config.ReplicaRoutingDataSource;
+
+/**
+ * Single-flight for methods annotated with {@link Coalesced}: while a call is
+ * running, concurrent calls with equal arguments wait for it and return its
+ * result rather than running the method again, so a burst of requests for one
+ * employee costs one query.
+ * <p>
+ * The advice runs inside the cache advice, so a cache hit never waits, and
+ * outside the transaction advice, so a waiting call holds no connection. A
+ * call made inside a transaction runs on its own: it may have to see that
+ * transaction's uncommitted writes. So does a call from a request that
+ * {@link ReplicaRoutingDataSource} keeps on the primary: sharing a call routed
+ * to a replica would hand it a result older than its own write.
+ * <p>
+ * Meters, by {@code method}:
+ * <ul>
+ * <li>{@code coalescing.calls}: calls by {@code outcome}, {@code loaded} for
+ * those that ran the method and {@code shared} for those that waited</li>
+ * <li>{@code coalescing.ratio}: shared over all calls since the start</li>
+ * </ul>
+ */
+@Aspect
+@Order(CoalescingAspect.ORDER)
+public class CoalescingAspect {
+
+	/** Just inside the cache advice of {@code CacheConfig}. */
+	public static final int ORDER=Ordered.HIGHEST_PRECEDENCE + 1;
+
+	private final boolean enabled;
+
+	private final Map<String, Boolean> methods;
+
+	private final MeterRegistry meterRegistry;
+
+	private final ConcurrentMap<String, SingleFlight<List<Object>, Object>> flights=new ConcurrentHashMap<>();
+
+	/**
+	 * @param enabled whether methods not named in {@code methods} are coalesced
+	 * @param methods overrides of {@code enabled}, by {@link Coalesced#value()}
+	 */
+	public CoalescingAspect(boolean enabled, Map<String, Boolean> methods, MeterRegistry meterRegistry) {
+		this.enabled=enabled;
+		this.methods=Map.copyOf(methods);
+		this.meterRegistry=meterRegistry;
+	}
+
+	@Around("@annotation(coalesced)")
+	public Object coalesce(ProceedingJoinPoint joinPoint, Coalesced coalesced) throws Throwable {
+		if(!methods.getOrDefault(coalesced.value(), enabled)
+				|| TransactionSynchronizationManager.isActualTransactionActive()
+				|| ReplicaRoutingDataSource.isRequestOnPrimary()) {
+			return joinPoint.proceed();
+		}
+		return flights.computeIfAbsent(coalesced.value(), this::flight)
+				.execute(Arrays.asList(joinPoint.getArgs()), joinPoint::proceed);
+	}
+
+	private SingleFlight<List<Object>, Object> flight(String method) {
+		SingleFlight<List<Object>, Object> flight=new SingleFlight<>();
+		FunctionCounter.builder("coalescing.calls", flight, SingleFlight::getLoaded)
+				.tag("method", method).tag("outcome", "loaded")
+				.register(meterRegistry);
+		FunctionCounter.builder("coalescing.calls", flight, SingleFlight::getShared)
+				.tag("method", method).tag("outcome", "shared")
+				.register(meterRegistry);
+		Gauge.builder("coalescing.ratio", flight, SingleFlight::getCoalescingRatio)
+				.tag("method", method)
+				.register(meterRegistry);
+		return flight;
+	}
+
+}
@@ -0,0 +1,196 @@
+package net.javaguides.springboot.cache;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot.config.CacheConfig;
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Tells the other instances of the application to drop what they cache about
+ * an employee after this one changed it: the by-id entry, the whole by-email
+ * cache (the old email is not known) and the entity's second-level cache entry.
+ * The writing instance evicts its own caches with the cache annotations and
+ * ignores its own messages.
+ * <p>
+ * Messages are sent after the surrounding transaction commits, or right away
+ * without one; a message sent earlier could be applied before the change is
+ * visible and the old row cached again. A transport that itself holds messages
+ * back until the commit is sent to just before it instead, while the
+ * transaction still has its connection. Without an {@link InvalidationTransport}
+ * bean nothing is sent and the caches of other instances expire on their TTL.
+ * <p>
+ * Meters:
+ * <ul>
+ * <li>{@code employee.cache.invalidation.publish}: time spent sending, by outcome</li>
+ * <li>{@code employee.cache.invalidation.apply}: messages from other instances
+ * applied here and the time spent evicting; summed over the instances and
+ * divided by the publish count it is the fan-out</li>
+ * <li>{@code employee.cache.invalidation.staleness}: from the commit on the
+ * sender to the eviction here, the window in which this instance could serve
+ * the old employee; it includes the clock difference between the hosts</li>
+ * <li>{@code employee.cache.invalidation.lost}: transport gaps, each of which
+ * clears the caches</li>
+ * </ul>
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeCacheInvalidator {
+
+	private static final Logger log=LoggerFactory.getLogger(EmployeeCacheInvalidator.class);
+
+	static final String ALL="*";
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired(required=false)
+	private InvalidationTransport transport;
+
+	private final String instanceId=UUID.randomUUID().toString();
+
+	private Timer published;
+
+	private Timer publishFailed;
+
+	private Timer applied;
+
+	private Timer staleness;
+
+	private Counter lost;
+
+	@PostConstruct
+	void init() {
+		published=Timer.builder("employee.cache.invalidation.publish").tag("outcome", "success").register(meterRegistry);
+		publishFailed=Timer.builder("employee.cache.invalidation.publish").tag("outcome", "failure").register(meterRegistry);
+		applied=Timer.builder("employee.cache.invalidation.apply").register(meterRegistry);
+		staleness=Timer.builder("employee.cache.invalidation.staleness")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		lost=Counter.builder("employee.cache.invalidation.lost").register(meterRegistry);
+		if(transport != null) {
+			transport.subscribe(new InvalidationTransport.Listener() {
+
+				@Override
+				public void onMessage(String message) {
+					receive(message);
+				}
+
+				@Override
+				public void onMessagesLost() {
+					lost.increment();
+					evict(ALL);
+				}
+
+			});
+		}
+	}
+
+	/** The employee was created, changed or deleted. */
+	public void employeeChanged(long id) {
+		publish(Long.toString(id));
+	}
+
+	/** Any number of employees were changed, for bulk writes. */
+	public void allEmployeesChanged() {
+		publish(ALL);
+	}
+
+	private void publish(String key) {
+		if(transport == null) {
+			return;
+		}
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			boolean onCommit=transport.deliversOnCommit();
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				@Override
+				public void beforeCommit(boolean readOnly) {
+					if(onCommit) {
+						send(key);
+					}
+				}
+
+				@Override
+				public void afterCommit() {
+					if(!onCommit) {
+						send(key);
+					}
+				}
+
+			});
+		} else {
+			send(key);
+		}
+	}
+
+	/**
+	 * The change is committed by now, or about to be, so a failure is logged
+	 * rather than thrown at the caller.
+	 */
+	private void send(String key) {
+		long start=System.nanoTime();
+		try {
+			transport.publish(instanceId + " " + key + " " + System.currentTimeMillis());
+			published.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		} catch(RuntimeException e) {
+			publishFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			log.warn("Could not publish the invalidation of employee {}; other instances keep it until it expires", key, e);
+		}
+	}
+
+	private void receive(String message) {
+		String[] parts=message.split(" ");
+		if(parts.length != 3) {
+			log.warn("Ignoring malformed invalidation {}", message);
+			return;
+		}
+		if(parts[0].equals(instanceId)) {
+			return;
+		}
+		applied.record(() -> evict(parts[1]));
+		staleness.record(Math.max(0, System.currentTimeMillis() - Long.parseLong(parts[2])), TimeUnit.MILLISECONDS);
+	}
+
+	private void evict(String key) {
+		Cache byId=cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID);
+		Cache byEmail=cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL);
+		if(ALL.equals(key)) {
+			if(byId != null) {
+				byId.clear();
+			}
+			entityManagerFactory.getCache().evict(Employee.class);
+		} else {
+			long id=Long.parseLong(key);
+			if(byId != null) {
+				byId.evict(id);
+			}
+			entityManagerFactory.getCache().evict(Employee.class, id);
+		}
+		if(byEmail != null) {
+			byEmail.clear();
+		}
+	}
+
+}
@@ -0,0 +1,26 @@
+package net.javaguides.springboot.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers messages to the listeners of this instance on the publishing
+ * thread. Several invalidators subscribed to one transport stand in for
+ * several instances in tests; in a running application it only reaches the
+ * application itself.
+ */
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+
+	private final List<Listener> listeners=new CopyOnWriteArrayList<>();
+
+	@Override
+	public void publish(String message) {
+		listeners.forEach(listener -> listener.onMessage(message));
+	}
+
+	@Override
+	public void subscribe(Listener listener) {
+		listeners.add(listener);
+	}
+
+}
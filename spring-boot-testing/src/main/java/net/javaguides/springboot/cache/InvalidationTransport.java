@@ -0,0 +1,36 @@
+package net.javaguides.springboot.cache;
+
+/**
+ * Carries cache invalidation messages between the instances of the
+ * application. A message goes to every subscribed instance, the sender
+ * included; delivery is at most once and in no particular order.
+ */
+public interface InvalidationTransport {
+
+	void publish(String message);
+
+	/**
+	 * Whether a message published inside a transaction is held back until the
+	 * transaction commits and dropped if it rolls back. Such a transport is
+	 * published to before the commit rather than after it.
+	 */
+	default boolean deliversOnCommit() {
+		return false;
+	}
+
+	void subscribe(Listener listener);
+
+	interface Listener {
+
+		void onMessage(String message);
+
+		/**
+		 * Messages may have been lost, for example while the transport was
+		 * reconnecting; everything cached may be stale.
+		 */
+		default void onMessagesLost() {
+		}
+
+	}
+
+}
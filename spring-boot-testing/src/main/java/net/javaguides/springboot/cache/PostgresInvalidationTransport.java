@@ -0,0 +1,170 @@
+package net.javaguides.springboot.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+/**
+ * PostgreSQL LISTEN/NOTIFY between the instances sharing a database. Messages
+ * are sent with {@code pg_notify} on the connection of the surrounding
+ * transaction, where PostgreSQL delivers them on commit and drops them on
+ * rollback, so sending takes no second connection from the pool; outside a
+ * transaction a pooled connection is borrowed. They are received on a
+ * connection of its own, opened outside the pool since it is held for the
+ * life of the application. Nothing is stored: an instance that is not
+ * listening at the time misses the message, so after a reconnect the
+ * listeners are told that messages were lost.
+ */
+public class PostgresInvalidationTransport implements InvalidationTransport, SmartLifecycle {
+
+	private static final Logger log=LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+
+	private static final int POLL_TIMEOUT_MS=500;
+
+	private final DataSource dataSource;
+
+	private final String url;
+
+	private final String username;
+
+	private final String password;
+
+	private final String channel;
+
+	private final Duration reconnectDelay;
+
+	private final List<Listener> listeners=new CopyOnWriteArrayList<>();
+
+	private volatile boolean running;
+
+	private Thread receiver;
+
+	/**
+	 * @param dataSource sends the messages, the one the transactions are bound to
+	 * @param url the database listened to, which must be the one {@code dataSource} writes to
+	 */
+	public PostgresInvalidationTransport(DataSource dataSource, String url, String username, String password,
+			String channel, Duration reconnectDelay) {
+		if(!channel.matches("[a-z_][a-z0-9_]*")) {
+			throw new IllegalArgumentException("Not a channel name: " + channel);
+		}
+		this.dataSource=dataSource;
+		this.url=url;
+		this.username=username;
+		this.password=password;
+		this.channel=channel;
+		this.reconnectDelay=reconnectDelay;
+	}
+
+	/**
+	 * A failure inside a transaction aborts it, so the change is rolled back
+	 * rather than committed without the other instances being told.
+	 */
+	@Override
+	public void publish(String message) {
+		Connection connection=DataSourceUtils.getConnection(dataSource);
+		try (PreparedStatement statement=connection.prepareStatement("select pg_notify(?, ?)")) {
+			statement.setString(1, channel);
+			statement.setString(2, message);
+			statement.execute();
+		} catch(SQLException e) {
+			throw new DataAccessResourceFailureException("Could not notify " + channel, e);
+		} finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+
+	@Override
+	public boolean deliversOnCommit() {
+		return true;
+	}
+
+	@Override
+	public void subscribe(Listener listener) {
+		listeners.add(listener);
+	}
+
+	private void receive() {
+		boolean lost=false;
+		while(running) {
+			try (Connection connection=DriverManager.getConnection(url, username, password);
+					Statement statement=connection.createStatement()) {
+				statement.execute("LISTEN " + channel);
+				if(lost) {
+					log.info("Listening on {} again", channel);
+					listeners.forEach(Listener::onMessagesLost);
+				}
+				PGConnection pgConnection=connection.unwrap(PGConnection.class);
+				while(running) {
+					PGNotification[] notifications=pgConnection.getNotifications(POLL_TIMEOUT_MS);
+					if(notifications != null) {
+						for(PGNotification notification : notifications) {
+							deliver(notification.getParameter());
+						}
+					}
+				}
+			} catch(SQLException e) {
+				if(!running) {
+					return;
+				}
+				lost=true;
+				log.warn("Lost the listen connection on {}, reconnecting in {}: {}", channel, reconnectDelay, e.getMessage());
+				try {
+					Thread.sleep(reconnectDelay.toMillis());
+				} catch(InterruptedException interrupted) {
+					return;
+				}
+			}
+		}
+	}
+
+	private void deliver(String message) {
+		for(Listener listener : listeners) {
+			try {
+				listener.onMessage(message);
+			} catch(RuntimeException e) {
+				log.warn("Failed to handle {} from {}", message, channel, e);
+			}
+		}
+	}
+
+	@Override
+	public void start() {
+		running=true;
+		receiver=new Thread(this::receive, "invalidation-" + channel);
+		receiver.setDaemon(true);
+		receiver.start();
+	}
+
+	@Override
+	public void stop() {
+		running=false;
+		receiver.interrupt();
+		try {
+			receiver.join(POLL_TIMEOUT_MS * 4L);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+}
@@ -0,0 +1,74 @@
+package net.javaguides.springboot.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs at most one load per key at a time: a caller that finds a load for its
+ * key already running waits for it and gets the same value, or the same
+ * exception, instead of loading again. Nothing is kept once the load is done,
+ * so a caller arriving after that loads afresh.
+ * <p>
+ * The waiting callers share the loaded object; like a cache hit it must not be
+ * changed by them.
+ */
+public class SingleFlight<K, V> {
+
+	@FunctionalInterface
+	public interface Loader<V> {
+
+		V load() throws Throwable;
+
+	}
+
+	private final ConcurrentMap<K, CompletableFuture<V>> calls=new ConcurrentHashMap<>();
+
+	private final LongAdder loaded=new LongAdder();
+
+	private final LongAdder shared=new LongAdder();
+
+	public V execute(K key, Loader<V> loader) throws Throwable {
+		CompletableFuture<V> call=new CompletableFuture<>();
+		CompletableFuture<V> running=calls.putIfAbsent(key, call);
+		if(running != null) {
+			shared.increment();
+			try {
+				return running.join();
+			} catch(CompletionException e) {
+				throw e.getCause();
+			}
+		}
+		loaded.increment();
+		try {
+			V value=loader.load();
+			call.complete(value);
+			return value;
+		} catch(Throwable e) {
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			calls.remove(key, call);
+		}
+	}
+
+	/** Calls that ran the load themselves. */
+	public long getLoaded() {
+		return loaded.sum();
+	}
+
+	/** Calls that got the result of a load already running. */
+	public long getShared() {
+		return shared.sum();
+	}
+
+	/** The share of calls that did not load, 0 before the first call. */
+	public double getCoalescingRatio() {
+		long shared=getShared();
+		long total=getLoaded() + shared;
+		return total == 0 ? 0 : (double) shared / total;
+	}
+
+}
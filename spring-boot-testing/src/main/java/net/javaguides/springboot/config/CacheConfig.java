@@ -0,0 +1,23 @@
+package net.javaguides.springboot.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * In-process read-through caches for employee lookups. Size, TTL and statistics
+ * come from {@code spring.cache.caffeine.spec}; the Hibernate second-level cache
+ * region for the entity is configured separately in {@code application.conf}.
+ * <p>
+ * The cache advice runs outside the transaction advice, so a cache hit returns
+ * before a transaction is begun and a connection borrowed for it.
+ */
+@Configuration
+@EnableCaching(order=Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+	public static final String EMPLOYEES_BY_ID="employeesById";
+
+	public static final String EMPLOYEES_BY_EMAIL="employeesByEmail";
+
+}
@@ -0,0 +1,43 @@
+package net.javaguides.springboot.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import net.javaguides.springboot.cache.EmployeeCacheInvalidator;
+import net.javaguides.springboot.cache.InMemoryInvalidationTransport;
+import net.javaguides.springboot.cache.PostgresInvalidationTransport;
+
+/**
+ * Picks the transport {@link EmployeeCacheInvalidator} sends on with
+ * {@code app.cache.invalidation.transport}: {@code postgres} for instances
+ * sharing a PostgreSQL primary, {@code memory} for a single instance and
+ * tests, {@code none} (the default) to rely on the cache TTL alone.
+ */
+@Configuration(proxyBeanMethods=false)
+@Profile("!reactive")
+public class CacheInvalidationConfig {
+
+	@Bean
+	@ConditionalOnProperty(name="app.cache.invalidation.transport", havingValue="postgres")
+	public PostgresInvalidationTransport postgresInvalidationTransport(DataSource dataSource, DataSourceProperties properties,
+			@Value("${app.cache.invalidation.channel:employee_invalidation}") String channel,
+			@Value("${app.cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+		return new PostgresInvalidationTransport(dataSource, properties.determineUrl(), properties.determineUsername(),
+				properties.determinePassword(), channel, reconnectDelay);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name="app.cache.invalidation.transport", havingValue="memory")
+	public InMemoryInvalidationTransport inMemoryInvalidationTransport() {
+		return new InMemoryInvalidationTransport();
+	}
+
+}
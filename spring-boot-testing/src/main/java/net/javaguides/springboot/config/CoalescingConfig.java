@@ -0,0 +1,33 @@
+package net.javaguides.springboot.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.cache.CoalescingAspect;
+
+/**
+ * Coalesces concurrent identical lookups with {@link CoalescingAspect}.
+ * {@code app.coalescing.enabled} sets the default and
+ * {@code app.coalescing.methods.<name>} switches a single method, by the name
+ * given in its {@code @Coalesced}.
+ */
+@Configuration(proxyBeanMethods=false)
+public class CoalescingConfig {
+
+	@Bean
+	public CoalescingAspect coalescingAspect(Environment environment, MeterRegistry meterRegistry,
+			@Value("${app.coalescing.enabled:true}") boolean enabled) {
+		Map<String, Boolean> methods=Binder.get(environment)
+				.bind("app.coalescing.methods", Bindable.mapOf(String.class, Boolean.class))
+				.orElse(Map.of());
+		return new CoalescingAspect(enabled, methods, meterRegistry);
+	}
+
+}
@@ -0,0 +1,92 @@
+package net.javaguides.springboot.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sizes the Hikari pool instead of keeping its fixed default of 10, using the
+ * usual starting point for PostgreSQL of {@code cores * 2 + effective spindles}
+ * connections: past that, extra connections only queue on the server's CPUs
+ * and disks. The pool is never made larger than the expected number of
+ * requests using the database at once, since connections beyond that would
+ * sit idle.
+ * <p>
+ * Enabled with {@code app.datasource.pool.auto-size=true}, which the
+ * {@code prod} profile sets. The formula needs the cores of the database
+ * server, {@code app.datasource.pool.database-cores}; without it the pool
+ * keeps Hikari's default, as the cores of the application host say nothing
+ * about the database. An explicit
+ * {@code spring.datasource.hikari.maximum-pool-size} still wins.
+ */
+@Configuration(proxyBeanMethods=false)
+@ConditionalOnProperty(name="app.datasource.pool.auto-size", havingValue="true")
+public class DataSourcePoolConfig {
+
+	static final String MAXIMUM_POOL_SIZE="spring.datasource.hikari.maximum-pool-size";
+
+	static final String DATABASE_CORES="app.datasource.pool.database-cores";
+
+	/**
+	 * Runs after the {@code spring.datasource.hikari.*} properties are bound and
+	 * before the pool is started by its first connection request.
+	 */
+	@Bean
+	public static BeanPostProcessor hikariPoolSizer(Environment environment) {
+		return new HikariPoolSizer(environment);
+	}
+
+	/**
+	 * @param databaseCores cores of the database server
+	 * @param effectiveSpindles disks the server can keep busy at once; 0 when the data set is cached in memory
+	 * @param expectedConcurrency peak requests using the database at once, 0 for no limit
+	 */
+	static int poolSize(int databaseCores, int effectiveSpindles, int expectedConcurrency) {
+		int size=databaseCores * 2 + effectiveSpindles;
+		if(expectedConcurrency > 0) {
+			size=Math.min(size, expectedConcurrency);
+		}
+		return Math.max(2, size);
+	}
+
+	private static final class HikariPoolSizer implements BeanPostProcessor, Ordered {
+
+		private static final Logger log=LoggerFactory.getLogger(DataSourcePoolConfig.class);
+
+		private final Environment environment;
+
+		private HikariPoolSizer(Environment environment) {
+			this.environment=environment;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+			if(bean instanceof HikariDataSource dataSource && !environment.containsProperty(MAXIMUM_POOL_SIZE)) {
+				Integer databaseCores=environment.getProperty(DATABASE_CORES, Integer.class);
+				if(databaseCores == null) {
+					log.warn("{} is not set, keeping Hikari's default pool size", DATABASE_CORES);
+					return bean;
+				}
+				dataSource.setMaximumPoolSize(poolSize(databaseCores,
+						environment.getProperty("app.datasource.pool.effective-spindles", Integer.class, 1),
+						environment.getProperty("app.datasource.pool.expected-concurrency", Integer.class, 0)));
+			}
+			return bean;
+		}
+
+		@Override
+		public int getOrder() {
+			return Ordered.LOWEST_PRECEDENCE;
+		}
+
+	}
+
+}
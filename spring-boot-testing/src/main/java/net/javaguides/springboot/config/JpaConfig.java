@@ -0,0 +1,23 @@
+package net.javaguides.springboot.config;
+
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import net.javaguides.springboot.repository.EmployeeRepository;
+
+/**
+ * JPA repositories for the servlet stack. Spring Data JPA refuses reactive
+ * repository interfaces found while scanning, so the R2DBC one is filtered out
+ * by name, as only the reactive build has it; in the {@code reactive} profile
+ * there is no DataSource and JPA is not set up.
+ */
+@Configuration(proxyBeanMethods=false)
+@Profile("!reactive")
+@EnableJpaRepositories(basePackageClasses=EmployeeRepository.class,
+		excludeFilters=@Filter(type=FilterType.REGEX, pattern=".*\\.Reactive[^.]*Repository"))
+public class JpaConfig {
+
+}
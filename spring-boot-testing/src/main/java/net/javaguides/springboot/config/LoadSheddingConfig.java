@@ -0,0 +1,97 @@
+package net.javaguides.springboot.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.loadshedding.AdaptiveConcurrencyLimiter;
+import net.javaguides.springboot.loadshedding.LoadSheddingInterceptor;
+
+/**
+ * Rate limits and an adaptive concurrency limit in front of the
+ * {@code /api/**} controllers, so that a spike is answered with quick 429s
+ * and 503s instead of queueing on the Tomcat threads and the Hikari pool
+ * until every request is slow.
+ * <p>
+ * Enabled with {@code app.load-shedding.enabled=true}. Per-endpoint limits
+ * shared by all clients are set by endpoint, for example
+ * {@code app.load-shedding.endpoint-rates[GET\ /api/allemployees]=5}, the
+ * space escaped so that it does not end the key in a properties file.
+ */
+@Configuration(proxyBeanMethods=false)
+@Profile("!reactive")
+@ConditionalOnProperty(name="app.load-shedding.enabled", havingValue="true")
+public class LoadSheddingConfig {
+
+	@Autowired
+	private Environment environment;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${app.load-shedding.client.rate:100}")
+	private double clientRate;
+
+	@Value("${app.load-shedding.client.burst:200}")
+	private int clientBurst;
+
+	@Value("${app.load-shedding.client.max-buckets:100000}")
+	private long maxBuckets;
+
+	@Value("${app.load-shedding.client-header:}")
+	private String clientHeader;
+
+	@Value("${app.load-shedding.concurrency.enabled:true}")
+	private boolean concurrencyEnabled;
+
+	@Value("${app.load-shedding.concurrency.initial-limit:20}")
+	private int initialLimit;
+
+	@Value("${app.load-shedding.concurrency.min-limit:4}")
+	private int minLimit;
+
+	@Value("${app.load-shedding.concurrency.max-limit:200}")
+	private int maxLimit;
+
+	@Value("${app.load-shedding.concurrency.tolerance:1.5}")
+	private double tolerance;
+
+	@Value("${app.load-shedding.concurrency.window:100ms}")
+	private Duration window;
+
+	@Bean
+	public LoadSheddingInterceptor loadSheddingInterceptor() {
+		Map<String, Double> endpointRates=Binder.get(environment)
+				.bind("app.load-shedding.endpoint-rates", Bindable.mapOf(String.class, Double.class))
+				.orElse(Map.of());
+		AdaptiveConcurrencyLimiter concurrencyLimiter=concurrencyEnabled
+				? new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, window.toNanos(), System.nanoTime())
+				: null;
+		return new LoadSheddingInterceptor(clientRate, clientBurst, maxBuckets, endpointRates, clientHeader, concurrencyLimiter, meterRegistry);
+	}
+
+	@Bean
+	public WebMvcConfigurer loadSheddingWebMvcConfigurer(LoadSheddingInterceptor loadSheddingInterceptor) {
+		return new WebMvcConfigurer() {
+
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(loadSheddingInterceptor).addPathPatterns("/api/**");
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,99 @@
+package net.javaguides.springboot.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsProperties;
+import org.springframework.boot.actuate.autoconfigure.metrics.PropertiesAutoTimer;
+import org.springframework.boot.actuate.metrics.data.MetricsRepositoryMethodInvocationListener;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.ObservationPredicate;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import net.javaguides.springboot.metrics.GatedMetricsTrackerFactory;
+import net.javaguides.springboot.metrics.GatedRepositoryMethodInvocationListener;
+import net.javaguides.springboot.metrics.MetricGroup;
+import net.javaguides.springboot.metrics.MetricGroups;
+
+/**
+ * Wires the runtime switches in {@link MetricGroups} into the places the
+ * metrics are produced. Everything else (Prometheus registry, JVM and cache
+ * binders, Hibernate statistics binding) is Boot's auto-configuration.
+ */
+@Configuration(proxyBeanMethods=false)
+public class MetricsConfig {
+
+	public static final String HTTP_SERVER_REQUESTS="http.server.requests";
+
+	public static final String SERVICE_OBSERVATION_PREFIX="employee.";
+
+	/** Times every method of classes annotated with {@code @Observed}. */
+	@Bean
+	public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+		return new ObservedAspect(observationRegistry);
+	}
+
+	/**
+	 * A rejected observation is replaced by a no-op one, so a switched-off group
+	 * costs one flag read per request or call.
+	 */
+	@Bean
+	public ObservationPredicate metricGroupsObservationPredicate(MetricGroups metricGroups) {
+		return (name, context) -> {
+			if(HTTP_SERVER_REQUESTS.equals(name)) {
+				return metricGroups.isEnabled(MetricGroup.HTTP);
+			}
+			if(name.startsWith(SERVICE_OBSERVATION_PREFIX)) {
+				return metricGroups.isEnabled(MetricGroup.SERVICE);
+			}
+			return true;
+		};
+	}
+
+	/** Replaces Boot's repository timer listener with one that can be switched off. */
+	@Bean
+	public MetricsRepositoryMethodInvocationListener metricsRepositoryMethodInvocationListener(
+			ObjectProvider<MeterRegistry> registry, RepositoryTagsProvider tagsProvider,
+			MetricsProperties metricsProperties, MetricGroups metricGroups) {
+		MetricsProperties.Data.Repository repository=metricsProperties.getData().getRepository();
+		return new GatedRepositoryMethodInvocationListener(registry::getObject, tagsProvider,
+				repository.getMetricName(), new PropertiesAutoTimer(repository.getAutotime()), metricGroups);
+	}
+
+	/**
+	 * Installs the Hikari metrics tracker ahead of Boot's binder, which then
+	 * finds a tracker already set and leaves the pool alone. The replica pools
+	 * behind a {@link ReplicaRoutingDataSource} are not beans and get theirs
+	 * here only.
+	 */
+	@Bean
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public MeterBinder gatedHikariMeterBinder(ObjectProvider<DataSource> dataSources, MetricGroups metricGroups) {
+		return registry -> dataSources.forEach(dataSource -> {
+			List<DataSource> pools=dataSource instanceof ReplicaRoutingDataSource routing
+					? routing.getReplicas() : List.of(dataSource);
+			for(DataSource pool : pools) {
+				HikariDataSource hikari=DataSourceUnwrapper.unwrap(pool, HikariConfigMXBean.class, HikariDataSource.class);
+				if(hikari != null && hikari.getMetricRegistry() == null && hikari.getMetricsTrackerFactory() == null) {
+					hikari.setMetricsTrackerFactory(new GatedMetricsTrackerFactory(
+							new MicrometerMetricsTrackerFactory(registry), metricGroups));
+				}
+			}
+		});
+	}
+
+}
@@ -0,0 +1,103 @@
+package net.javaguides.springboot.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to read replicas and
+ * the rest to {@code spring.datasource.url}, through a
+ * {@link ReplicaRoutingDataSource} that replaces Boot's data source.
+ * <p>
+ * Enabled with {@code app.datasource.replicas.enabled=true} and a
+ * comma-separated {@code app.datasource.replicas.urls}. Each replica gets a
+ * pool configured like the primary's, with the primary's credentials unless
+ * {@code username} and {@code password} are set and a short connection
+ * timeout, so a dead replica is skipped quickly. After a write a client reads
+ * the primary for {@code stickiness}, which should exceed the usual
+ * replication lag. A lagging replica can still put a row older than the last
+ * write into the employee caches, as long as a client without the cookie reads
+ * it right after the eviction.
+ */
+@Configuration(proxyBeanMethods=false)
+@Profile("!reactive")
+@ConditionalOnProperty(name="app.datasource.replicas.enabled", havingValue="true")
+public class ReadReplicaConfig {
+
+	@Value("${app.datasource.replicas.urls}")
+	private List<String> urls;
+
+	@Value("${app.datasource.replicas.username:${spring.datasource.username:}}")
+	private String username;
+
+	@Value("${app.datasource.replicas.password:${spring.datasource.password:}}")
+	private String password;
+
+	@Value("${app.datasource.replicas.connection-timeout:1s}")
+	private Duration connectionTimeout;
+
+	@Value("${app.datasource.replicas.health-check-interval:5s}")
+	private Duration healthCheckInterval;
+
+	@Value("${app.datasource.replicas.stickiness:5s}")
+	private Duration stickiness;
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	/**
+	 * The replica pools start with the first connection request, after the
+	 * metrics tracker is installed.
+	 */
+	@Bean
+	public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource) {
+		Map<String, DataSource> replicas=new LinkedHashMap<>();
+		for(int i=0; i < urls.size(); i++) {
+			HikariConfig config=new HikariConfig();
+			primaryDataSource.copyStateTo(config);
+			config.setPoolName("replica-" + (i + 1));
+			config.setJdbcUrl(urls.get(i).trim());
+			config.setUsername(username);
+			config.setPassword(password);
+			config.setConnectionTimeout(connectionTimeout.toMillis());
+			// a replica that is down at startup is left to the health check
+			config.setInitializationFailTimeout(-1);
+			HikariDataSource replica=new HikariDataSource();
+			config.copyStateTo(replica);
+			replicas.put(config.getPoolName() + " " + config.getJdbcUrl(), replica);
+		}
+		return new ReplicaRoutingDataSource(primaryDataSource, replicas, healthCheckInterval);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+		return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+	}
+
+	@Bean
+	public ReadYourWritesFilter readYourWritesFilter() {
+		return new ReadYourWritesFilter(stickiness, Clock.systemUTC());
+	}
+
+}
@@ -0,0 +1,73 @@
+package net.javaguides.springboot.config;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.javaguides.springboot.config.ReplicaRoutingDataSource.RequestScope;
+
+/**
+ * Keeps a client on the primary for a while after it writes, so it does not
+ * read a replica that has not caught up with its own change yet. A request
+ * with an unsafe method sets a cookie holding the end of that window, and
+ * requests carrying an unexpired one read the primary. Clients that drop
+ * cookies only read their writes within the same request.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+	static final String COOKIE="primary-until";
+
+	private static final Set<String> SAFE_METHODS=Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+	private final Duration window;
+
+	private final Clock clock;
+
+	public ReadYourWritesFilter(Duration window, Clock clock) {
+		this.window=window;
+		this.clock=clock;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		long now=clock.millis();
+		boolean recentWrite=primaryUntil(request) > now;
+		if(!SAFE_METHODS.contains(request.getMethod())) {
+			// before the chain, while the response can still take headers
+			Cookie cookie=new Cookie(COOKIE, Long.toString(now + window.toMillis()));
+			cookie.setPath("/");
+			cookie.setMaxAge((int) Math.ceil(window.toMillis() / 1000.0));
+			cookie.setHttpOnly(true);
+			response.addCookie(cookie);
+		}
+		try (RequestScope scope=ReplicaRoutingDataSource.openRequest(recentWrite)) {
+			filterChain.doFilter(request, response);
+		}
+	}
+
+	private static long primaryUntil(HttpServletRequest request) {
+		if(request.getCookies() == null) {
+			return 0;
+		}
+		for(Cookie cookie : request.getCookies()) {
+			if(COOKIE.equals(cookie.getName())) {
+				try {
+					return Long.parseLong(cookie.getValue());
+				} catch(NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		return 0;
+	}
+
+}
@@ -0,0 +1,220 @@
+package net.javaguides.springboot.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections to read-only transactions and primary
+ * connections to everything else. Wrap it in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction managers ask for a connection before the transaction is
+ * marked read-only, and the proxy defers the choice to the first statement.
+ * <p>
+ * Replicas are taken round-robin. One that fails to give a connection is left
+ * out until the periodic health check finds it valid again; with no replica
+ * left, reads go to the primary.
+ * <p>
+ * Within a request opened with {@link #openRequest}, reads go to the primary
+ * once the request has used it, so a request reads its own writes; the
+ * request can also start pinned to the primary, see {@link ReadYourWritesFilter}.
+ * Reads on other threads (background writers, streamed responses) are routed
+ * by the transaction alone.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements SmartLifecycle, AutoCloseable {
+
+	private static final Logger log=LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+	private static final ThreadLocal<RequestScope> REQUEST=new ThreadLocal<>();
+
+	private static final int VALIDATION_TIMEOUT_SECONDS=2;
+
+	private final DataSource primary;
+
+	private final List<Replica> replicas=new ArrayList<>();
+
+	private final Duration healthCheckInterval;
+
+	private final AtomicInteger next=new AtomicInteger();
+
+	private ScheduledExecutorService healthChecker;
+
+	private static final class Replica {
+
+		private final String name;
+
+		private final DataSource dataSource;
+
+		private volatile boolean healthy=true;
+
+		private Replica(String name, DataSource dataSource) {
+			this.name=name;
+			this.dataSource=dataSource;
+		}
+
+	}
+
+	/**
+	 * @param replicas the replicas by a name used in the logs
+	 */
+	public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration healthCheckInterval) {
+		this.primary=primary;
+		replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+		this.healthCheckInterval=healthCheckInterval;
+	}
+
+	/**
+	 * Starts the routing state of a request on the current thread; close it when
+	 * the request ends.
+	 *
+	 * @param primary read the primary for the whole request
+	 */
+	public static RequestScope openRequest(boolean primary) {
+		RequestScope scope=new RequestScope(primary);
+		REQUEST.set(scope);
+		return scope;
+	}
+
+	/**
+	 * Whether the request on the current thread reads the primary, because it
+	 * started pinned to it or has used it since.
+	 */
+	public static boolean isRequestOnPrimary() {
+		RequestScope scope=REQUEST.get();
+		return scope != null && scope.primary;
+	}
+
+	/** Routing state of one request, see {@link #openRequest}. */
+	public static final class RequestScope implements AutoCloseable {
+
+		private boolean primary;
+
+		private RequestScope(boolean primary) {
+			this.primary=primary;
+		}
+
+		@Override
+		public void close() {
+			REQUEST.remove();
+		}
+
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		RequestScope scope=REQUEST.get();
+		if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || (scope != null && scope.primary)) {
+			if(scope != null) {
+				scope.primary=true;
+			}
+			return primary.getConnection();
+		}
+		List<Replica> healthy=replicas.stream().filter(replica -> replica.healthy).toList();
+		int start=next.getAndIncrement();
+		for(int i=0; i < healthy.size(); i++) {
+			Replica replica=healthy.get(Math.floorMod(start + i, healthy.size()));
+			try {
+				return replica.dataSource.getConnection();
+			} catch(SQLException e) {
+				markDown(replica, e);
+			}
+		}
+		return primary.getConnection();
+	}
+
+	/**
+	 * Credentials name an account on one database, and the replicas' pools hand
+	 * out connections only for their own, so these connections always come
+	 * from the primary, which the current request then reads as well.
+	 */
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		RequestScope scope=REQUEST.get();
+		if(scope != null) {
+			scope.primary=true;
+		}
+		return primary.getConnection(username, password);
+	}
+
+	/** The replica data sources, healthy or not. */
+	public List<DataSource> getReplicas() {
+		return replicas.stream().map(replica -> replica.dataSource).toList();
+	}
+
+	/** Number of replicas currently taking reads. */
+	public int getHealthyReplicas() {
+		return (int) replicas.stream().filter(replica -> replica.healthy).count();
+	}
+
+	/** Checks every replica once, bringing back the ones that answer again. */
+	void checkHealth() {
+		for(Replica replica : replicas) {
+			try (Connection connection=replica.dataSource.getConnection()) {
+				if(!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+					throw new SQLException("Connection is not valid");
+				}
+				if(!replica.healthy) {
+					replica.healthy=true;
+					log.info("Replica {} is back, routing reads to it", replica.name);
+				}
+			} catch(SQLException | RuntimeException e) {
+				markDown(replica, e);
+			}
+		}
+	}
+
+	private void markDown(Replica replica, Exception cause) {
+		if(replica.healthy) {
+			replica.healthy=false;
+			log.warn("Replica {} is down, routing its reads elsewhere: {}", replica.name, cause.getMessage());
+		}
+	}
+
+	@Override
+	public void start() {
+		healthChecker=Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread=new Thread(task, "replica-health");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval=healthCheckInterval.toMillis();
+		healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void stop() {
+		healthChecker.shutdownNow();
+		healthChecker=null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return healthChecker != null;
+	}
+
+	/** Closes the replica pools; the primary belongs to whoever created it. */
+	@Override
+	public void close() throws Exception {
+		for(Replica replica : replicas) {
+			if(replica.dataSource instanceof AutoCloseable closeable) {
+				closeable.close();
+			}
+		}
+	}
+
+}
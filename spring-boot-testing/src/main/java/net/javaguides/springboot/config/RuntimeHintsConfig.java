@@ -0,0 +1,67 @@
+package net.javaguides.springboot.config;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import net.javaguides.springboot.dto.BulkItemResult;
+import net.javaguides.springboot.dto.BulkResponse;
+import net.javaguides.springboot.dto.DeleteResult;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeSearch;
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.dto.ImportResult;
+import net.javaguides.springboot.dto.IngestStatus;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeSearchIndexes;
+
+/**
+ * What a native image needs beyond what Spring's AOT processing finds on its
+ * own. Controller methods typed {@code Object} or {@code ResponseEntity<?>}
+ * hide their body types, so every type that goes through Jackson or the data
+ * binder is listed for binding; that covers the accessors Lombok generates.
+ * Hibernate loads the rest by name.
+ */
+@Configuration(proxyBeanMethods=false)
+@ImportRuntimeHints(RuntimeHintsConfig.EmployeeRuntimeHints.class)
+@RegisterReflectionForBinding({Employee.class, EmployeeView.class, EmployeePage.class, EmployeeSearch.class,
+		EmployeeSearchPage.class, BulkResponse.class, BulkItemResult.class, ImportResult.class, IngestStatus.class,
+		DeleteResult.class})
+public class RuntimeHintsConfig {
+
+	static class EmployeeRuntimeHints implements RuntimeHintsRegistrar {
+
+		@Override
+		public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+			// the constructor expression of EmployeeRepository's listing query
+			hints.reflection().registerType(Employee.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+			// found through META-INF/services by Hibernate
+			hints.reflection().registerType(EmployeeSearchIndexes.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+			hints.resources().registerPattern("META-INF/services/org.hibernate.boot.spi.AdditionalMappingContributor");
+			// the JCache provider named in hibernate.javax.cache.provider, and its region settings
+			hints.reflection().registerType(TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"),
+					MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+			hints.resources().registerPattern("application.conf");
+			// the schema of the reactive profile
+			hints.resources().registerPattern("db/employees-schema.sql");
+			// the JDBC proxies of SqlRecordingDataSource
+			for(Class<?> type : new Class<?>[] { Connection.class, Statement.class, PreparedStatement.class,
+					CallableStatement.class, ResultSet.class }) {
+				hints.proxies().registerJdkProxy(type);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,89 @@
+package net.javaguides.springboot.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.controller.EmployeeController;
+import net.javaguides.springboot.metrics.MetricGroups;
+import net.javaguides.springboot.sql.SqlRecordingDataSource;
+import net.javaguides.springboot.sql.SqlStatisticsInterceptor;
+
+/**
+ * Counts the SQL each {@link EmployeeController} request runs, to catch N+1
+ * selects and query regressions: the {@code dataSource} bean is wrapped in a
+ * {@link SqlRecordingDataSource} and a {@link SqlStatisticsInterceptor}
+ * collects per request.
+ * <p>
+ * On unless {@code app.sql.recording.enabled=false}. Statements slower than
+ * {@code app.sql.slow-statement-threshold} are logged, with their parameters
+ * only under {@code app.sql.log-parameters=true} as they may hold personal
+ * data, and a request running more statements than its endpoint's budget, for
+ * example {@code app.sql.budgets[GET\ /api/allemployees]=2}, is logged too.
+ */
+@Configuration(proxyBeanMethods=false)
+@Profile("!reactive")
+@ConditionalOnProperty(name="app.sql.recording.enabled", havingValue="true", matchIfMissing=true)
+public class SqlStatisticsConfig {
+
+	static final String DATA_SOURCE="dataSource";
+
+	/**
+	 * Wraps the data source everything uses: the pool itself, or the routing
+	 * proxy in front of the primary and the replicas. Runs after the pool
+	 * sizer, which needs the pool unwrapped.
+	 */
+	@Bean
+	public static BeanPostProcessor sqlRecordingDataSourcePostProcessor(Environment environment) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+				if(bean instanceof DataSource dataSource && DATA_SOURCE.equals(beanName)) {
+					return new SqlRecordingDataSource(dataSource,
+							environment.getProperty("app.sql.slow-statement-threshold", Duration.class, Duration.ofMillis(200)),
+							environment.getProperty("app.sql.log-parameters", Boolean.class, false));
+				}
+				return bean;
+			}
+
+		};
+	}
+
+	@Bean
+	public SqlStatisticsInterceptor sqlStatisticsInterceptor(Environment environment, MeterRegistry meterRegistry,
+			MetricGroups metricGroups) {
+		Map<String, Integer> budgets=Binder.get(environment)
+				.bind("app.sql.budgets", Bindable.mapOf(String.class, Integer.class))
+				.orElse(Map.of());
+		return new SqlStatisticsInterceptor(Set.of(EmployeeController.class), budgets, meterRegistry, metricGroups);
+	}
+
+	@Bean
+	public WebMvcConfigurer sqlStatisticsWebMvcConfigurer(SqlStatisticsInterceptor sqlStatisticsInterceptor) {
+		return new WebMvcConfigurer() {
+
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(sqlStatisticsInterceptor).addPathPatterns("/api/**");
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,41 @@
+package net.javaguides.springboot.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Runs Tomcat request processing, and with it the service and repository calls
+ * made from the controllers, on one virtual thread per request instead of the
+ * bounded platform-thread pool. Streaming responses and other MVC async work
+ * use virtual threads as well.
+ * <p>
+ * Enabled with {@code app.threads.virtual.enabled=true}, which the
+ * {@code virtual} profile sets together with the pool settings that go with it.
+ * Without Tomcat's thread cap the Hikari pool becomes the limit on concurrent
+ * database work, so those settings make waiting for a connection fail fast
+ * rather than letting requests queue on the pool.
+ */
+@Configuration(proxyBeanMethods=false)
+@ConditionalOnProperty(name="app.threads.virtual.enabled", havingValue="true")
+public class VirtualThreadConfig {
+
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+		return protocolHandler -> protocolHandler.setExecutor(
+				Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+	}
+
+	@Bean(name=TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+	public AsyncTaskExecutor applicationTaskExecutor() {
+		return new TaskExecutorAdapter(
+				Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-vt-", 0).factory()));
+	}
+
+}
@@ -0,0 +1,53 @@
+package net.javaguides.springboot.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Binary encodings of the same data model as the JSON API, for
+ * service-to-service callers: Smile ({@code application/x-jackson-smile}) and
+ * CBOR ({@code application/cbor}), picked by {@code Accept} and
+ * {@code Content-Type}. Field names are written once per payload and numbers
+ * in binary, so lists are smaller and cheaper to encode and decode than JSON.
+ * <p>
+ * The mappers come from Boot's {@link Jackson2ObjectMapperBuilder}, so
+ * {@code spring.jackson.*} settings apply to them as they do to JSON. Declared
+ * as beans they take the place of the default converters of the same type.
+ */
+@Configuration(proxyBeanMethods=false)
+public class WireFormatConfig {
+
+	public static final MediaType APPLICATION_SMILE=MediaType.valueOf("application/x-jackson-smile");
+
+	/** In the order the streaming list endpoints check {@code Accept}. */
+	public static final List<MediaType> BINARY_MEDIA_TYPES=List.of(APPLICATION_SMILE, MediaType.APPLICATION_CBOR);
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+	}
+
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+	}
+
+	static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+		return builder.factory(new SmileFactory()).build();
+	}
+
+	static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+		return builder.factory(new CBORFactory()).build();
+	}
+
+}
@@ -0,0 +1,73 @@
+package net.javaguides.springboot.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import net.javaguides.springboot.dto.BulkResponse;
+import net.javaguides.springboot.dto.DeleteResult;
+import net.javaguides.springboot.dto.EmployeeSearch;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeBulkService;
+
+@RestController
+@RequestMapping("/api/employees/bulk")
+@Profile("!reactive")
+public class EmployeeBulkController {
+
+	@Autowired
+	private EmployeeBulkService employeeBulkService;
+
+	@Value("${app.employees.bulk.max-size:10000}")
+	private int maxBulkSize;
+
+	@PostMapping
+	public ResponseEntity<BulkResponse> saveEmployees(@RequestBody List<Employee> employees) {
+		if(employees.size() > maxBulkSize) {
+			return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+		}
+		return ResponseEntity.ok(employeeBulkService.saveEmployees(employees));
+	}
+
+	@PutMapping
+	public ResponseEntity<BulkResponse> updateEmployees(@RequestBody List<Employee> employees) {
+		if(employees.size() > maxBulkSize) {
+			return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+		}
+		return ResponseEntity.ok(employeeBulkService.updateEmployees(employees));
+	}
+
+	@DeleteMapping
+	public ResponseEntity<BulkResponse> deleteEmployees(@RequestBody List<Long> employeeIds) {
+		if(employeeIds.size() > maxBulkSize) {
+			return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+		}
+		return ResponseEntity.ok(employeeBulkService.deleteEmployees(employeeIds));
+	}
+
+	/**
+	 * Deletes every employee matching the case-insensitive name prefixes, e.g.
+	 * {@code DELETE /api/employees/bulk/matching?email=test}. There is no size
+	 * limit, since the rows are deleted in chunks without reading them.
+	 */
+	@DeleteMapping("/matching")
+	public ResponseEntity<DeleteResult> deleteEmployeesMatching(EmployeeSearch search) {
+		try {
+			return ResponseEntity.ok(new DeleteResult(employeeBulkService.deleteEmployeesMatching(search)));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+
+}
@@ -1,66 +1,352 @@
 package net.javaguides.springboot.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
+import net.javaguides.springboot.config.WireFormatConfig;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeSearch;
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.dto.EmployeeView;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeIngestService;
 import net.javaguides.springboot.service.EmployeeService;
 
 @RestController
 @RequestMapping("/api")
+@Profile("!reactive")
 public class EmployeeController {
 	
 	@Autowired
 	private EmployeeService employeeService;
 	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Autowired
+	private HttpMessageConverters httpMessageConverters;
+	
+	@Value("${app.employees.streaming-threshold:10000}")
+	private int streamingThreshold;
+	
+	@Value("${app.employees.page.max-limit:1000}")
+	private int maxPageLimit;
+	
+	/** Present only in the asynchronous ingestion mode. */
+	@Autowired(required=false)
+	private EmployeeIngestService employeeIngestService;
+	
+	@Value("${app.employees.ingest.retry-after:1s}")
+	private Duration ingestRetryAfter;
+	
+	/**
+	 * Creates the employee and answers 201. In the asynchronous ingestion mode it
+	 * is only queued: the answer is 202 with a tracking id to poll at the
+	 * {@code Location}, or 429 with {@code Retry-After} while the queue is full.
+	 */
 	@PostMapping("/employees")
-	@ResponseStatus(HttpStatus.CREATED)
-	public Employee saveEmployee(@RequestBody Employee employee) {
-		return employeeService.saveEmployee(employee);
+	public ResponseEntity<?> saveEmployee(@RequestBody Employee employee) {
+		if(employeeIngestService == null) {
+			return new ResponseEntity<>(employeeService.saveEmployee(employee), HttpStatus.CREATED);
+		}
+		return employeeIngestService.submit(employee)
+				.<ResponseEntity<?>>map(status -> ResponseEntity.accepted()
+						.location(URI.create(EmployeeIngestController.STATUS_PATH + status.getTrackingId()))
+						.body(status))
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+						.header(HttpHeaders.RETRY_AFTER, String.valueOf(ingestRetryAfter.toSeconds()))
+						.build());
 	}
 	
+	/**
+	 * Returns the whole table as a JSON array, or in one of the binary formats of
+	 * {@link WireFormatConfig} when accepted. Up to {@code streamingThreshold}
+	 * rows are read in a single query and returned as a list; past that the
+	 * response switches to the streaming writer so heap use stays flat. The row
+	 * count comes with the table version, so a large table is streamed without
+	 * loading any of it first. The return type is left open so the streaming
+	 * body is picked up by its own return value handler.
+	 * <p>
+	 * The weak {@code ETag} covers the whole table; a poll that sends it back in
+	 * {@code If-None-Match} gets 304 before any row is read. It is always read in
+	 * the transaction that reads the rows it is sent with, the streamed ones
+	 * included.
+	 */
 	@GetMapping("/allemployees")
-	public List<Employee> getAllEmployees() {
-		return employeeService.getAllEmployees();
+	public Object getAllEmployees(@RequestHeader(value=HttpHeaders.ACCEPT, required=false) String accept,
+			HttpServletResponse response, ServletWebRequest webRequest) {
+		Optional<List<Employee>> employees=employeeService.getAllEmployeesUnlessNotModified(
+				tag -> webRequest.checkNotModified(weakEtag(tag)), streamingThreshold);
+		if(webRequest.isNotModified()) {
+			return null;
+		}
+		if(employees.isPresent()) {
+			return employees.get();
+		}
+		MediaType mediaType=streamingMediaType(accept);
+		response.setContentType(mediaType.toString());
+		// nothing is written before the tag, so the header still goes out with the rows
+		return employeeStream(mediaType, consumer -> employeeService.streamAllEmployees(
+				tag -> response.setHeader(HttpHeaders.ETAG, weakEtag(tag)), consumer));
 	}
 	
+	/**
+	 * With {@code fields}, e.g. {@code fields=firstName,email}, only those columns
+	 * are read and returned, plus the id.
+	 */
+	@GetMapping("/employees")
+	public EmployeePage<?> getEmployeePage(@RequestParam(value="afterId", defaultValue="0") long afterId,
+			@RequestParam(value="limit", defaultValue="100") int limit,
+			@RequestParam(value="fields", required=false) String fields) {
+		int pageSize=Math.max(1, Math.min(limit, maxPageLimit));
+		if(fields == null) {
+			return employeeService.getEmployeePage(afterId, pageSize);
+		}
+		return employeeService.getEmployeeViewPage(afterId, pageSize, selectedFields(fields));
+	}
+	
+	@GetMapping("/employees/stream")
+	public ResponseEntity<StreamingResponseBody> streamEmployees(@RequestHeader(value=HttpHeaders.ACCEPT, required=false) String accept) {
+		MediaType mediaType=streamingMediaType(accept);
+		return ResponseEntity.ok()
+				.contentType(mediaType)
+				.body(employeeStream(mediaType, employeeService::streamAllEmployees));
+	}
+	
+	/** NDJSON, Smile or CBOR when the client accepts it, JSON otherwise. */
+	private static MediaType streamingMediaType(String accept) {
+		if(accept != null) {
+			if(accept.contains(MediaType.APPLICATION_NDJSON_VALUE)) {
+				return MediaType.APPLICATION_NDJSON;
+			}
+			for(MediaType mediaType : WireFormatConfig.BINARY_MEDIA_TYPES) {
+				if(accept.contains(mediaType.toString())) {
+					return mediaType;
+				}
+			}
+		}
+		return MediaType.APPLICATION_JSON;
+	}
+	
+	/** The mapper of the message converter for that type, so streamed and buffered lists are encoded alike. */
+	private ObjectMapper streamingMapper(MediaType mediaType) {
+		for(HttpMessageConverter<?> converter : httpMessageConverters) {
+			if(converter instanceof AbstractJackson2HttpMessageConverter jacksonConverter
+					&& jacksonConverter.canWrite(Employee.class, mediaType)) {
+				return jacksonConverter.getObjectMapper();
+			}
+		}
+		return objectMapper;
+	}
+	
+	/**
+	 * Writes employees to the response as they come off the JDBC cursor, either
+	 * as one array (JSON, Smile or CBOR) or as newline-delimited JSON. Nothing is
+	 * flushed per row; the generator's buffer and the servlet output buffer
+	 * decide when bytes go out.
+	 *
+	 * @param employees reads the rows, pushing each to the consumer it is given
+	 */
+	private StreamingResponseBody employeeStream(MediaType mediaType, Consumer<Consumer<Employee>> employees) {
+		boolean ndjson=MediaType.APPLICATION_NDJSON.equals(mediaType);
+		ObjectMapper mapper=ndjson ? objectMapper : streamingMapper(mediaType);
+		ObjectWriter writer=mapper.writerFor(Employee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		return outputStream -> {
+			try (JsonGenerator generator=mapper.getFactory().createGenerator(outputStream)) {
+				if(ndjson) {
+					generator.setRootValueSeparator(null);
+				} else {
+					generator.writeStartArray();
+				}
+				employees.accept(employee -> {
+					try {
+						writer.writeValue(generator, employee);
+						if(ndjson) {
+							generator.writeRaw('\n');
+						}
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+				if(!ndjson) {
+					generator.writeEndArray();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Case-insensitive prefix search, e.g.
+	 * {@code /api/employees/search?lastName=red&sort=firstName&limit=20}; pass the
+	 * returned {@code nextCursor} as {@code after} for the next page.
+	 */
+	@GetMapping("/employees/search")
+	public EmployeeSearchPage searchEmployees(EmployeeSearch search) {
+		try {
+			return employeeService.searchEmployees(search, Math.max(1, Math.min(search.getLimit(), maxPageLimit)));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * The employee comes from the by-id cache either way; {@code fields} only
+	 * trims the response. The {@code ETag} is the employee's version: when
+	 * {@code If-None-Match} still names it the answer is 304, decided on the
+	 * version alone without loading or serializing the employee.
+	 */
 	@GetMapping("/employees/{id}")
-	public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId){
+	public ResponseEntity<?> getEmployeeById(@PathVariable("id") long employeeId,
+			@RequestParam(value="fields", required=false) String fields,
+			@RequestHeader(value=HttpHeaders.IF_NONE_MATCH, required=false) String ifNoneMatch, WebRequest webRequest){
+		Set<String> selected=fields == null ? null : selectedFields(fields);
+		if(ifNoneMatch != null) {
+			Optional<Long> version=employeeService.getEmployeeVersion(employeeId);
+			if(version.isEmpty()) {
+				return ResponseEntity.notFound().build();
+			}
+			if(webRequest.checkNotModified(etag(version.get()))) {
+				return null;
+			}
+		}
 		return employeeService.getEmployeeById(employeeId)
+				.<ResponseEntity<?>>map(employee -> ResponseEntity.ok()
+						.eTag(etag(employee.getVersion()))
+						.body(selected == null ? employee : EmployeeView.of(employee, selected)))
+				.orElseGet(() -> ResponseEntity.notFound().build());
+	}
+	
+	static String etag(long version) {
+		return "\"" + version + "\"";
+	}
+	
+	private static String weakEtag(String tag) {
+		return "W/\"" + tag + "\"";
+	}
+	
+	/**
+	 * The version named by an {@code If-Match} header, or null when there is no
+	 * header or it is {@code *}. If-Match compares strongly, so a weak or
+	 * unknown tag can never match and fails the precondition.
+	 */
+	static Long expectedVersion(String ifMatch) {
+		if(ifMatch == null || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String tag=ifMatch.trim();
+		if(tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+			try {
+				return Long.parseLong(tag.substring(1, tag.length() - 1));
+			} catch (NumberFormatException e) {
+				// falls through to the failed precondition
+			}
+		}
+		throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not name a version of this employee: " + ifMatch);
+	}
+	
+	private static Set<String> selectedFields(String fields) {
+		try {
+			return EmployeeView.parseFields(fields);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+	
+	@GetMapping("/employees/by-email")
+	public ResponseEntity<Employee> getEmployeeByEmail(@RequestParam("email") String email){
+		return employeeService.getEmployeeByEmail(email)
 				.map(ResponseEntity::ok)
 				.orElseGet(() -> ResponseEntity.notFound().build());
 	}
 	
+	/**
+	 * With {@code If-Match} the update only applies while the employee is still
+	 * at that version, and 412 tells the client to fetch it again. The new
+	 * {@code ETag} is only known, and sent, for such conditional updates.
+	 */
 	@PutMapping("/employees/{id}")
-	public ResponseEntity<Employee> updateEmployeeById(@PathVariable("id") long employeeId, @RequestBody Employee employee){
-		return employeeService.getEmployeeById(employeeId)
-				.map(savedEmployee -> {
-					
-					savedEmployee.setFirstName(employee.getFirstName());
-					savedEmployee.setLastName(employee.getLastName());
-					savedEmployee.setEmail(employee.getEmail());
-					
-					Employee updatedEmployee=employeeService.updateEmployee(savedEmployee);
-					return new ResponseEntity<>(updatedEmployee,HttpStatus.OK);
-				})
-				.orElseGet(() -> ResponseEntity.notFound().build());
+	public ResponseEntity<Employee> updateEmployeeById(@PathVariable("id") long employeeId, @RequestBody Employee employee,
+			@RequestHeader(value=HttpHeaders.IF_MATCH, required=false) String ifMatch){
+		Long expectedVersion=expectedVersion(ifMatch);
+		try {
+			return employeeService.replaceEmployee(employeeId, employee, expectedVersion)
+					.map(updatedEmployee -> expectedVersion == null
+							? new ResponseEntity<>(updatedEmployee,HttpStatus.OK)
+							: ResponseEntity.ok().eTag(etag(updatedEmployee.getVersion())).body(updatedEmployee))
+					.orElseGet(() -> ResponseEntity.notFound().build());
+		} catch (OptimisticLockingFailureException e) {
+			throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Changes only the fields present in the body. Answers 204 without a body,
+	 * since returning the full employee would take a second query. Takes
+	 * {@code If-Match} like PUT.
+	 */
+	@PatchMapping("/employees/{id}")
+	public ResponseEntity<Void> patchEmployeeById(@PathVariable("id") long employeeId, @RequestBody Employee employee,
+			@RequestHeader(value=HttpHeaders.IF_MATCH, required=false) String ifMatch){
+		Long expectedVersion=expectedVersion(ifMatch);
+		try {
+			if(!employeeService.patchEmployee(employeeId, employee, expectedVersion)) {
+				return ResponseEntity.notFound().build();
+			}
+		} catch (OptimisticLockingFailureException e) {
+			throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage(), e);
+		}
+		if(expectedVersion == null) {
+			return ResponseEntity.noContent().build();
+		}
+		// the update moved the employee from the expected version to the next
+		return ResponseEntity.noContent().eTag(etag(expectedVersion + 1)).build();
 	}
 	
 	@DeleteMapping("/employees/{id}")
 	public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId){
-		employeeService.deleteEmployee(employeeId);
+		if(!employeeService.deleteEmployee(employeeId)) {
+			return ResponseEntity.notFound().build();
+		}
 		return new ResponseEntity<String>("Employee deleted successfully",HttpStatus.OK);
 	}
 
@@ -0,0 +1,37 @@
+package net.javaguides.springboot.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import net.javaguides.springboot.dto.IngestStatus;
+import net.javaguides.springboot.service.EmployeeIngestService;
+
+/**
+ * Status of employees accepted with 202 by {@code POST /api/employees} in the
+ * asynchronous ingestion mode.
+ */
+@RestController
+@RequestMapping("/api/employees/ingest")
+@Profile("!reactive")
+@ConditionalOnProperty(name="app.employees.ingest.enabled", havingValue="true")
+public class EmployeeIngestController {
+
+	static final String STATUS_PATH="/api/employees/ingest/";
+
+	@Autowired
+	private EmployeeIngestService employeeIngestService;
+
+	@GetMapping("/{trackingId}")
+	public ResponseEntity<IngestStatus> getStatus(@PathVariable("trackingId") String trackingId) {
+		return employeeIngestService.getStatus(trackingId)
+				.map(ResponseEntity::ok)
+				.orElseGet(() -> ResponseEntity.notFound().build());
+	}
+
+}
@@ -0,0 +1,79 @@
+package net.javaguides.springboot.controller;
+
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import net.javaguides.springboot.dto.EmployeeFormat;
+import net.javaguides.springboot.dto.ImportResult;
+import net.javaguides.springboot.exception.InvalidImportException;
+import net.javaguides.springboot.service.EmployeeTransferService;
+
+/**
+ * Loads and dumps the employees table as CSV ({@code text/csv}) or NDJSON
+ * ({@code application/x-ndjson}), chosen by {@code Content-Type} on import and
+ * {@code Accept} on export. Bodies are streamed in both directions.
+ */
+@RestController
+@RequestMapping("/api/employees")
+@Profile("!reactive")
+public class EmployeeTransferController {
+
+	@Autowired
+	private EmployeeTransferService employeeTransferService;
+
+	/**
+	 * All or nothing: 400 for a malformed or incomplete record, naming it, and
+	 * 409 when an email already exists or repeats in the file.
+	 */
+	@PostMapping(value="/import", consumes=EmployeeFormat.TEXT_CSV_VALUE)
+	public ImportResult importCsv(InputStream body) {
+		return importEmployees(EmployeeFormat.CSV, body);
+	}
+
+	@PostMapping(value="/import", consumes=MediaType.APPLICATION_NDJSON_VALUE)
+	public ImportResult importNdjson(InputStream body) {
+		return importEmployees(EmployeeFormat.NDJSON, body);
+	}
+
+	@GetMapping(value="/export", produces=EmployeeFormat.TEXT_CSV_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportCsv() {
+		return exportEmployees(EmployeeFormat.CSV);
+	}
+
+	@GetMapping(value="/export", produces=MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportNdjson() {
+		return exportEmployees(EmployeeFormat.NDJSON);
+	}
+
+	private ImportResult importEmployees(EmployeeFormat format, InputStream body) {
+		try {
+			return new ImportResult(employeeTransferService.importEmployees(format, body));
+		} catch (InvalidImportException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		} catch (DataIntegrityViolationException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMostSpecificCause().getMessage(), e);
+		}
+	}
+
+	private ResponseEntity<StreamingResponseBody> exportEmployees(EmployeeFormat format) {
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(format.getMediaType()))
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(format.getFileName()).build().toString())
+				.body(outputStream -> employeeTransferService.exportEmployees(format, outputStream));
+	}
+
+}
@@ -0,0 +1,37 @@
+package net.javaguides.springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of one row of a bulk request. {@code index} is the row's position in
+ * the request body.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkItemResult {
+
+	public enum Status {
+		CREATED, UPDATED, DELETED, DUPLICATE, NOT_FOUND, INVALID
+	}
+
+	private int index;
+
+	private Long id;
+
+	private Status status;
+
+	private String message;
+
+	@JsonIgnore
+	public boolean isSucceeded() {
+		return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+	}
+
+}
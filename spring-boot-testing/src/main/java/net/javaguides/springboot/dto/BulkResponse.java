@@ -0,0 +1,27 @@
+package net.javaguides.springboot.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkResponse {
+
+	private int succeeded;
+
+	private int failed;
+
+	private List<BulkItemResult> results;
+
+	public static BulkResponse of(List<BulkItemResult> results) {
+		int succeeded=(int) results.stream().filter(BulkItemResult::isSucceeded).count();
+		return new BulkResponse(succeeded, results.size() - succeeded, results);
+	}
+
+}
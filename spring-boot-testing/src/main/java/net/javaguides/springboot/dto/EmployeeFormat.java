@@ -0,0 +1,53 @@
+package net.javaguides.springboot.dto;
+
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * File formats for importing and exporting the employees table: one JSON
+ * object per line, or CSV with a header row.
+ */
+public enum EmployeeFormat {
+
+	CSV(EmployeeFormat.TEXT_CSV_VALUE), NDJSON(MediaType.APPLICATION_NDJSON_VALUE);
+
+	public static final String TEXT_CSV_VALUE="text/csv";
+
+	/**
+	 * CSV columns in file order, which is also the column order of the
+	 * PostgreSQL {@code COPY}. On import the header decides which column is
+	 * which, and an {@code id} column may be left out.
+	 */
+	public static final CsvSchema CSV_SCHEMA=CsvSchema.builder()
+			.addColumn("id")
+			.addColumn("firstName")
+			.addColumn("lastName")
+			.addColumn("email")
+			.build();
+
+	public static final CsvMapper CSV_MAPPER=CsvMapper.builder()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+			.enable(CsvParser.Feature.SKIP_EMPTY_LINES, CsvParser.Feature.EMPTY_STRING_AS_NULL)
+			.build();
+
+	private final String mediaType;
+
+	EmployeeFormat(String mediaType) {
+		this.mediaType=mediaType;
+	}
+
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	public String getFileName() {
+		return "employees." + name().toLowerCase(Locale.ROOT);
+	}
+
+}
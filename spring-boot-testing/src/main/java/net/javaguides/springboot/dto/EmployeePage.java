@@ -0,0 +1,26 @@
+package net.javaguides.springboot.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One page of a keyset-paginated employee listing, of full employees or of
+ * {@link EmployeeView} projections. {@code nextCursor} is the id to pass as
+ * {@code afterId} for the following page, or {@code null} when this is the
+ * last page.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeePage<T> {
+
+	private List<T> content;
+
+	private Long nextCursor;
+
+}
@@ -0,0 +1,104 @@
+package net.javaguides.springboot.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Query parameters of {@code /api/employees/search}. Each name filter is a
+ * case-insensitive prefix; filters that are set must all match. Results are
+ * ordered by {@code sort} (case-insensitively for the name fields), then by id,
+ * and paged with the opaque {@code after} cursor from the previous page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class EmployeeSearch {
+
+	private String firstName;
+
+	private String lastName;
+
+	private String email;
+
+	/** One of {@link EmployeeView#FIELDS}. */
+	private String sort=EmployeeView.ID;
+
+	/** {@code asc} or {@code desc}. */
+	private String direction="asc";
+
+	private String after;
+
+	private int limit=100;
+
+	public boolean isDescending() {
+		return "desc".equalsIgnoreCase(direction);
+	}
+
+	/** Whether any of the name filters is set. */
+	public boolean hasFilter() {
+		return isSet(firstName) || isSet(lastName) || isSet(email);
+	}
+
+	private static boolean isSet(String prefix) {
+		return prefix != null && !prefix.isEmpty();
+	}
+
+	/**
+	 * @throws IllegalArgumentException for an unknown sort field or direction, or a
+	 *         cursor that is malformed or was issued for another sort field
+	 */
+	public void validate() {
+		if(!EmployeeView.FIELDS.contains(sort)) {
+			throw new IllegalArgumentException("Unknown sort field: " + sort + ", expected one of " + EmployeeView.FIELDS);
+		}
+		if(!"asc".equalsIgnoreCase(direction) && !isDescending()) {
+			throw new IllegalArgumentException("Unknown sort direction: " + direction + ", expected asc or desc");
+		}
+		if(after != null) {
+			afterId();
+		}
+	}
+
+	/** Id of the last row of the previous page. */
+	public long afterId() {
+		try {
+			return Long.parseLong(decodeAfter()[1]);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Malformed cursor: " + after, e);
+		}
+	}
+
+	/** Sort key of the last row of the previous page; empty when sorting by id. */
+	public String afterSortKey() {
+		return decodeAfter()[2];
+	}
+
+	/**
+	 * Builds the cursor for the page after the row with the given id and sort key.
+	 */
+	public String cursor(long id, String sortKey) {
+		String cursor=sort + ":" + id + ":" + sortKey;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String[] decodeAfter() {
+		String[] cursor;
+		try {
+			cursor=new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8).split(":", 3);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Malformed cursor: " + after, e);
+		}
+		if(cursor.length != 3) {
+			throw new IllegalArgumentException("Malformed cursor: " + after);
+		}
+		if(!cursor[0].equals(sort)) {
+			throw new IllegalArgumentException("Cursor was issued for sort field " + cursor[0] + ", not " + sort);
+		}
+		return cursor;
+	}
+
+}
@@ -0,0 +1,27 @@
+package net.javaguides.springboot.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * One page of search results. {@code nextCursor} is passed back as
+ * {@code after} to get the following page, and is {@code null} on the last
+ * page. It is only valid with the same sort field.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeSearchPage {
+
+	private List<Employee> content;
+
+	private String nextCursor;
+
+}
@@ -0,0 +1,86 @@
+package net.javaguides.springboot.dto;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * A read-only subset of an employee's fields, as selected by the {@code fields}
+ * query parameter. Fields that were not selected stay {@code null} and are left
+ * out of the JSON. The id is always included since it is the page cursor.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeView {
+
+	public static final String ID="id";
+
+	/** Selectable fields; the names are both the JSON properties and the entity attributes. */
+	public static final List<String> FIELDS=List.of(ID, "firstName", "lastName", "email");
+
+	private Long id;
+
+	private String firstName;
+
+	private String lastName;
+
+	private String email;
+
+	/**
+	 * Parses a comma-separated field list such as {@code firstName,email}.
+	 *
+	 * @return the selected fields in request order, always starting with the id
+	 * @throws IllegalArgumentException for a name that is not one of {@link #FIELDS}
+	 */
+	public static Set<String> parseFields(String fields) {
+		Set<String> selected=new LinkedHashSet<>();
+		selected.add(ID);
+		for(String field : fields.split(",")) {
+			String name=field.trim();
+			if(name.isEmpty()) {
+				continue;
+			}
+			if(!FIELDS.contains(name)) {
+				throw new IllegalArgumentException("Unknown employee field: " + name + ", expected one of " + FIELDS);
+			}
+			selected.add(name);
+		}
+		return selected;
+	}
+
+	public static EmployeeView of(Employee employee, Set<String> fields) {
+		EmployeeView view=new EmployeeView();
+		for(String field : fields) {
+			view.set(field, switch(field) {
+				case "id" -> employee.getId();
+				case "firstName" -> employee.getFirstName();
+				case "lastName" -> employee.getLastName();
+				case "email" -> employee.getEmail();
+				default -> throw new IllegalArgumentException("Unknown employee field: " + field);
+			});
+		}
+		return view;
+	}
+
+	/** Sets one selected field from a query result column. */
+	public void set(String field, Object value) {
+		switch(field) {
+			case "id" -> setId((Long) value);
+			case "firstName" -> setFirstName((String) value);
+			case "lastName" -> setLastName((String) value);
+			case "email" -> setEmail((String) value);
+			default -> throw new IllegalArgumentException("Unknown employee field: " + field);
+		}
+	}
+
+}
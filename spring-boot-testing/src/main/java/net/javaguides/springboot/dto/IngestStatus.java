@@ -0,0 +1,34 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Where an employee accepted by the asynchronous ingestion mode stands.
+ * {@code id} is the employee's id once it has been written.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class IngestStatus {
+
+	public enum State {
+		QUEUED, CREATED, DUPLICATE, INVALID, FAILED
+	}
+
+	private String trackingId;
+
+	private State state;
+
+	private Long id;
+
+	private String message;
+
+	public static IngestStatus queued(String trackingId) {
+		return new IngestStatus(trackingId, State.QUEUED, null, null);
+	}
+
+}
@@ -0,0 +1,18 @@
+package net.javaguides.springboot.exception;
+
+
+public class InvalidImportException extends RuntimeException {
+
+	private final long record;
+
+	public InvalidImportException(long record, String message, Throwable cause) {
+		super("Record " + record + ": " + message, cause);
+		this.record=record;
+	}
+
+	/** 1-based position of the offending record in the file, not counting a CSV header. */
+	public long getRecord() {
+		return record;
+	}
+
+}
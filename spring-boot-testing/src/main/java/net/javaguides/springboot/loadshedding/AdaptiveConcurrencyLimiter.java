@@ -0,0 +1,125 @@
+package net.javaguides.springboot.loadshedding;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the requests in progress at a limit that follows their latency, after
+ * the gradient algorithm of Netflix's concurrency-limits. Once per window the
+ * average latency of that window is compared with a slow moving average of
+ * earlier ones: while it stays within {@code tolerance} times the long-term
+ * average the limit grows by about its square root, and as queueing pushes it
+ * past that the limit shrinks, by up to a tenth per window. Requests over the
+ * limit are turned away at once instead of waiting for a thread or a
+ * connection, which keeps the latency of the admitted ones close to the
+ * unloaded latency.
+ * <p>
+ * The limit only grows while at least half of it is in use; a mostly idle
+ * server says nothing about how much more it could take.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	/** Windows averaged into the long-term latency, a minute of the default 100ms ones. */
+	private static final int LONG_WINDOWS=600;
+
+	private static final double SMOOTHING=0.2;
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final double tolerance;
+
+	private final long windowNanos;
+
+	private final AtomicInteger inFlight=new AtomicInteger();
+
+	private final AtomicInteger peakInFlight=new AtomicInteger();
+
+	private final LongAdder latencySum=new LongAdder();
+
+	private final LongAdder latencyCount=new LongAdder();
+
+	private final AtomicLong windowEnd;
+
+	private volatile double limit;
+
+	private double longLatency;
+
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, long windowNanos, long nowNanos) {
+		if(minLimit < 1 || minLimit > maxLimit || tolerance < 1) {
+			throw new IllegalArgumentException("Need 1 <= minLimit <= maxLimit and tolerance >= 1");
+		}
+		this.minLimit=minLimit;
+		this.maxLimit=maxLimit;
+		this.tolerance=tolerance;
+		this.windowNanos=windowNanos;
+		this.limit=Math.max(minLimit, Math.min(maxLimit, initialLimit));
+		this.windowEnd=new AtomicLong(nowNanos + windowNanos);
+	}
+
+	/** Takes a slot when fewer than the limit are in use; release it with {@link #release}. */
+	public boolean tryAcquire() {
+		while(true) {
+			int current=inFlight.get();
+			if(current >= (int) limit) {
+				return false;
+			}
+			if(inFlight.compareAndSet(current, current + 1)) {
+				peakInFlight.accumulateAndGet(current + 1, Math::max);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * @param latencyNanos time the request held its slot
+	 * @param sample whether the latency says something about load: not for
+	 *        failures or long-running streamed responses
+	 */
+	public void release(long latencyNanos, boolean sample, long nowNanos) {
+		inFlight.decrementAndGet();
+		if(sample) {
+			latencySum.add(latencyNanos);
+			latencyCount.increment();
+		}
+		long end=windowEnd.get();
+		if(nowNanos - end >= 0 && windowEnd.compareAndSet(end, nowNanos + windowNanos)) {
+			update();
+		}
+	}
+
+	private synchronized void update() {
+		long count=latencyCount.sumThenReset();
+		long sum=latencySum.sumThenReset();
+		int peak=peakInFlight.getAndSet(inFlight.get());
+		if(count == 0) {
+			return;
+		}
+		double shortLatency=(double) sum / count;
+		longLatency=longLatency == 0 ? shortLatency : longLatency + (shortLatency - longLatency) / LONG_WINDOWS;
+		if(longLatency / shortLatency > 2) {
+			// latency dropped well below the average, as after an overload ends:
+			// let the average catch up rather than hold the limit up
+			longLatency*=0.95;
+		}
+		double current=limit;
+		double gradient=Math.max(0.5, Math.min(1.0, tolerance * longLatency / shortLatency));
+		if(gradient == 1.0 && peak < current / 2) {
+			return;
+		}
+		double estimate=current * gradient + Math.sqrt(current);
+		double smoothed=current * (1 - SMOOTHING) + estimate * SMOOTHING;
+		limit=Math.max(minLimit, Math.min(maxLimit, smoothed));
+	}
+
+	public int getLimit() {
+		return (int) limit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+}
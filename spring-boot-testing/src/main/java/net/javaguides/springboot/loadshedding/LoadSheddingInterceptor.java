@@ -0,0 +1,155 @@
+package net.javaguides.springboot.loadshedding;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Turns requests away before the controller runs, with an empty response and
+ * {@code Retry-After}:
+ * <ul>
+ * <li>429 when the client has used up its token bucket for the endpoint, or
+ * the endpoint its bucket shared by all clients</li>
+ * <li>503 when the {@link AdaptiveConcurrencyLimiter} is full</li>
+ * </ul>
+ * An endpoint is the HTTP method and the mapped path pattern, such as
+ * {@code GET /api/employees/{id}}. A client is the value of the configured
+ * header, or the remote address without one; the header is whatever the
+ * client says it is, so it only keeps well-behaved clients apart.
+ * <p>
+ * A streamed response holds its slot until it completes, but its latency is
+ * not fed to the limiter.
+ */
+public class LoadSheddingInterceptor implements AsyncHandlerInterceptor {
+
+	private static final String STARTED=LoadSheddingInterceptor.class.getName() + ".started";
+
+	private static final long LIMITER_RETRY_AFTER_SECONDS=1;
+
+	private static final long SECOND_NANOS=TimeUnit.SECONDS.toNanos(1);
+
+	private final double clientRate;
+
+	private final int clientBurst;
+
+	private final Map<String, Double> endpointRates;
+
+	private final String clientHeader;
+
+	private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+	private final Cache<String, TokenBucket> buckets;
+
+	private final Counter rateLimited;
+
+	private final Counter concurrencyLimited;
+
+	/**
+	 * @param clientRate requests per second per client and endpoint, 0 for no limit
+	 * @param maxBuckets buckets kept at most; past that the least recently used
+	 *        are dropped, and those clients start again with a full bucket
+	 * @param endpointRates requests per second per endpoint across clients, by endpoint
+	 * @param clientHeader header naming the client, or empty for the remote address
+	 * @param concurrencyLimiter null for no concurrency limit
+	 */
+	public LoadSheddingInterceptor(double clientRate, int clientBurst, long maxBuckets, Map<String, Double> endpointRates,
+			String clientHeader, AdaptiveConcurrencyLimiter concurrencyLimiter, MeterRegistry meterRegistry) {
+		this.clientRate=clientRate;
+		this.clientBurst=clientBurst;
+		this.endpointRates=Map.copyOf(endpointRates);
+		this.clientHeader=clientHeader;
+		this.concurrencyLimiter=concurrencyLimiter;
+		// a bucket left alone this long is full again, so dropping it loses nothing
+		Duration refill=Duration.ofSeconds((long) Math.ceil(clientRate > 0 ? clientBurst / clientRate : 1) + 1);
+		// the client part of the key comes from the request, so the count is bounded here
+		this.buckets=Caffeine.newBuilder()
+				.maximumSize(maxBuckets)
+				.expireAfterAccess(refill.compareTo(Duration.ofMinutes(1)) > 0 ? refill : Duration.ofMinutes(1))
+				.build();
+		this.rateLimited=Counter.builder("http.server.requests.shed").tag("reason", "rate_limit").register(meterRegistry);
+		this.concurrencyLimited=Counter.builder("http.server.requests.shed").tag("reason", "concurrency").register(meterRegistry);
+		if(concurrencyLimiter != null) {
+			Gauge.builder("http.server.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+					.register(meterRegistry);
+			Gauge.builder("http.server.concurrency.in.flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+					.register(meterRegistry);
+		}
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if(request.getDispatcherType() == DispatcherType.ASYNC) {
+			// admitted on the first dispatch
+			return true;
+		}
+		long now=System.nanoTime();
+		String endpoint=request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		long wait=0;
+		if(clientRate > 0) {
+			wait=bucket(client(request) + " " + endpoint, clientRate, clientBurst, now).tryAcquire(now);
+		}
+		Double endpointRate=endpointRates.get(endpoint);
+		if(wait == 0 && endpointRate != null) {
+			wait=bucket(endpoint, endpointRate, (int) Math.max(1, Math.ceil(endpointRate)), now).tryAcquire(now);
+		}
+		if(wait > 0) {
+			rateLimited.increment();
+			reject(response, HttpStatus.TOO_MANY_REQUESTS, (wait + SECOND_NANOS - 1) / SECOND_NANOS);
+			return false;
+		}
+		if(concurrencyLimiter != null && !concurrencyLimiter.tryAcquire()) {
+			concurrencyLimited.increment();
+			reject(response, HttpStatus.SERVICE_UNAVAILABLE, LIMITER_RETRY_AFTER_SECONDS);
+			return false;
+		}
+		request.setAttribute(STARTED, now);
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		if(!(request.getAttribute(STARTED) instanceof Long started) || concurrencyLimiter == null) {
+			return;
+		}
+		request.removeAttribute(STARTED);
+		long now=System.nanoTime();
+		boolean sample=request.getDispatcherType() != DispatcherType.ASYNC && ex == null && response.getStatus() < 500;
+		concurrencyLimiter.release(now - started, sample, now);
+	}
+
+	private TokenBucket bucket(String key, double rate, int burst, long now) {
+		return buckets.get(key, k -> new TokenBucket(rate, burst, now));
+	}
+
+	private String client(HttpServletRequest request) {
+		if(StringUtils.hasText(clientHeader)) {
+			String client=request.getHeader(clientHeader);
+			if(StringUtils.hasText(client)) {
+				return client;
+			}
+		}
+		return request.getRemoteAddr();
+	}
+
+	private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds) {
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+	}
+
+}
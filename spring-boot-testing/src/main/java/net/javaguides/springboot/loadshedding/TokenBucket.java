@@ -0,0 +1,52 @@
+package net.javaguides.springboot.loadshedding;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single timestamp, updated with compare-and-set: the
+ * time at which the bucket would be full again if no request came in the
+ * meantime (the generic cell rate algorithm). Taking a token moves it one
+ * token interval later; a request is turned away when that would put it more
+ * than {@code burst} intervals ahead of now.
+ */
+public class TokenBucket {
+
+	private final long interval;
+
+	private final long capacity;
+
+	private final AtomicLong fullAt;
+
+	/**
+	 * @param rate tokens added per second
+	 * @param burst tokens the bucket holds, and starts with
+	 */
+	public TokenBucket(double rate, int burst, long nowNanos) {
+		if(rate <= 0 || burst < 1) {
+			throw new IllegalArgumentException("rate must be positive and burst at least 1");
+		}
+		this.interval=Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+		this.capacity=interval * burst;
+		this.fullAt=new AtomicLong(nowNanos);
+	}
+
+	/**
+	 * Takes a token if there is one.
+	 *
+	 * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+	 */
+	public long tryAcquire(long nowNanos) {
+		while(true) {
+			long current=fullAt.get();
+			long next=(current - nowNanos > 0 ? current : nowNanos) + interval;
+			if(next - nowNanos > capacity) {
+				return next - nowNanos - capacity;
+			}
+			if(fullAt.compareAndSet(current, next)) {
+				return 0;
+			}
+		}
+	}
+
+}
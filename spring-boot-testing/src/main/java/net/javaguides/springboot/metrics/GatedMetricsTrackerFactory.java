@@ -0,0 +1,64 @@
+package net.javaguides.springboot.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Hikari metrics tracker that skips recording while {@link MetricGroup#HIKARI}
+ * is off. The pool gauges registered by the delegate cost nothing between
+ * scrapes and are left in place.
+ */
+public class GatedMetricsTrackerFactory implements MetricsTrackerFactory {
+
+	private final MetricsTrackerFactory delegate;
+
+	private final MetricGroups metricGroups;
+
+	public GatedMetricsTrackerFactory(MetricsTrackerFactory delegate, MetricGroups metricGroups) {
+		this.delegate=delegate;
+		this.metricGroups=metricGroups;
+	}
+
+	@Override
+	public IMetricsTracker create(String poolName, PoolStats poolStats) {
+		IMetricsTracker tracker=delegate.create(poolName, poolStats);
+		return new IMetricsTracker() {
+
+			@Override
+			public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+				if(metricGroups.isEnabled(MetricGroup.HIKARI)) {
+					tracker.recordConnectionCreatedMillis(connectionCreatedMillis);
+				}
+			}
+
+			@Override
+			public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+				if(metricGroups.isEnabled(MetricGroup.HIKARI)) {
+					tracker.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+				}
+			}
+
+			@Override
+			public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+				if(metricGroups.isEnabled(MetricGroup.HIKARI)) {
+					tracker.recordConnectionUsageMillis(elapsedBorrowedMillis);
+				}
+			}
+
+			@Override
+			public void recordConnectionTimeout() {
+				if(metricGroups.isEnabled(MetricGroup.HIKARI)) {
+					tracker.recordConnectionTimeout();
+				}
+			}
+
+			@Override
+			public void close() {
+				tracker.close();
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,32 @@
+package net.javaguides.springboot.metrics;
+
+import java.util.function.Supplier;
+
+import org.springframework.boot.actuate.metrics.AutoTimer;
+import org.springframework.boot.actuate.metrics.data.MetricsRepositoryMethodInvocationListener;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Boot's repository timer listener, skipped while {@link MetricGroup#REPOSITORY}
+ * is off.
+ */
+public class GatedRepositoryMethodInvocationListener extends MetricsRepositoryMethodInvocationListener {
+
+	private final MetricGroups metricGroups;
+
+	public GatedRepositoryMethodInvocationListener(Supplier<MeterRegistry> registrySupplier, RepositoryTagsProvider tagsProvider,
+			String metricName, AutoTimer autoTimer, MetricGroups metricGroups) {
+		super(registrySupplier, tagsProvider, metricName, autoTimer);
+		this.metricGroups=metricGroups;
+	}
+
+	@Override
+	public void afterInvocation(RepositoryMethodInvocation invocation) {
+		if(metricGroups.isEnabled(MetricGroup.REPOSITORY)) {
+			super.afterInvocation(invocation);
+		}
+	}
+
+}
@@ -0,0 +1,41 @@
+package net.javaguides.springboot.metrics;
+
+import java.util.Locale;
+
+/**
+ * Independently switchable sets of metrics. Each can be turned on and off at
+ * runtime through {@link MetricGroups}; the starting state comes from
+ * {@code app.metrics.<group>.enabled}.
+ */
+public enum MetricGroup {
+
+	/** {@code http.server.requests} timers for every controller endpoint. */
+	HTTP,
+
+	/** {@code employee.service} and {@code employee.bulk} timers for every public service method. */
+	SERVICE,
+
+	/** {@code spring.data.repository.invocations} timers for every repository method. */
+	REPOSITORY,
+
+	/** Hikari connection acquire, usage and creation timers; the pool gauges are only read on scrape. */
+	HIKARI,
+
+	/** Hibernate statistics: queries, entity loads, flushes, cache hits. */
+	HIBERNATE,
+
+	/** SQL statements, rows and JDBC time per request to the employee controller. */
+	SQL,
+
+	/** JVM garbage collection pauses and allocation/promotion rates. */
+	JVM;
+
+	public String key() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+
+	public static MetricGroup of(String key) {
+		return valueOf(key.toUpperCase(Locale.ROOT));
+	}
+
+}
@@ -0,0 +1,105 @@
+package net.javaguides.springboot.metrics;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+
+/**
+ * Holds the on/off state of each {@link MetricGroup}. Hot paths only read a
+ * volatile flag; groups whose cost is in collecting the data rather than
+ * recording it (Hibernate statistics, GC notification listeners) are switched
+ * at the source so that turning them off removes that cost too.
+ */
+@Component
+public class MetricGroups implements SmartInitializingSingleton {
+
+	private final Map<MetricGroup, AtomicBoolean> enabled=new EnumMap<>(MetricGroup.class);
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	private final ObjectProvider<EntityManagerFactory> entityManagerFactories;
+
+	private final ObjectProvider<JvmGcMetrics> jvmGcMetricsProvider;
+
+	private JvmGcMetrics jvmGcMetrics;
+
+	public MetricGroups(Environment environment, ObjectProvider<MeterRegistry> meterRegistry,
+			ObjectProvider<EntityManagerFactory> entityManagerFactories, ObjectProvider<JvmGcMetrics> jvmGcMetricsProvider) {
+		this.meterRegistry=meterRegistry;
+		this.entityManagerFactories=entityManagerFactories;
+		this.jvmGcMetricsProvider=jvmGcMetricsProvider;
+		for(MetricGroup group : MetricGroup.values()) {
+			boolean on=environment.getProperty("app.metrics." + group.key() + ".enabled", Boolean.class, true);
+			enabled.put(group, new AtomicBoolean(on));
+		}
+	}
+
+	/**
+	 * Applies the configured state of the groups that are switched at the
+	 * source, once the entity manager factory and the GC binder exist.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		jvmGcMetrics=jvmGcMetricsProvider.getIfAvailable();
+		applyHibernate(isEnabled(MetricGroup.HIBERNATE));
+		if(!isEnabled(MetricGroup.JVM)) {
+			applyJvm(false);
+		}
+	}
+
+	public boolean isEnabled(MetricGroup group) {
+		return enabled.get(group).get();
+	}
+
+	public Map<String, Boolean> asMap() {
+		Map<String, Boolean> groups=new LinkedHashMap<>();
+		enabled.forEach((group, on) -> groups.put(group.key(), on.get()));
+		return groups;
+	}
+
+	public synchronized void setEnabled(MetricGroup group, boolean on) {
+		if(enabled.get(group).getAndSet(on) == on) {
+			return;
+		}
+		if(group == MetricGroup.HIBERNATE) {
+			applyHibernate(on);
+		} else if(group == MetricGroup.JVM) {
+			applyJvm(on);
+		}
+	}
+
+	private void applyHibernate(boolean on) {
+		entityManagerFactories.forEach(entityManagerFactory ->
+				entityManagerFactory.unwrap(SessionFactory.class).getStatistics().setStatisticsEnabled(on));
+	}
+
+	/**
+	 * GC metrics are fed by JMX notification listeners; closing the binder
+	 * unregisters them and a fresh binder re-attaches them to the same meters.
+	 */
+	private void applyJvm(boolean on) {
+		if(on) {
+			MeterRegistry registry=meterRegistry.getIfAvailable();
+			if(registry != null) {
+				jvmGcMetrics=new JvmGcMetrics();
+				jvmGcMetrics.bindTo(registry);
+			}
+		} else if(jvmGcMetrics != null) {
+			jvmGcMetrics.close();
+			jvmGcMetrics=null;
+		}
+	}
+
+}
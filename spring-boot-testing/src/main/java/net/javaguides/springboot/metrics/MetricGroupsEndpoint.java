@@ -0,0 +1,44 @@
+package net.javaguides.springboot.metrics;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/metricgroups} lists the {@link MetricGroup}s and whether
+ * each is on; {@code POST /actuator/metricgroups/{group}} with
+ * {@code {"enabled": false}} switches one.
+ */
+@Component
+@Endpoint(id="metricgroups")
+public class MetricGroupsEndpoint {
+
+	@Autowired
+	private MetricGroups metricGroups;
+
+	@ReadOperation
+	public Map<String, Boolean> metricGroups() {
+		return metricGroups.asMap();
+	}
+
+	@WriteOperation
+	public Map<String, Boolean> setEnabled(@Selector String group, boolean enabled) {
+		MetricGroup metricGroup;
+		try {
+			metricGroup=MetricGroup.of(group);
+		} catch (IllegalArgumentException e) {
+			String message="Unknown metric group '" + group + "', expected one of " + Arrays.toString(MetricGroup.values());
+			throw new InvalidEndpointRequestException(message, message);
+		}
+		metricGroups.setEnabled(metricGroup, enabled);
+		return metricGroups.asMap();
+	}
+
+}
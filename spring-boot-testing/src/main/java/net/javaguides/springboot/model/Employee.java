@@ -1,11 +1,21 @@
 package net.javaguides.springboot.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -18,11 +28,24 @@ import lombok.Setter;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name="employees")
+@Table(name=Employee.TABLE_NAME, uniqueConstraints=@UniqueConstraint(name=Employee.EMAIL_UNIQUE_CONSTRAINT, columnNames="email"))
+@Cacheable
+@Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="employee")
 public class Employee {
 	
+	public static final String TABLE_NAME="employees";
+	
+	public static final String EMAIL_UNIQUE_CONSTRAINT="uk_employees_email";
+	
+	public static final String ID_SEQUENCE="employees_seq";
+	
+	/** Ids are handed out in blocks of this size (pooled-lo), by Hibernate and by the reactive repository alike. */
+	public static final int ID_ALLOCATION_SIZE=50;
+	
 	@Id
-	@GeneratedValue(strategy=GenerationType.IDENTITY)
+	@org.springframework.data.annotation.Id
+	@GeneratedValue(strategy=GenerationType.SEQUENCE, generator=Employee.ID_SEQUENCE)
+	@SequenceGenerator(name=Employee.ID_SEQUENCE, sequenceName=Employee.ID_SEQUENCE, allocationSize=Employee.ID_ALLOCATION_SIZE)
 	private long id;
 	
 	@Column(name="first_name", nullable=false)
@@ -33,6 +56,22 @@ public class Employee {
 	
 	@Column(nullable=false)
 	private String email;
+	
+	/**
+	 * Bumped by every write, by Hibernate and by the plain SQL updates alike, and
+	 * sent as the {@code ETag} instead of in the body. The column default covers
+	 * the inserts that do not go through Hibernate. R2DBC sees a plain column
+	 * here: Spring Data JPA rejects its own {@code @Version} on an entity.
+	 */
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable=false)
+	@JsonIgnore
+	private long version;
+	
+	public Employee(long id, String firstName, String lastName, String email) {
+		this(id, firstName, lastName, email, 0L);
+	}
 
 
 	public Object willReturn(Employee employee) {
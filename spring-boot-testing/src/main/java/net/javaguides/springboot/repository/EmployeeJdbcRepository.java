@@ -0,0 +1,174 @@
+package net.javaguides.springboot.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.function.Consumer;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Plain JDBC access to the employees table for paths that must not go through
+ * the persistence context, such as streaming the whole table or updating a row
+ * without loading it first.
+ */
+@Repository
+@Profile("!reactive")
+public class EmployeeJdbcRepository {
+
+	private static final String SELECT_ALL_ORDER_BY_ID =
+			"select id, first_name, last_name, email from employees order by id";
+
+	private static final String UPDATE_BY_ID =
+			"update employees set first_name = ?, last_name = ?, email = ?, version = version + 1 where id = ?";
+
+	private static final String UPDATE_NON_NULL_BY_ID =
+			"update employees set first_name = coalesce(?, first_name), last_name = coalesce(?, last_name),"
+					+ " email = coalesce(?, email), version = version + 1 where id = ?";
+
+	private static final String AND_VERSION = " and version = ?";
+
+	private static final String DELETE_BY_ID = "delete from employees where id = ?";
+
+	/**
+	 * Any single insert, delete or update moves the count or one of the sums.
+	 * Several changes could in principle cancel out, which is accepted for a
+	 * polling validator; new ids come from the sequence, so a delete followed
+	 * by an insert does not.
+	 */
+	private static final String TABLE_VERSION =
+			"select count(*), coalesce(sum(id), 0), coalesce(sum(version), 0) from employees";
+
+	private static final int[] UPDATE_TYPES = { Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT };
+
+	private static final int[] UPDATE_VERSION_TYPES = { Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT };
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Value("${app.employees.stream.fetch-size:500}")
+	private int fetchSize;
+
+	/**
+	 * Reads every employee in id order through a forward-only cursor and hands
+	 * each row to the consumer as soon as it is read. Only {@code fetchSize} rows
+	 * are buffered by the driver at a time; PostgreSQL honours the fetch size only
+	 * inside a transaction, so callers must run this in one.
+	 */
+	public void streamAll(Consumer<Employee> consumer) {
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(SELECT_ALL_ORDER_BY_ID,
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			statement.setFetchSize(fetchSize);
+			return statement;
+		}, (RowCallbackHandler) resultSet -> consumer.accept(mapEmployee(resultSet)));
+	}
+
+	/**
+	 * Overwrites all editable columns of one employee in a single statement and
+	 * bumps its version.
+	 *
+	 * @param expectedVersion when not null, the row is only changed at that version
+	 * @return the number of rows changed, 0 when there is no such employee or it is at another version
+	 */
+	public int update(long id, String firstName, String lastName, String email, Long expectedVersion) {
+		return evictAfter(id, update(UPDATE_BY_ID, id, firstName, lastName, email, expectedVersion));
+	}
+
+	/**
+	 * Sets only the columns whose new value is non-null, in a single statement,
+	 * and bumps the version.
+	 *
+	 * @param expectedVersion when not null, the row is only changed at that version
+	 * @return the number of rows changed, 0 when there is no such employee or it is at another version
+	 */
+	public int updateNonNull(long id, String firstName, String lastName, String email, Long expectedVersion) {
+		return evictAfter(id, update(UPDATE_NON_NULL_BY_ID, id, firstName, lastName, email, expectedVersion));
+	}
+
+	private int update(String sql, long id, String firstName, String lastName, String email, Long expectedVersion) {
+		if(expectedVersion == null) {
+			return jdbcTemplate.update(sql, new Object[] { firstName, lastName, email, id }, UPDATE_TYPES);
+		}
+		return jdbcTemplate.update(sql + AND_VERSION,
+				new Object[] { firstName, lastName, email, id, expectedVersion }, UPDATE_VERSION_TYPES);
+	}
+
+	/**
+	 * Deletes one employee in a single statement, without loading it first.
+	 *
+	 * @return the number of rows deleted, 0 when there is no such employee
+	 */
+	public int deleteById(long id) {
+		return evictAfter(id, jdbcTemplate.update(DELETE_BY_ID, id));
+	}
+
+	/**
+	 * Deletes the employees as one JDBC batch of single-row deletes, so the whole
+	 * list costs one round-trip and the driver reports for each id whether it
+	 * removed a row. Ids should be distinct: a repeated one finds nothing.
+	 *
+	 * @return the number of rows deleted for each id, in the order given
+	 */
+	public int[] deleteAllById(List<Long> ids) {
+		int[] deleted=jdbcTemplate.batchUpdate(DELETE_BY_ID, ids.stream().map(id -> new Object[] { id }).toList());
+		for(int i=0; i < deleted.length; i++) {
+			evictAfter(ids.get(i), deleted[i]);
+		}
+		return deleted;
+	}
+
+	/**
+	 * A short value that changes whenever any row of the table does, for
+	 * validating a cached copy of the whole list, together with the row count
+	 * it was computed from. Costs one aggregate scan, without sending the rows.
+	 */
+	public TableVersion tableVersion() {
+		return jdbcTemplate.queryForObject(TABLE_VERSION, (resultSet, rowNum) -> new TableVersion(resultSet.getLong(1),
+				Long.toHexString(resultSet.getLong(1)) + "-" + Long.toHexString(resultSet.getLong(2))
+						+ "-" + Long.toHexString(resultSet.getLong(3))));
+	}
+
+	/**
+	 * @param rows the number of employees when the version was read
+	 * @param tag the version itself, as used in an {@code ETag}
+	 */
+	public record TableVersion(long rows, String tag) {
+	}
+
+	/**
+	 * Hibernate does not see these writes, so the row's second-level cache entry
+	 * is dropped here. A JPQL update would instead have Hibernate clear the whole
+	 * employee region.
+	 */
+	private int evictAfter(long id, int updated) {
+		if(updated > 0) {
+			entityManagerFactory.getCache().evict(Employee.class, id);
+		}
+		return updated;
+	}
+
+	static Employee mapEmployee(ResultSet resultSet) throws SQLException {
+		return Employee.builder()
+				.id(resultSet.getLong("id"))
+				.firstName(resultSet.getString("first_name"))
+				.lastName(resultSet.getString("last_name"))
+				.email(resultSet.getString("email"))
+				.build();
+	}
+
+}
@@ -1,13 +1,34 @@
 package net.javaguides.springboot.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import net.javaguides.springboot.model.Employee;
 
-public interface EmployeeRepository extends JpaRepository<Employee,Long>{
+public interface EmployeeRepository extends JpaRepository<Employee,Long>, EmployeeViewRepository{
 
 	Optional<Employee> findByEmail(String email);
 
+	/**
+	 * Builds the employees with their constructor instead of loading entities:
+	 * listings only serialize them, so there is nothing to gain from hydration,
+	 * dirty-checking snapshots or second-level cache puts for every row.
+	 */
+	@Query("select new net.javaguides.springboot.model.Employee(e.id, e.firstName, e.lastName, e.email)"
+			+ " from Employee e where e.id > :afterId order by e.id")
+	List<Employee> findByIdGreaterThanOrderByIdAsc(@Param("afterId") long afterId, Pageable pageable);
+
+	/** Reads only the version column, for answering conditional requests without building the entity. */
+	@Query("select e.version from Employee e where e.id = :id")
+	Optional<Long> findVersionById(@Param("id") long id);
+
+	@Query("select e.email from Employee e where e.email in :emails")
+	List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
 }
@@ -0,0 +1,62 @@
+package net.javaguides.springboot.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.boot.ResourceStreamLocator;
+import org.hibernate.boot.model.relational.SimpleAuxiliaryDatabaseObject;
+import org.hibernate.boot.spi.AdditionalMappingContributions;
+import org.hibernate.boot.spi.AdditionalMappingContributor;
+import org.hibernate.boot.spi.InFlightMetadataCollector;
+import org.hibernate.boot.spi.MetadataBuildingContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Adds the indexes behind {@link EmployeeSearchRepository} to the schema that
+ * Hibernate generates, so they are created and dropped with the table. Each is
+ * {@code (lower(column) collate "C", id)}, matching the search predicates and
+ * sort keys exactly. JPA index annotations cannot express functional indexes,
+ * and H2 has none, so these are PostgreSQL only: they are created under the
+ * dialect Hibernate picks for a database named {@value #POSTGRES_PRODUCT_NAME}.
+ * The dialect is not configured, so it always follows the connection.
+ * <p>
+ * Registered through {@code META-INF/services}.
+ */
+public class EmployeeSearchIndexes implements AdditionalMappingContributor {
+
+	/** What the PostgreSQL driver reports, and what Hibernate resolves to {@link PostgreSQLDialect}. */
+	static final String POSTGRES_PRODUCT_NAME="PostgreSQL";
+
+	/**
+	 * Whether a database with that product name gets the indexes, for callers
+	 * that must agree with them without going through Hibernate.
+	 */
+	static boolean isPostgres(String databaseProductName) {
+		return POSTGRES_PRODUCT_NAME.equals(databaseProductName);
+	}
+
+	@Override
+	public String getContributorName() {
+		return "employee-search-indexes";
+	}
+
+	@Override
+	public void contribute(AdditionalMappingContributions contributions, InFlightMetadataCollector metadata,
+			ResourceStreamLocator resourceStreamLocator, MetadataBuildingContext buildingContext) {
+		List<String> create=new ArrayList<>();
+		List<String> drop=new ArrayList<>();
+		for(String column : EmployeeSearchRepository.COLUMNS.values()) {
+			String index=Employee.TABLE_NAME + "_" + column + "_search_idx";
+			create.add("create index " + index + " on " + Employee.TABLE_NAME
+					+ " (lower(" + column + ")" + EmployeeSearchRepository.POSTGRES_COLLATION + ", id)");
+			drop.add("drop index if exists " + index);
+		}
+		contributions.contributeAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+				Set.of(PostgreSQLDialect.class.getName()), null, null,
+				create.toArray(String[]::new), drop.toArray(String[]::new)));
+	}
+
+}
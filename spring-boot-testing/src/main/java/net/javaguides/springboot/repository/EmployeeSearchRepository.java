@@ -0,0 +1,154 @@
+package net.javaguides.springboot.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import net.javaguides.springboot.dto.EmployeeSearch;
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Prefix search over the name columns with keyset pagination, as plain SQL so
+ * the index-friendly form of each predicate is under control.
+ * <p>
+ * Filters and sort keys are {@code lower(column)}. On PostgreSQL they are
+ * compared under the "C" collation, which is what lets one index per column
+ * (see {@link EmployeeSearchIndexes}) serve the {@code like 'prefix%'} filter,
+ * the ordering and the {@code (key, id) > (?, ?)} seek at once, whatever the
+ * database's default collation is.
+ */
+@Repository
+@Profile("!reactive")
+public class EmployeeSearchRepository {
+
+	/** Searchable fields and their columns. */
+	static final Map<String, String> COLUMNS=new LinkedHashMap<>();
+
+	static {
+		COLUMNS.put("firstName", "first_name");
+		COLUMNS.put("lastName", "last_name");
+		COLUMNS.put("email", "email");
+	}
+
+	static final String POSTGRES_COLLATION=" collate \"C\"";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private volatile Boolean postgres;
+
+	/**
+	 * Whether the database is PostgreSQL, by the product name of a live
+	 * connection. Hibernate picks its dialect from the same name, and the
+	 * dialect decides whether the {@link EmployeeSearchIndexes} are created, so
+	 * the collation here always matches the indexes.
+	 */
+	boolean isPostgres() {
+		Boolean isPostgres=postgres;
+		if(isPostgres == null) {
+			isPostgres=jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+					EmployeeSearchIndexes.isPostgres(connection.getMetaData().getDatabaseProductName()));
+			postgres=isPostgres;
+		}
+		return isPostgres;
+	}
+
+	/**
+	 * Reads one page of {@code limit} employees, plus one row to tell whether
+	 * another page follows.
+	 *
+	 * @param search already {@linkplain EmployeeSearch#validate() validated}
+	 */
+	public EmployeeSearchPage search(EmployeeSearch search, int limit) {
+		String sort=search.getSort();
+		boolean byId=!COLUMNS.containsKey(sort);
+		String sortKey=byId ? "id" : key(COLUMNS.get(sort));
+		String order=search.isDescending() ? " desc" : " asc";
+
+		StringBuilder sql=new StringBuilder("select id, first_name, last_name, email");
+		if(!byId) {
+			sql.append(", ").append(sortKey).append(" as sort_key");
+		}
+		sql.append(" from employees where 1 = 1");
+		List<Object> args=new ArrayList<>();
+		addPrefixFilter(sql, args, "first_name", search.getFirstName());
+		addPrefixFilter(sql, args, "last_name", search.getLastName());
+		addPrefixFilter(sql, args, "email", search.getEmail());
+		if(search.getAfter() != null) {
+			String comparison=search.isDescending() ? " < " : " > ";
+			if(byId) {
+				sql.append(" and id").append(comparison).append("?");
+			} else {
+				sql.append(" and (").append(sortKey).append(", id)").append(comparison).append("(?, ?)");
+				args.add(search.afterSortKey());
+			}
+			args.add(search.afterId());
+		}
+		sql.append(" order by ");
+		if(!byId) {
+			sql.append(sortKey).append(order).append(", ");
+		}
+		sql.append("id").append(order).append(" limit ?");
+		args.add(limit + 1);
+
+		List<String> sortKeys=new ArrayList<>();
+		List<Employee> employees=jdbcTemplate.query(sql.toString(), (resultSet, rowNum) -> {
+			if(!byId) {
+				sortKeys.add(resultSet.getString("sort_key"));
+			}
+			return EmployeeJdbcRepository.mapEmployee(resultSet);
+		}, args.toArray());
+		if(employees.size() <= limit) {
+			return new EmployeeSearchPage(employees, null);
+		}
+		List<Employee> content=employees.subList(0, limit);
+		Employee last=content.get(limit - 1);
+		return new EmployeeSearchPage(content, search.cursor(last.getId(), byId ? "" : sortKeys.get(limit - 1)));
+	}
+
+	/**
+	 * Deletes up to {@code limit} of the employees matching the name filters of
+	 * {@code search}, lowest ids first, in one statement. Sort and cursor are
+	 * ignored.
+	 *
+	 * @param search with at least one {@linkplain EmployeeSearch#hasFilter() filter}
+	 * @return the number of rows deleted
+	 */
+	public int deleteMatching(EmployeeSearch search, int limit) {
+		StringBuilder ids=new StringBuilder("select id from employees where 1 = 1");
+		List<Object> args=new ArrayList<>();
+		addPrefixFilter(ids, args, "first_name", search.getFirstName());
+		addPrefixFilter(ids, args, "last_name", search.getLastName());
+		addPrefixFilter(ids, args, "email", search.getEmail());
+		ids.append(" order by id limit ?");
+		args.add(limit);
+		return jdbcTemplate.update("delete from employees where id in (" + ids + ")", args.toArray());
+	}
+
+	private void addPrefixFilter(StringBuilder sql, List<Object> args, String column, String prefix) {
+		if(prefix == null || prefix.isEmpty()) {
+			return;
+		}
+		sql.append(" and ").append(key(column)).append(" like ? escape '\\'");
+		args.add(escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%");
+	}
+
+	private String key(String column) {
+		String key="lower(" + column + ")";
+		return isPostgres() ? key + POSTGRES_COLLATION : key;
+	}
+
+	private static String escapeLike(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+}
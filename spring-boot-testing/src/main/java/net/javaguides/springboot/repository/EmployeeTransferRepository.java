@@ -0,0 +1,144 @@
+package net.javaguides.springboot.repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import net.javaguides.springboot.dto.EmployeeFormat;
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Moves employees in and out of the table in bulk, bypassing the persistence
+ * context. On PostgreSQL rows travel through {@code COPY}, which skips
+ * per-statement parsing and planning altogether; other databases get JDBC
+ * batches of plain inserts.
+ * <p>
+ * Ids come from the entity's sequence with Hibernate's pooled-lo scheme, as in
+ * {@code ReactiveEmployeeIdGenerator}, fetched for a whole chunk with one query.
+ */
+@Repository
+@Profile("!reactive")
+public class EmployeeTransferRepository {
+
+	private static final String INSERT=
+			"insert into employees (id, first_name, last_name, email) values (?, ?, ?, ?)";
+
+	private static final String NEXT_ID_BLOCKS=
+			"select nextval('" + Employee.ID_SEQUENCE + "') from generate_series(1, ?)";
+
+	/** Column order matches {@link EmployeeFormat#CSV_SCHEMA}. */
+	private static final String COPY_IN=
+			"copy employees (id, first_name, last_name, email) from stdin with (format csv)";
+
+	/** Aliases give the header the same names as the JSON properties. */
+	private static final String COPY_OUT=
+			"copy (select id, first_name as \"firstName\", last_name as \"lastName\", email from employees order by id)"
+					+ " to stdout with (format csv, header)";
+
+	private static final int COPY_BUFFER_SIZE=64 * 1024;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private volatile Boolean copySupported;
+
+	/** Whether the database is PostgreSQL, so that {@code COPY} can be used. */
+	public boolean isCopySupported() {
+		Boolean supported=copySupported;
+		if(supported == null) {
+			supported=jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class));
+			copySupported=supported;
+		}
+		return supported;
+	}
+
+	/**
+	 * Gives each employee a new id and inserts the chunk, with one {@code COPY}
+	 * or one JDBC batch. Must run in a transaction for a multi-chunk import to
+	 * be all or nothing.
+	 */
+	public void insertAll(List<Employee> employees) {
+		if(employees.isEmpty()) {
+			return;
+		}
+		assignIds(employees);
+		if(isCopySupported()) {
+			copyIn(employees);
+		} else {
+			jdbcTemplate.batchUpdate(INSERT, employees, employees.size(), (statement, employee) -> setInsertParameters(statement, employee));
+		}
+	}
+
+	/**
+	 * Writes the whole table as CSV with a header row, in id order. The server
+	 * produces the CSV and the driver copies it to {@code output} as it arrives.
+	 *
+	 * @return the number of rows written
+	 * @throws UnsupportedOperationException unless {@link #isCopySupported()}
+	 */
+	public long copyOutCsv(OutputStream output) {
+		if(!isCopySupported()) {
+			throw new UnsupportedOperationException("COPY needs PostgreSQL");
+		}
+		return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+			try {
+				return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(COPY_OUT, output);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	private void assignIds(List<Employee> employees) {
+		int blocks=(employees.size() + Employee.ID_ALLOCATION_SIZE - 1) / Employee.ID_ALLOCATION_SIZE;
+		List<Long> blockStarts=jdbcTemplate.queryForList(NEXT_ID_BLOCKS, Long.class, blocks);
+		for(int i=0; i < employees.size(); i++) {
+			employees.get(i).setId(blockStarts.get(i / Employee.ID_ALLOCATION_SIZE) + i % Employee.ID_ALLOCATION_SIZE);
+		}
+	}
+
+	private void copyIn(List<Employee> employees) {
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			PGCopyOutputStream copy=new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_IN, COPY_BUFFER_SIZE);
+			try (SequenceWriter rows=EmployeeFormat.CSV_MAPPER.writerFor(Employee.class)
+					.with(EmployeeFormat.CSV_SCHEMA)
+					.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+					.writeValues(copy)) {
+				rows.writeAll(employees);
+			} catch (IOException e) {
+				// the driver reports server errors, such as a duplicate email, as the cause
+				if(e.getCause() instanceof SQLException sqlException) {
+					throw sqlException;
+				}
+				throw new UncheckedIOException(e);
+			} finally {
+				if(copy.isActive()) {
+					copy.cancelCopy();
+				}
+			}
+			return null;
+		});
+	}
+
+	private static void setInsertParameters(PreparedStatement statement, Employee employee) throws SQLException {
+		statement.setLong(1, employee.getId());
+		statement.setString(2, employee.getFirstName());
+		statement.setString(3, employee.getLastName());
+		statement.setString(4, employee.getEmail());
+	}
+
+}
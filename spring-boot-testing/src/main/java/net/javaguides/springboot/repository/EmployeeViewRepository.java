@@ -0,0 +1,21 @@
+package net.javaguides.springboot.repository;
+
+import java.util.List;
+import java.util.Set;
+
+import net.javaguides.springboot.dto.EmployeeView;
+
+/**
+ * Projection queries that select only the requested columns and never build
+ * entities, so nothing is hydrated, snapshotted or put into the second-level
+ * cache per row.
+ */
+public interface EmployeeViewRepository {
+
+	/**
+	 * @param fields names from {@link EmployeeView#FIELDS}; must include the id
+	 * @return up to {@code limit} rows with an id greater than {@code afterId}, in id order
+	 */
+	List<EmployeeView> findViewsAfter(long afterId, Set<String> fields, int limit);
+
+}
@@ -0,0 +1,48 @@
+package net.javaguides.springboot.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.model.Employee;
+
+class EmployeeViewRepositoryImpl implements EmployeeViewRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<EmployeeView> findViewsAfter(long afterId, Set<String> fields, int limit) {
+		CriteriaBuilder builder=entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query=builder.createTupleQuery();
+		Root<Employee> employee=query.from(Employee.class);
+		List<Selection<?>> selections=new ArrayList<>(fields.size());
+		for(String field : fields) {
+			selections.add(employee.get(field).alias(field));
+		}
+		query.multiselect(selections)
+				.where(builder.greaterThan(employee.get(EmployeeView.ID), afterId))
+				.orderBy(builder.asc(employee.get(EmployeeView.ID)));
+
+		List<Tuple> rows=entityManager.createQuery(query).setMaxResults(limit).getResultList();
+		List<EmployeeView> views=new ArrayList<>(rows.size());
+		for(Tuple row : rows) {
+			EmployeeView view=new EmployeeView();
+			for(String field : fields) {
+				view.set(field, row.get(field));
+			}
+			views.add(view);
+		}
+		return views;
+	}
+
+}
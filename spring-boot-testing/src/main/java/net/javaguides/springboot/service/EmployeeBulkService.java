@@ -0,0 +1,285 @@
+package net.javaguides.springboot.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot.cache.EmployeeCacheInvalidator;
+import net.javaguides.springboot.config.CacheConfig;
+import net.javaguides.springboot.dto.BulkItemResult;
+import net.javaguides.springboot.dto.BulkItemResult.Status;
+import net.javaguides.springboot.dto.BulkResponse;
+import net.javaguides.springboot.dto.EmployeeSearch;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeJdbcRepository;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.repository.EmployeeSearchRepository;
+
+/**
+ * Set-based create, update and delete of many employees in one transaction.
+ * Lookups run as chunked IN queries and writes are left to Hibernate's JDBC
+ * batching at flush time, so a request with thousands of rows costs a handful
+ * of round-trips instead of several per row.
+ */
+@Service
+@Profile("!reactive")
+@Observed(name="employee.bulk")
+public class EmployeeBulkService {
+
+	/** Keeps IN lists well under the bind parameter limits of the drivers. */
+	static final int IN_CLAUSE_CHUNK_SIZE=1000;
+
+	static final String REQUIRED_FIELDS_MESSAGE="firstName, lastName and email are required";
+
+	static final String FILTER_REQUIRED_MESSAGE="at least one of firstName, lastName and email is required";
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private EmployeeSearchRepository employeeSearchRepository;
+
+	@Autowired
+	private EmployeeJdbcRepository employeeJdbcRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private EmployeeCacheInvalidator employeeCacheInvalidator;
+
+	@Value("${app.employees.delete.chunk-size:5000}")
+	private int deleteChunkSize;
+
+	@Transactional
+	public BulkResponse saveEmployees(List<Employee> employees) {
+		BulkItemResult[] results=new BulkItemResult[employees.size()];
+
+		Set<String> emails=new HashSet<>();
+		for(Employee employee : employees) {
+			if(isComplete(employee)) {
+				emails.add(employee.getEmail());
+			}
+		}
+		Set<String> existingEmails=new HashSet<>(inChunks(emails, employeeRepository::findExistingEmails));
+
+		Set<String> acceptedEmails=new HashSet<>();
+		List<Employee> accepted=new ArrayList<>();
+		List<Integer> acceptedIndexes=new ArrayList<>();
+		for(int i=0; i < employees.size(); i++) {
+			Employee employee=employees.get(i);
+			if(!isComplete(employee)) {
+				results[i]=new BulkItemResult(i, null, Status.INVALID, REQUIRED_FIELDS_MESSAGE);
+			} else if(existingEmails.contains(employee.getEmail()) || !acceptedEmails.add(employee.getEmail())) {
+				results[i]=new BulkItemResult(i, null, Status.DUPLICATE,
+						"Employee already exist with given email:" +employee.getEmail());
+			} else {
+				// a non-zero id would turn the insert into a merge and cost a SELECT per row
+				employee.setId(0L);
+				accepted.add(employee);
+				acceptedIndexes.add(i);
+			}
+		}
+
+		List<Employee> savedEmployees=employeeRepository.saveAll(accepted);
+		for(int j=0; j < savedEmployees.size(); j++) {
+			int index=acceptedIndexes.get(j);
+			results[index]=new BulkItemResult(index, savedEmployees.get(j).getId(), Status.CREATED, null);
+		}
+		return BulkResponse.of(Arrays.asList(results));
+	}
+
+	/**
+	 * Rows whose email is taken, see {@link EmailClaims}, are reported as
+	 * {@code DUPLICATE} instead of failing the whole batch at commit.
+	 */
+	@Transactional
+	@CacheEvict(cacheNames={CacheConfig.EMPLOYEES_BY_ID, CacheConfig.EMPLOYEES_BY_EMAIL}, allEntries=true)
+	public BulkResponse updateEmployees(List<Employee> employees) {
+		Set<Long> ids=new HashSet<>();
+		Set<String> emails=new HashSet<>();
+		for(Employee employee : employees) {
+			if(employee != null) {
+				ids.add(employee.getId());
+			}
+			if(isComplete(employee)) {
+				emails.add(employee.getEmail());
+			}
+		}
+		Map<Long, Employee> savedEmployees=new HashMap<>();
+		for(Employee savedEmployee : inChunks(ids, employeeRepository::findAllById)) {
+			savedEmployees.put(savedEmployee.getId(), savedEmployee);
+		}
+		EmailClaims emailClaims=new EmailClaims(inChunks(emails, employeeRepository::findExistingEmails), savedEmployees.values());
+
+		List<BulkItemResult> results=new ArrayList<>(employees.size());
+		for(int i=0; i < employees.size(); i++) {
+			Employee employee=employees.get(i);
+			if(!isComplete(employee)) {
+				results.add(new BulkItemResult(i, null, Status.INVALID, REQUIRED_FIELDS_MESSAGE));
+				continue;
+			}
+			Employee savedEmployee=savedEmployees.get(employee.getId());
+			if(savedEmployee == null) {
+				results.add(new BulkItemResult(i, employee.getId(), Status.NOT_FOUND, null));
+				continue;
+			}
+			if(!emailClaims.claim(employee.getId(), employee.getEmail())) {
+				results.add(new BulkItemResult(i, employee.getId(), Status.DUPLICATE,
+						"Employee already exist with given email:" +employee.getEmail()));
+				continue;
+			}
+			// managed entities are written back by dirty checking as one JDBC batch at commit
+			savedEmployee.setFirstName(employee.getFirstName());
+			savedEmployee.setLastName(employee.getLastName());
+			savedEmployee.setEmail(employee.getEmail());
+			results.add(new BulkItemResult(i, employee.getId(), Status.UPDATED, null));
+		}
+		employeeCacheInvalidator.allEmployeesChanged();
+		return BulkResponse.of(results);
+	}
+
+	@Transactional
+	@CacheEvict(cacheNames={CacheConfig.EMPLOYEES_BY_ID, CacheConfig.EMPLOYEES_BY_EMAIL}, allEntries=true)
+	public BulkResponse deleteEmployees(List<Long> ids) {
+		List<Long> distinctIds=List.copyOf(new LinkedHashSet<>(ids));
+		int[] deleted=employeeJdbcRepository.deleteAllById(distinctIds);
+		Set<Long> deletedIds=new HashSet<>();
+		for(int i=0; i < deleted.length; i++) {
+			if(deleted[i] > 0) {
+				deletedIds.add(distinctIds.get(i));
+			}
+		}
+		employeeCacheInvalidator.allEmployeesChanged();
+
+		List<BulkItemResult> results=new ArrayList<>(ids.size());
+		for(int i=0; i < ids.size(); i++) {
+			Long id=ids.get(i);
+			Status status=deletedIds.remove(id) ? Status.DELETED : Status.NOT_FOUND;
+			results.add(new BulkItemResult(i, id, status, null));
+		}
+		return BulkResponse.of(results);
+	}
+
+	/**
+	 * Deletes every employee matching the name prefixes of {@code search},
+	 * {@code deleteChunkSize} rows per statement. There is no surrounding
+	 * transaction: each chunk commits on its own, so a purge of millions of rows
+	 * holds its locks only for one chunk at a time and never loads an entity. A
+	 * failure leaves the chunks before it deleted, so the caches are cleared
+	 * whether or not the loop gets to the end.
+	 *
+	 * @return the number of employees deleted
+	 * @throws IllegalArgumentException when no filter is set, which would delete everyone
+	 */
+	public long deleteEmployeesMatching(EmployeeSearch search) {
+		if(!search.hasFilter()) {
+			throw new IllegalArgumentException(FILTER_REQUIRED_MESSAGE);
+		}
+		long deleted=0;
+		try {
+			int chunk;
+			do {
+				chunk=employeeSearchRepository.deleteMatching(search, deleteChunkSize);
+				deleted+=chunk;
+			} while(chunk > 0);
+		} finally {
+			// plain SQL bypasses Hibernate, which would otherwise clear the region itself
+			entityManagerFactory.getCache().evict(Employee.class);
+			clear(CacheConfig.EMPLOYEES_BY_ID);
+			clear(CacheConfig.EMPLOYEES_BY_EMAIL);
+			employeeCacheInvalidator.allEmployeesChanged();
+		}
+		return deleted;
+	}
+
+	private void clear(String cacheName) {
+		Cache cache=cacheManager.getCache(cacheName);
+		if(cache != null) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Decides which rows of a bulk update may set their email. An email is
+	 * taken when another employee held it before the request, even if a later
+	 * row moves that employee to a new email: the unique index is checked row
+	 * by row as the batch runs, so such a swap could still fail. It is also
+	 * taken once an earlier row of the request has claimed it.
+	 */
+	static final class EmailClaims {
+
+		private final Set<String> existingEmails;
+
+		/** The email each employee of the request had before it, which it may keep. */
+		private final Map<Long, String> ownEmails=new HashMap<>();
+
+		private final Map<String, Long> claimedEmails=new HashMap<>();
+
+		/**
+		 * @param existingEmails the emails of the request found in the table
+		 * @param savedEmployees the employees of the request as loaded, before any change
+		 */
+		EmailClaims(Collection<String> existingEmails, Collection<Employee> savedEmployees) {
+			this.existingEmails=new HashSet<>(existingEmails);
+			for(Employee savedEmployee : savedEmployees) {
+				ownEmails.put(savedEmployee.getId(), savedEmployee.getEmail());
+			}
+		}
+
+		/** Whether the employee may set the email; when it may, the email is now its own. */
+		boolean claim(long id, String email) {
+			if(existingEmails.contains(email) && !email.equals(ownEmails.get(id))) {
+				return false;
+			}
+			Long claimedBy=claimedEmails.putIfAbsent(email, id);
+			return claimedBy == null || claimedBy == id;
+		}
+
+	}
+
+	static boolean isComplete(Employee employee) {
+		return employee != null
+				&& employee.getFirstName() != null
+				&& employee.getLastName() != null
+				&& employee.getEmail() != null;
+	}
+
+	static <T, R> List<R> inChunks(Collection<T> values, Function<List<T>, ? extends Collection<R>> query) {
+		List<R> rows=new ArrayList<>();
+		List<T> chunk=new ArrayList<>(Math.min(values.size(), IN_CLAUSE_CHUNK_SIZE));
+		for(T value : values) {
+			chunk.add(value);
+			if(chunk.size() == IN_CLAUSE_CHUNK_SIZE) {
+				rows.addAll(query.apply(chunk));
+				chunk=new ArrayList<>(IN_CLAUSE_CHUNK_SIZE);
+			}
+		}
+		if(!chunk.isEmpty()) {
+			rows.addAll(query.apply(chunk));
+		}
+		return rows;
+	}
+
+}
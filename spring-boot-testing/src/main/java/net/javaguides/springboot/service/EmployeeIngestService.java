@@ -0,0 +1,234 @@
+package net.javaguides.springboot.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.dto.BulkItemResult;
+import net.javaguides.springboot.dto.BulkResponse;
+import net.javaguides.springboot.dto.IngestStatus;
+import net.javaguides.springboot.dto.IngestStatus.State;
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Write-behind creation of employees. {@link #submit} only puts the employee on
+ * a bounded in-memory queue and hands back a tracking id; one writer thread
+ * drains the queue and inserts up to {@code batchSize} employees per
+ * transaction through {@link EmployeeBulkService#saveEmployees}, so request
+ * latency no longer depends on how fast the database commits.
+ * <p>
+ * Enabled with {@code app.employees.ingest.enabled=true}. Accepted employees
+ * live only in memory until written: a crash loses whatever is still queued,
+ * while a normal shutdown stops after the web server and drains the queue
+ * first. Employees not written yet always report {@code QUEUED}; outcomes are
+ * kept for {@code status-retention} and looked up with {@link #getStatus}.
+ */
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(name="app.employees.ingest.enabled", havingValue="true")
+public class EmployeeIngestService implements SmartLifecycle {
+
+	private static final Logger log=LoggerFactory.getLogger(EmployeeIngestService.class);
+
+	private static final long POLL_INTERVAL_MS=100;
+
+	@Autowired
+	private EmployeeBulkService employeeBulkService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${app.employees.ingest.queue-capacity:10000}")
+	private int queueCapacity;
+
+	@Value("${app.employees.ingest.batch-size:500}")
+	private int batchSize;
+
+	@Value("${app.employees.ingest.status-retention:10m}")
+	private Duration statusRetention;
+
+	@Value("${app.employees.ingest.shutdown-timeout:30s}")
+	private Duration shutdownTimeout;
+
+	private BlockingQueue<Submission> queue;
+
+	/** Accepted and not written yet; bounded by the queue, so never evicted. */
+	private final ConcurrentMap<String, IngestStatus> pending=new ConcurrentHashMap<>();
+
+	private Cache<String, IngestStatus> outcomes;
+
+	private volatile boolean running;
+
+	private Thread writer;
+
+	private record Submission(String trackingId, Employee employee) {
+	}
+
+	@PostConstruct
+	void init() {
+		queue=new ArrayBlockingQueue<>(queueCapacity);
+		// evicting outcomes only ever loses finished work, never an accepted employee
+		outcomes=Caffeine.newBuilder()
+				.maximumSize(queueCapacity * 10L)
+				.expireAfterWrite(statusRetention)
+				.build();
+		meterRegistry.gauge("employee.ingest.queue.size", queue, BlockingQueue::size);
+	}
+
+	/**
+	 * Queues the employee for writing.
+	 *
+	 * @return the queued status with its tracking id, or empty when the queue is
+	 *         full or the service is shutting down
+	 */
+	public Optional<IngestStatus> submit(Employee employee) {
+		if(!running) {
+			return Optional.empty();
+		}
+		String trackingId=UUID.randomUUID().toString();
+		IngestStatus status=IngestStatus.queued(trackingId);
+		pending.put(trackingId, status);
+		if(!queue.offer(new Submission(trackingId, employee))) {
+			pending.remove(trackingId);
+			return Optional.empty();
+		}
+		return Optional.of(status);
+	}
+
+	/** Empty for an unknown tracking id or one whose outcome has expired. */
+	public Optional<IngestStatus> getStatus(String trackingId) {
+		IngestStatus status=pending.get(trackingId);
+		return Optional.ofNullable(status != null ? status : outcomes.getIfPresent(trackingId));
+	}
+
+	/** Writes one batch of whatever is queued, without waiting. */
+	int writePending() {
+		Submission first=queue.poll();
+		return first == null ? 0 : write(first);
+	}
+
+	private void run() {
+		while(running || !queue.isEmpty()) {
+			try {
+				Submission first=queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+				if(first != null) {
+					write(first);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				log.warn("Employee ingestion interrupted with {} employees still queued", queue.size());
+				return;
+			}
+		}
+	}
+
+	private int write(Submission first) {
+		List<Submission> batch=new ArrayList<>(batchSize);
+		batch.add(first);
+		queue.drainTo(batch, batchSize - 1);
+		try {
+			record(batch, employeeBulkService.saveEmployees(employees(batch)));
+		} catch (RuntimeException e) {
+			if(batch.size() == 1) {
+				fail(first, e);
+			} else {
+				// e.g. an email inserted concurrently by the synchronous API; find the row that breaks the batch
+				log.warn("Batch of {} employees failed, retrying one at a time", batch.size(), e);
+				for(Submission submission : batch) {
+					try {
+						record(List.of(submission), employeeBulkService.saveEmployees(employees(List.of(submission))));
+					} catch (RuntimeException retryFailure) {
+						fail(submission, retryFailure);
+					}
+				}
+			}
+		}
+		return batch.size();
+	}
+
+	private static List<Employee> employees(List<Submission> batch) {
+		List<Employee> employees=new ArrayList<>(batch.size());
+		for(Submission submission : batch) {
+			employees.add(submission.employee());
+		}
+		return employees;
+	}
+
+	private void record(List<Submission> batch, BulkResponse response) {
+		for(BulkItemResult result : response.getResults()) {
+			String trackingId=batch.get(result.getIndex()).trackingId();
+			State state=switch(result.getStatus()) {
+				case CREATED -> State.CREATED;
+				case DUPLICATE -> State.DUPLICATE;
+				case INVALID -> State.INVALID;
+				default -> State.FAILED;
+			};
+			finish(new IngestStatus(trackingId, state, result.getId(), result.getMessage()));
+		}
+	}
+
+	private void fail(Submission submission, RuntimeException e) {
+		log.error("Could not ingest employee {}", submission.trackingId(), e);
+		finish(new IngestStatus(submission.trackingId(), State.FAILED, null, e.getMessage()));
+	}
+
+	/** Stores the outcome before dropping the pending entry, so a lookup in between finds one of them. */
+	private void finish(IngestStatus outcome) {
+		outcomes.put(outcome.getTrackingId(), outcome);
+		pending.remove(outcome.getTrackingId());
+	}
+
+	@Override
+	public void start() {
+		running=true;
+		writer=Thread.ofPlatform().name("employee-ingest").start(this::run);
+	}
+
+	@Override
+	public void stop() {
+		running=false;
+		try {
+			writer.join(shutdownTimeout.toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if(writer.isAlive()) {
+			log.warn("Employee ingestion did not drain within {}; {} employees still queued", shutdownTimeout, queue.size());
+			writer.interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/** Stops after the web server, so nothing is accepted once draining has begun. */
+	@Override
+	public int getPhase() {
+		return SmartLifecycle.DEFAULT_PHASE - 4096;
+	}
+
+}
@@ -1,47 +1,334 @@
 package net.javaguides.springboot.service;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.observation.annotation.Observed;
+import net.javaguides.springboot.cache.Coalesced;
+import net.javaguides.springboot.cache.EmployeeCacheInvalidator;
+import net.javaguides.springboot.config.CacheConfig;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeSearch;
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.dto.EmployeeView;
 import net.javaguides.springboot.exception.ResourceNotFoundException;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeJdbcRepository;
+import net.javaguides.springboot.repository.EmployeeJdbcRepository.TableVersion;
 import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.repository.EmployeeSearchRepository;
 
 @Service
+@Profile("!reactive")
+@Observed(name="employee.service")
 public class EmployeeService {
 
 	@Autowired
 	private EmployeeRepository employeeRepository;
 	
+	@Autowired
+	private EmployeeJdbcRepository employeeJdbcRepository;
+	
+	@Autowired
+	private EmployeeSearchRepository employeeSearchRepository;
+	
+	@Autowired
+	private CacheManager cacheManager;
+	
+	@Autowired
+	private EmployeeCacheInvalidator employeeCacheInvalidator;
+	
+	/**
+	 * Inserts in a single round-trip and lets the unique index on {@code email}
+	 * reject duplicates, instead of looking the email up first. That is also what
+	 * keeps two concurrent creates with the same email from both succeeding.
+	 * <p>
+	 * Other instances are not told: they cannot hold a new id, and misses
+	 * by email are never cached.
+	 */
+	@CachePut(cacheNames=CacheConfig.EMPLOYEES_BY_ID, key="#result.id")
 	public Employee saveEmployee(Employee employee) {
-		
-		Optional<Employee> savedEmployee=employeeRepository.findByEmail(employee.getEmail());
-		if(savedEmployee.isPresent()) {
-			throw new ResourceNotFoundException("Employee already exist with given email:" +employee.getEmail());
+		// a client-supplied id would turn the insert into a merge and cost a SELECT
+		employee.setId(0L);
+		try {
+			return employeeRepository.saveAndFlush(employee);
+		} catch (DataIntegrityViolationException e) {
+			throw duplicateEmailOr(e, employee);
 		}
-		return employeeRepository.save(employee);
 	}
 	
 	
+	/**
+	 * Like every read here, runs in a read-only transaction: Hibernate then skips
+	 * flushing and keeps no dirty-checking snapshots of the entities it loads.
+	 */
+	@Transactional(readOnly = true)
 	public List<Employee> getAllEmployees(){
 		return employeeRepository.findAll();
 	}
 	
+	@Transactional(readOnly = true)
+	public List<Employee> getEmployeesAfter(long afterId, int limit) {
+		return employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(limit));
+	}
+	
+	/**
+	 * Returns up to {@code limit} employees with an id greater than {@code afterId}.
+	 * One extra row is read to tell whether another page follows, so the last page
+	 * never hands out a cursor that leads to an empty page.
+	 */
+	@Transactional(readOnly = true)
+	public EmployeePage<Employee> getEmployeePage(long afterId, int limit) {
+		return page(getEmployeesAfter(afterId, limit + 1), limit, Employee::getId);
+	}
+	
+	/**
+	 * Same as {@link #getEmployeePage}, reading only the given columns.
+	 *
+	 * @param fields as returned by {@link EmployeeView#parseFields}
+	 */
+	@Transactional(readOnly = true)
+	public EmployeePage<EmployeeView> getEmployeeViewPage(long afterId, int limit, Set<String> fields) {
+		return page(employeeRepository.findViewsAfter(afterId, fields, limit + 1), limit, EmployeeView::getId);
+	}
+	
+	/**
+	 * Case-insensitive prefix search on the name fields, one keyset page at a time.
+	 *
+	 * @throws IllegalArgumentException for an unknown sort field or direction, or a bad cursor
+	 */
+	@Transactional(readOnly = true)
+	public EmployeeSearchPage searchEmployees(EmployeeSearch search, int limit) {
+		search.validate();
+		return employeeSearchRepository.search(search, limit);
+	}
+	
+	private static <T> EmployeePage<T> page(List<T> rows, int limit, ToLongFunction<T> id) {
+		if(rows.size() <= limit) {
+			return new EmployeePage<>(rows, null);
+		}
+		List<T> content=rows.subList(0, limit);
+		return new EmployeePage<>(content, id.applyAsLong(content.get(limit - 1)));
+	}
+	
+	/**
+	 * Pushes every employee to the consumer while the rows are being read, without
+	 * materialising the table or attaching the rows to the persistence context.
+	 */
+	@Transactional(readOnly = true)
+	public void streamAllEmployees(Consumer<Employee> consumer) {
+		employeeJdbcRepository.streamAll(consumer);
+	}
+	
+	/**
+	 * Same as {@link #streamAllEmployees(Consumer)}, handing over the table's tag
+	 * first, read in the same transaction as the rows that follow.
+	 */
+	@Transactional(readOnly = true)
+	public void streamAllEmployees(Consumer<String> tag, Consumer<Employee> consumer) {
+		tag.accept(employeeJdbcRepository.tableVersion().tag());
+		employeeJdbcRepository.streamAll(consumer);
+	}
+	
+	/**
+	 * Concurrent misses for the same id share one query.
+	 */
+	@Cacheable(cacheNames=CacheConfig.EMPLOYEES_BY_ID, unless="#result == null")
+	@Coalesced("employee-by-id")
+	@Transactional(readOnly = true)
 	public Optional<Employee> getEmployeeById(long Id) {
 		return employeeRepository.findById(Id);
 	}
 	
+	/**
+	 * The version of an employee, for conditional requests: taken from the
+	 * cached employee when there is one, otherwise read alone from the row.
+	 */
+	@Transactional(readOnly = true)
+	public Optional<Long> getEmployeeVersion(long Id) {
+		Cache cache=cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID);
+		Employee cachedEmployee=cache == null ? null : cache.get(Id, Employee.class);
+		if(cachedEmployee != null) {
+			return Optional.of(cachedEmployee.getVersion());
+		}
+		return employeeRepository.findVersionById(Id);
+	}
+	
+	/**
+	 * The whole table for a conditional request on the full list, when it has at
+	 * most {@code limit} rows. The table version is read first and in the same
+	 * transaction as the rows, so on the same connection: the rows can never be
+	 * older than the tag they are sent with, as they could be if the two reads
+	 * went to replicas at different points of replay.
+	 *
+	 * @param notModified given the table's tag; when it holds no row is read
+	 * @return empty when {@code notModified} held, or when the table has more
+	 *         than {@code limit} rows and is to be streamed instead
+	 */
+	@Transactional(readOnly = true)
+	public Optional<List<Employee>> getAllEmployeesUnlessNotModified(Predicate<String> notModified, int limit) {
+		TableVersion version=employeeJdbcRepository.tableVersion();
+		if(notModified.test(version.tag()) || version.rows() > limit) {
+			return Optional.empty();
+		}
+		// one row more tells whether the table grew past the limit since
+		List<Employee> employees=employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(limit + 1));
+		return employees.size() <= limit ? Optional.of(employees) : Optional.empty();
+	}
+	
+	/**
+	 * Misses are not cached, so a lookup for an email that is about to be
+	 * created never serves a stale "absent" result. Concurrent lookups of the
+	 * same email still share one query.
+	 */
+	@Cacheable(cacheNames=CacheConfig.EMPLOYEES_BY_EMAIL, unless="#result == null")
+	@Coalesced("employee-by-email")
+	@Transactional(readOnly = true)
+	public Optional<Employee> getEmployeeByEmail(String email) {
+		return employeeRepository.findByEmail(email);
+	}
+	
+	/**
+	 * The cached entry is dropped before the write so a failed save cannot leave
+	 * a half-applied instance behind, and replaced with the saved state after.
+	 * The old email is not known here, so the by-email cache is cleared.
+	 */
+	@Caching(
+			evict={
+					@CacheEvict(cacheNames=CacheConfig.EMPLOYEES_BY_ID, key="#updatedEmployee.id", beforeInvocation=true),
+					@CacheEvict(cacheNames=CacheConfig.EMPLOYEES_BY_EMAIL, allEntries=true)
+			},
+			put=@CachePut(cacheNames=CacheConfig.EMPLOYEES_BY_ID, key="#result.id"))
 	public Employee updateEmployee(Employee updatedEmployee) {
-		return employeeRepository.save(updatedEmployee);
+		Employee savedEmployee;
+		try {
+			savedEmployee=employeeRepository.saveAndFlush(updatedEmployee);
+		} catch (DataIntegrityViolationException e) {
+			throw duplicateEmailOr(e, updatedEmployee);
+		}
+		employeeCacheInvalidator.employeeChanged(savedEmployee.getId());
+		return savedEmployee;
 	}
 	
-	public void deleteEmployee(long Id) {
-		employeeRepository.deleteById(Id);
+	/**
+	 * Replaces the editable fields of an employee with one UPDATE, without
+	 * reading the row first. Empty when there is no employee with that id.
+	 * <p>
+	 * With an expected version the new version is known and the cached entry is
+	 * replaced; without one it is only dropped.
+	 *
+	 * @param expectedVersion when not null, the update only applies at that version
+	 * @throws OptimisticLockingFailureException when the employee is at another version
+	 */
+	@Caching(
+			evict={
+					@CacheEvict(cacheNames=CacheConfig.EMPLOYEES_BY_ID, key="#Id", condition="#expectedVersion == null"),
+					@CacheEvict(cacheNames=CacheConfig.EMPLOYEES_BY_EMAIL, allEntries=true)
+			},
+			put=@CachePut(cacheNames=CacheConfig.EMPLOYEES_BY_ID, key="#Id", condition="#expectedVersion != null", unless="#result == null"))
+	public Optional<Employee> replaceEmployee(long Id, Employee employee, Long expectedVersion) {
+		try {
+			if(employeeJdbcRepository.update(Id, employee.getFirstName(), employee.getLastName(), employee.getEmail(), expectedVersion) == 0) {
+				rejectIfStale(Id, expectedVersion);
+				return Optional.empty();
+			}
+		} catch (DataIntegrityViolationException e) {
+			throw duplicateEmailOr(e, employee);
+		}
+		employeeCacheInvalidator.employeeChanged(Id);
+		Employee replacedEmployee=new Employee(Id, employee.getFirstName(), employee.getLastName(), employee.getEmail());
+		if(expectedVersion != null) {
+			replacedEmployee.setVersion(expectedVersion + 1);
+		}
+		return Optional.of(replacedEmployee);
+	}
+	
+	/**
+	 * Applies the non-null fields of {@code changes} with one UPDATE, without
+	 * reading the row first. The resulting row is not known here, so the cached
+	 * entry is dropped rather than replaced.
+	 *
+	 * @param expectedVersion when not null, the update only applies at that version
+	 * @return false when there is no employee with that id
+	 * @throws OptimisticLockingFailureException when the employee is at another version
+	 */
+	@Caching(evict={
+			@CacheEvict(cacheNames=CacheConfig.EMPLOYEES_BY_ID, key="#Id"),
+			@CacheEvict(cacheNames=CacheConfig.EMPLOYEES_BY_EMAIL, allEntries=true)
+	})
+	public boolean patchEmployee(long Id, Employee changes, Long expectedVersion) {
+		try {
+			if(employeeJdbcRepository.updateNonNull(Id, changes.getFirstName(), changes.getLastName(), changes.getEmail(), expectedVersion) == 0) {
+				rejectIfStale(Id, expectedVersion);
+				return false;
+			}
+		} catch (DataIntegrityViolationException e) {
+			throw duplicateEmailOr(e, changes);
+		}
+		employeeCacheInvalidator.employeeChanged(Id);
+		return true;
+	}
+	
+	/**
+	 * A conditional update that changed nothing either missed the row or its
+	 * version; only then is the id looked up to tell which.
+	 */
+	private void rejectIfStale(long Id, Long expectedVersion) {
+		if(expectedVersion != null && employeeRepository.existsById(Id)) {
+			throw new OptimisticLockingFailureException("Employee " + Id + " is no longer at version " + expectedVersion);
+		}
+	}
+	
+	/**
+	 * One DELETE statement; unlike {@code deleteById} of the repository the
+	 * entity is not loaded into the persistence context first.
+	 *
+	 * @return false when there is no employee with that id
+	 */
+	@Caching(evict={
+			@CacheEvict(cacheNames=CacheConfig.EMPLOYEES_BY_ID, key="#Id"),
+			@CacheEvict(cacheNames=CacheConfig.EMPLOYEES_BY_EMAIL, allEntries=true)
+	})
+	public boolean deleteEmployee(long Id) {
+		if(employeeJdbcRepository.deleteById(Id) == 0) {
+			return false;
+		}
+		employeeCacheInvalidator.employeeChanged(Id);
+		return true;
+	}
+	
+	/**
+	 * Hibernate reports the violated constraint by name; for plain JDBC writes
+	 * only the driver message carries it.
+	 */
+	private static RuntimeException duplicateEmailOr(DataIntegrityViolationException e, Employee employee) {
+		String constraint=e.getCause() instanceof ConstraintViolationException violation
+				? violation.getConstraintName()
+				: e.getMostSpecificCause().getMessage();
+		if(constraint != null && constraint.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_UNIQUE_CONSTRAINT)) {
+			return new ResourceNotFoundException("Employee already exist with given email:" +employee.getEmail(), e);
+		}
+		return e;
 	}
-
-
 
 }
@@ -0,0 +1,164 @@
+package net.javaguides.springboot.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import io.micrometer.observation.annotation.Observed;
+import net.javaguides.springboot.dto.EmployeeFormat;
+import net.javaguides.springboot.exception.InvalidImportException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeJdbcRepository;
+import net.javaguides.springboot.repository.EmployeeTransferRepository;
+
+/**
+ * Streaming import and export of the whole employees table as CSV or NDJSON.
+ * Neither side holds more than one chunk of rows in memory: import parses the
+ * body record by record and writes every {@code batchSize} records, export
+ * writes rows to the output as they come off the database.
+ */
+@Service
+@Profile("!reactive")
+@Observed(name="employee.transfer")
+public class EmployeeTransferService {
+
+	@Autowired
+	private EmployeeTransferRepository employeeTransferRepository;
+
+	@Autowired
+	private EmployeeJdbcRepository employeeJdbcRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${app.employees.import.batch-size:5000}")
+	private int batchSize;
+
+	/**
+	 * Creates an employee for every record, in one transaction, so a bad record
+	 * or a duplicate email anywhere in the file leaves the table untouched. Ids
+	 * in the file are ignored and new ones assigned, as for a single create.
+	 *
+	 * @return the number of employees created
+	 * @throws InvalidImportException for a record that cannot be parsed or lacks a field
+	 * @throws org.springframework.dao.DataIntegrityViolationException for a duplicate email
+	 */
+	@Transactional
+	public long importEmployees(EmployeeFormat format, InputStream input) {
+		long imported=0;
+		List<Employee> chunk=new ArrayList<>(batchSize);
+		try (MappingIterator<Employee> records=reader(format, input)) {
+			while(true) {
+				long record=imported + chunk.size() + 1;
+				Employee employee;
+				try {
+					if(!records.hasNextValue()) {
+						break;
+					}
+					employee=records.nextValue();
+				} catch (JsonProcessingException e) {
+					throw new InvalidImportException(record, e.getOriginalMessage(), e);
+				}
+				if(!EmployeeBulkService.isComplete(employee)) {
+					throw new InvalidImportException(record, EmployeeBulkService.REQUIRED_FIELDS_MESSAGE, null);
+				}
+				chunk.add(employee);
+				if(chunk.size() == batchSize) {
+					employeeTransferRepository.insertAll(chunk);
+					imported+=chunk.size();
+					chunk.clear();
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		employeeTransferRepository.insertAll(chunk);
+		return imported + chunk.size();
+	}
+
+	/**
+	 * Writes every employee in id order. CSV on PostgreSQL is produced by the
+	 * server through {@code COPY}; otherwise rows are read through a cursor and
+	 * serialised here. Nothing is flushed per row.
+	 *
+	 * @return the number of employees written
+	 */
+	@Transactional(readOnly = true)
+	public long exportEmployees(EmployeeFormat format, OutputStream output) {
+		if(format == EmployeeFormat.CSV && employeeTransferRepository.isCopySupported()) {
+			return employeeTransferRepository.copyOutCsv(output);
+		}
+		AtomicLong exported=new AtomicLong();
+		try {
+			if(format == EmployeeFormat.CSV) {
+				try (SequenceWriter rows=EmployeeFormat.CSV_MAPPER.writerFor(Employee.class)
+						.with(EmployeeFormat.CSV_SCHEMA.withHeader())
+						.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+						.writeValues(output)) {
+					employeeJdbcRepository.streamAll(employee -> {
+						write(() -> rows.write(employee));
+						exported.incrementAndGet();
+					});
+				}
+			} else {
+				ObjectWriter writer=objectMapper.writerFor(Employee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+				try (JsonGenerator generator=objectMapper.getFactory().createGenerator(output)) {
+					generator.setRootValueSeparator(null);
+					employeeJdbcRepository.streamAll(employee -> {
+						write(() -> {
+							writer.writeValue(generator, employee);
+							generator.writeRaw('\n');
+						});
+						exported.incrementAndGet();
+					});
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return exported.get();
+	}
+
+	private MappingIterator<Employee> reader(EmployeeFormat format, InputStream input) throws IOException {
+		if(format == EmployeeFormat.CSV) {
+			return EmployeeFormat.CSV_MAPPER.readerFor(Employee.class)
+					.with(CsvSchema.emptySchema().withHeader())
+					.readValues(input);
+		}
+		return objectMapper.readerFor(Employee.class).readValues(input);
+	}
+
+	private interface IoAction {
+
+		void run() throws IOException;
+
+	}
+
+	private static void write(IoAction action) {
+		try {
+			action.run();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
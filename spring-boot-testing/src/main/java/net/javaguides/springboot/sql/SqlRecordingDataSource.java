@@ -0,0 +1,253 @@
+package net.javaguides.springboot.sql;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Hands out connections whose statements report to the {@link SqlStatistics}
+ * open on the calling thread, and logs every statement slower than the
+ * threshold with its bind parameters, whether statistics are open or not.
+ * Hibernate and {@code JdbcTemplate} both go through it; work done on the
+ * driver's own connection after {@code unwrap}, such as COPY, does not.
+ * <p>
+ * The parameters are logged as bound, so they include whatever personal data
+ * the statement carries; {@code logParameters} turns them off.
+ */
+public class SqlRecordingDataSource extends DelegatingDataSource {
+
+	private static final Logger log=LoggerFactory.getLogger(SqlRecordingDataSource.class);
+
+	private static final Set<String> EXECUTE_METHODS=Set.of("execute", "executeQuery", "executeUpdate",
+			"executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+	private static final int MAX_LOGGED_VALUE_LENGTH=100;
+
+	private final long slowStatementNanos;
+
+	private final boolean logParameters;
+
+	/**
+	 * @param slowStatementThreshold statements taking longer are logged, zero or negative for none
+	 */
+	public SqlRecordingDataSource(DataSource targetDataSource, Duration slowStatementThreshold, boolean logParameters) {
+		super(targetDataSource);
+		this.slowStatementNanos=slowStatementThreshold.isNegative() || slowStatementThreshold.isZero()
+				? Long.MAX_VALUE : slowStatementThreshold.toNanos();
+		this.logParameters=logParameters;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return wrap(Connection.class, new ConnectionHandler(super.getConnection()));
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return wrap(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T wrap(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(SqlRecordingDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch(InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	/** The {@link Object} and {@link java.sql.Wrapper} methods, answered alike by every proxy. */
+	private static Object handleCommon(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+		switch(method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Recording " + target;
+			case "unwrap":
+				return ((Class<?>) args[0]).isInstance(proxy) ? proxy : invoke(target, method, args);
+			default:
+				return ((Class<?>) args[0]).isInstance(proxy) || (boolean) invoke(target, method, args);
+		}
+	}
+
+	private static boolean isCommon(Method method) {
+		return switch(method.getName()) {
+			case "equals", "hashCode", "toString", "unwrap", "isWrapperFor" -> true;
+			default -> false;
+		};
+	}
+
+	private final class ConnectionHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private ConnectionHandler(Connection target) {
+			this.target=target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if(isCommon(method)) {
+				return handleCommon(proxy, target, method, args);
+			}
+			Object result=SqlRecordingDataSource.invoke(target, method, args);
+			if(result instanceof CallableStatement statement) {
+				return wrap(CallableStatement.class, new StatementHandler(statement, (String) args[0], (Connection) proxy));
+			}
+			if(result instanceof PreparedStatement statement) {
+				return wrap(PreparedStatement.class, new StatementHandler(statement, (String) args[0], (Connection) proxy));
+			}
+			if(result instanceof Statement statement) {
+				return wrap(Statement.class, new StatementHandler(statement, null, (Connection) proxy));
+			}
+			return result;
+		}
+
+	}
+
+	private final class StatementHandler implements InvocationHandler {
+
+		private final Statement target;
+
+		private final String sql;
+
+		private final Connection connection;
+
+		private final List<Object> parameters=new ArrayList<>();
+
+		private StatementHandler(Statement target, String sql, Connection connection) {
+			this.target=target;
+			this.sql=sql;
+			this.connection=connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if(isCommon(method)) {
+				return handleCommon(proxy, target, method, args);
+			}
+			String name=method.getName();
+			if(EXECUTE_METHODS.contains(name)) {
+				return execute(method, args);
+			}
+			if(name.equals("getConnection")) {
+				return connection;
+			}
+			Object result=SqlRecordingDataSource.invoke(target, method, args);
+			if(name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+				bind(index, name.equals("setNull") ? null : args[1]);
+			} else if(name.equals("clearParameters")) {
+				parameters.clear();
+			} else if(name.equals("getResultSet")) {
+				return wrapResultSet(result);
+			}
+			return result;
+		}
+
+		private Object execute(Method method, Object[] args) throws Throwable {
+			String statement=args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+			long start=System.nanoTime();
+			try {
+				return wrapResultSet(SqlRecordingDataSource.invoke(target, method, args));
+			} finally {
+				long nanos=System.nanoTime() - start;
+				boolean slow=nanos > slowStatementNanos;
+				if(slow) {
+					logSlow(statement, nanos);
+				}
+				SqlStatistics statistics=SqlStatistics.current();
+				if(statistics != null) {
+					statistics.statementExecuted(statement, nanos, slow);
+				}
+			}
+		}
+
+		private Object wrapResultSet(Object result) {
+			SqlStatistics statistics=SqlStatistics.current();
+			if(result instanceof ResultSet resultSet && statistics != null) {
+				return wrap(ResultSet.class, new ResultSetHandler(resultSet, statistics));
+			}
+			return result;
+		}
+
+		private void bind(int index, Object value) {
+			while(parameters.size() < index) {
+				parameters.add(null);
+			}
+			parameters.set(index - 1, value);
+		}
+
+		private void logSlow(String statement, long nanos) {
+			if(logParameters && !parameters.isEmpty()) {
+				log.warn("Slow SQL took {} ms: {} with parameters {}", nanos / 1_000_000, statement, describe(parameters));
+			} else {
+				log.warn("Slow SQL took {} ms: {}", nanos / 1_000_000, statement);
+			}
+		}
+
+	}
+
+	private static List<String> describe(List<Object> parameters) {
+		List<String> values=new ArrayList<>(parameters.size());
+		for(Object parameter : parameters) {
+			if(parameter instanceof InputStream || parameter instanceof Reader) {
+				values.add("<" + parameter.getClass().getSimpleName() + ">");
+			} else {
+				String value=String.valueOf(parameter);
+				values.add(value.length() > MAX_LOGGED_VALUE_LENGTH ? value.substring(0, MAX_LOGGED_VALUE_LENGTH) + "..." : value);
+			}
+		}
+		return values;
+	}
+
+	private static final class ResultSetHandler implements InvocationHandler {
+
+		private final ResultSet target;
+
+		private final SqlStatistics statistics;
+
+		private ResultSetHandler(ResultSet target, SqlStatistics statistics) {
+			this.target=target;
+			this.statistics=statistics;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if(isCommon(method)) {
+				return handleCommon(proxy, target, method, args);
+			}
+			Object result=SqlRecordingDataSource.invoke(target, method, args);
+			if(method.getName().equals("next") && (boolean) result) {
+				statistics.rowRead();
+			}
+			return result;
+		}
+
+	}
+
+}
@@ -0,0 +1,105 @@
+package net.javaguides.springboot.sql;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The SQL run on one thread between {@link #open()} and closing the returned
+ * scope: statements executed, rows read from their result sets and the time
+ * spent executing them, as seen by {@link SqlRecordingDataSource}. Statements
+ * run on other threads, such as the writer of a streamed response, are not
+ * included.
+ */
+public final class SqlStatistics {
+
+	private static final ThreadLocal<SqlStatistics> CURRENT=new ThreadLocal<>();
+
+	/** Statements whose text is kept for messages; the counts go on past it. */
+	private static final int MAX_KEPT_STATEMENTS=50;
+
+	private int statements;
+
+	private int slowStatements;
+
+	private long rows;
+
+	private long jdbcNanos;
+
+	private final List<String> sql=new ArrayList<>();
+
+	/**
+	 * Collects until the scope is closed, nested in the statistics already
+	 * collecting on this thread if any, which then miss what this one records.
+	 */
+	public static Scope open() {
+		SqlStatistics statistics=new SqlStatistics();
+		SqlStatistics previous=CURRENT.get();
+		CURRENT.set(statistics);
+		return new Scope(statistics, previous);
+	}
+
+	/** The statistics collecting on this thread, or null. */
+	static SqlStatistics current() {
+		return CURRENT.get();
+	}
+
+	void statementExecuted(String statement, long nanos, boolean slow) {
+		statements++;
+		jdbcNanos+=nanos;
+		if(slow) {
+			slowStatements++;
+		}
+		if(sql.size() < MAX_KEPT_STATEMENTS) {
+			sql.add(statement);
+		}
+	}
+
+	void rowRead() {
+		rows++;
+	}
+
+	/** A batch counts as one statement. */
+	public int getStatements() {
+		return statements;
+	}
+
+	public int getSlowStatements() {
+		return slowStatements;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	/** Time spent in the execute calls, not in reading the rows afterwards. */
+	public Duration getJdbcTime() {
+		return Duration.ofNanos(jdbcNanos);
+	}
+
+	/** The text of the statements in the order run, up to the first 50. */
+	public List<String> getSql() {
+		return Collections.unmodifiableList(sql);
+	}
+
+	@Override
+	public String toString() {
+		return statements + " statements, " + rows + " rows, " + getJdbcTime().toNanos() / 1_000_000.0 + " ms: " + sql;
+	}
+
+	/** Stops collecting on this thread when closed. */
+	public record Scope(SqlStatistics statistics, SqlStatistics previous) implements AutoCloseable {
+
+		@Override
+		public void close() {
+			if(previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+
+	}
+
+}
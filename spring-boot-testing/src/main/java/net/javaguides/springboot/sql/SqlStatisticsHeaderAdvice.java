@@ -0,0 +1,56 @@
+package net.javaguides.springboot.sql;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import net.javaguides.springboot.controller.EmployeeController;
+
+/**
+ * Reports the {@link SqlStatistics} of the request in response headers, for
+ * looking at a single request during development; on with
+ * {@code app.sql.statistics.headers=true}, which the {@code dev} profile sets.
+ * The headers go out with the body, so they leave out anything run while it
+ * is written, and responses without a body get none.
+ * <ul>
+ * <li>{@code X-Sql-Statements}: statements executed</li>
+ * <li>{@code X-Sql-Rows}: rows read</li>
+ * <li>{@code X-Sql-Time}: milliseconds spent executing</li>
+ * </ul>
+ */
+@ControllerAdvice(assignableTypes=EmployeeController.class)
+@Profile("!reactive")
+@ConditionalOnProperty(name="app.sql.statistics.headers", havingValue="true")
+public class SqlStatisticsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+	public static final String STATEMENTS_HEADER="X-Sql-Statements";
+
+	public static final String ROWS_HEADER="X-Sql-Rows";
+
+	public static final String TIME_HEADER="X-Sql-Time";
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+		if(request instanceof ServletServerHttpRequest servletRequest
+				&& servletRequest.getServletRequest().getAttribute(SqlStatisticsInterceptor.ATTRIBUTE) instanceof SqlStatistics statistics) {
+			response.getHeaders().set(STATEMENTS_HEADER, Integer.toString(statistics.getStatements()));
+			response.getHeaders().set(ROWS_HEADER, Long.toString(statistics.getRows()));
+			response.getHeaders().set(TIME_HEADER, Double.toString(statistics.getJdbcTime().toNanos() / 1_000_000.0));
+		}
+		return body;
+	}
+
+}
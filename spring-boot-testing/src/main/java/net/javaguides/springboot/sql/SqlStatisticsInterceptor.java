@@ -0,0 +1,135 @@
+package net.javaguides.springboot.sql;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.javaguides.springboot.metrics.MetricGroup;
+import net.javaguides.springboot.metrics.MetricGroups;
+
+/**
+ * Collects {@link SqlStatistics} for each request handled by one of the given
+ * controllers and leaves them in the {@link #ATTRIBUTE} request attribute.
+ * <p>
+ * With the {@link MetricGroup#SQL} group on, each request is recorded by
+ * {@code method} and {@code uri} in:
+ * <ul>
+ * <li>{@code employee.request.sql.statements}: statements executed</li>
+ * <li>{@code employee.request.sql.rows}: rows read</li>
+ * <li>{@code employee.request.sql.time}: time spent executing</li>
+ * <li>{@code employee.request.sql.slow}: statements over the slow threshold</li>
+ * <li>{@code employee.request.sql.over.budget}: requests that ran more
+ * statements than the budget of their endpoint, which are also logged</li>
+ * </ul>
+ * An endpoint is the HTTP method and the mapped path pattern, such as
+ * {@code GET /api/employees/{id}}. For a streamed response only the
+ * statements run before streaming started are counted. The names stay out of
+ * {@code http.server.requests}, whose percentile histogram setting would
+ * otherwise apply to them too.
+ */
+public class SqlStatisticsInterceptor implements AsyncHandlerInterceptor {
+
+	public static final String ATTRIBUTE=SqlStatistics.class.getName();
+
+	private static final String SCOPE=SqlStatisticsInterceptor.class.getName() + ".scope";
+
+	private static final Logger log=LoggerFactory.getLogger(SqlStatisticsInterceptor.class);
+
+	private final Set<Class<?>> controllers;
+
+	private final Map<String, Integer> budgets;
+
+	private final MeterRegistry meterRegistry;
+
+	private final MetricGroups metricGroups;
+
+	/**
+	 * @param budgets most statements a request may run, by endpoint
+	 */
+	public SqlStatisticsInterceptor(Set<Class<?>> controllers, Map<String, Integer> budgets, MeterRegistry meterRegistry,
+			MetricGroups metricGroups) {
+		this.controllers=Set.copyOf(controllers);
+		this.budgets=Map.copyOf(budgets);
+		this.meterRegistry=meterRegistry;
+		this.metricGroups=metricGroups;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if(request.getDispatcherType() == DispatcherType.ASYNC || !isTracked(handler)) {
+			return true;
+		}
+		SqlStatistics.Scope scope=SqlStatistics.open();
+		request.setAttribute(ATTRIBUTE, scope.statistics());
+		request.setAttribute(SCOPE, scope);
+		return true;
+	}
+
+	/** The thread goes back to the pool, so it stops collecting here. */
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		closeScope(request);
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		closeScope(request);
+		// an error dispatch goes to another handler and is not recorded again
+		if(isTracked(handler) && request.getAttribute(ATTRIBUTE) instanceof SqlStatistics statistics) {
+			record(request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), statistics);
+		}
+	}
+
+	private boolean isTracked(Object handler) {
+		return handler instanceof HandlerMethod handlerMethod && controllers.contains(handlerMethod.getBeanType());
+	}
+
+	private static void closeScope(HttpServletRequest request) {
+		if(request.getAttribute(SCOPE) instanceof SqlStatistics.Scope scope) {
+			request.removeAttribute(SCOPE);
+			scope.close();
+		}
+	}
+
+	private void record(String endpoint, SqlStatistics statistics) {
+		Integer budget=budgets.get(endpoint);
+		boolean overBudget=budget != null && statistics.getStatements() > budget;
+		if(overBudget) {
+			log.warn("{} ran {} SQL statements, over its budget of {}: {}", endpoint, statistics.getStatements(), budget,
+					statistics.getSql());
+		}
+		if(!metricGroups.isEnabled(MetricGroup.SQL)) {
+			return;
+		}
+		int space=endpoint.indexOf(' ');
+		Tags tags=Tags.of("method", endpoint.substring(0, space), "uri", endpoint.substring(space + 1));
+		DistributionSummary.builder("employee.request.sql.statements").tags(tags).register(meterRegistry)
+				.record(statistics.getStatements());
+		DistributionSummary.builder("employee.request.sql.rows").tags(tags).register(meterRegistry)
+				.record(statistics.getRows());
+		Timer.builder("employee.request.sql.time").tags(tags).register(meterRegistry)
+				.record(statistics.getJdbcTime().toNanos(), TimeUnit.NANOSECONDS);
+		if(statistics.getSlowStatements() > 0) {
+			Counter.builder("employee.request.sql.slow").tags(tags).register(meterRegistry)
+					.increment(statistics.getSlowStatements());
+		}
+		if(overBudget) {
+			Counter.builder("employee.request.sql.over.budget").tags(tags).register(meterRegistry).increment();
+		}
+	}
+
+}
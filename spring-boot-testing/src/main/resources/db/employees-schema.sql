@@ -0,0 +1,14 @@
+-- Schema for the reactive profile, which has no Hibernate to generate it, and
+-- for the prod profile, where Hibernate only validates it.
+-- Mirrors the mapping of net.javaguides.springboot.model.Employee.
+create sequence if not exists employees_seq start with 1 increment by 50;
+
+create table if not exists employees (
+	id bigint not null,
+	first_name varchar(255) not null,
+	last_name varchar(255) not null,
+	email varchar(255) not null,
+	version bigint default 0 not null,
+	primary key (id),
+	constraint uk_employees_email unique (email)
+);
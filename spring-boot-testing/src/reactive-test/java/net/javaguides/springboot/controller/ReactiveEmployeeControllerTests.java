@@ -0,0 +1,269 @@
+package net.javaguides.springboot.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import net.javaguides.springboot.config.ReactiveWireFormatConfig;
+import net.javaguides.springboot.config.WireFormatConfig;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.ReactiveEmployeeService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(ReactiveEmployeeController.class)
+@ActiveProfiles("reactive")
+@Import(ReactiveWireFormatConfig.class)
+public class ReactiveEmployeeControllerTests {
+	
+	@Autowired
+	private WebTestClient webTestClient;
+	
+	@MockBean
+	private ReactiveEmployeeService employeeService;
+	
+	@DisplayName("JUnit test for save employee method in Reactive Controller class")
+	@Test
+	public void testSaveEmployee() {
+		
+		Employee employee=new Employee(1L,"Chandra","Reddy","csranam@gmail.com");
+		when(employeeService.saveEmployee(any(Employee.class))).thenReturn(Mono.just(employee));
+		
+		webTestClient.post().uri("/api/employees")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(employee)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody()
+				.jsonPath("$.id").isEqualTo(1)
+				.jsonPath("$.email").isEqualTo("csranam@gmail.com");
+	}
+	
+	@DisplayName("JUnit test for save employee method in Reactive Controller class with a Smile body")
+	@Test
+	public void testSaveEmployeeFromSmile() throws Exception {
+		
+		Employee employee=new Employee(1L,"Chandra","Reddy","csranam@gmail.com");
+		ObjectMapper smileMapper=new ObjectMapper(new SmileFactory());
+		when(employeeService.saveEmployee(any(Employee.class))).thenReturn(Mono.just(employee));
+		
+		byte[] body=webTestClient.post().uri("/api/employees")
+				.contentType(WireFormatConfig.APPLICATION_SMILE)
+				.accept(WireFormatConfig.APPLICATION_SMILE)
+				.bodyValue(smileMapper.writeValueAsBytes(employee))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectHeader().contentType(WireFormatConfig.APPLICATION_SMILE)
+				.expectBody(byte[].class).returnResult().getResponseBody();
+		
+		assertEquals("csranam@gmail.com", smileMapper.readValue(body, Employee.class).getEmail());
+	}
+	
+	@DisplayName("JUnit test for get all employees method in Reactive Controller class as a JSON array")
+	@Test
+	public void testGetAllEmployees() {
+		
+		when(employeeService.getAllEmployees()).thenReturn(Flux.just(
+				new Employee(1L,"Chandra","Reddy","csranam@gmail.com"),
+				new Employee(2L,"Revathi","Vaka","revtishere@gmail.com")));
+		
+		webTestClient.get().uri("/api/allemployees")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(Employee.class).hasSize(2);
+	}
+	
+	@DisplayName("JUnit test for stream employees method in Reactive Controller class as NDJSON")
+	@Test
+	public void testStreamEmployeesAsNdjson() {
+		
+		when(employeeService.getAllEmployees()).thenReturn(Flux.just(
+				new Employee(1L,"Chandra","Reddy","csranam@gmail.com"),
+				new Employee(2L,"Revathi","Vaka","revtishere@gmail.com")));
+		
+		String body=webTestClient.get().uri("/api/employees/stream")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.expectBody(String.class).returnResult().getResponseBody();
+		
+		assertEquals(2, body.trim().split("\n").length);
+	}
+	
+	@DisplayName("JUnit test for stream employees method in Reactive Controller class as CBOR")
+	@Test
+	public void testStreamEmployeesAsCbor() throws Exception {
+		
+		when(employeeService.getAllEmployees()).thenReturn(Flux.just(
+				new Employee(1L,"Chandra","Reddy","csranam@gmail.com"),
+				new Employee(2L,"Revathi","Vaka","revtishere@gmail.com")));
+		
+		byte[] body=webTestClient.get().uri("/api/employees/stream")
+				.accept(MediaType.APPLICATION_CBOR)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentType(MediaType.APPLICATION_CBOR)
+				.expectBody(byte[].class).returnResult().getResponseBody();
+		
+		Employee[] employees=new ObjectMapper(new CBORFactory()).readValue(body, Employee[].class);
+		assertEquals(2, employees.length);
+		assertEquals("revtishere@gmail.com", employees[1].getEmail());
+	}
+	
+	@DisplayName("JUnit test for get employee page method in Reactive Controller class")
+	@Test
+	public void testGetEmployeePage() {
+		
+		when(employeeService.getEmployeePage(anyLong(), anyInt())).thenReturn(Mono.just(new EmployeePage<>(
+				List.of(new Employee(1L,"Chandra","Reddy","csranam@gmail.com")), 1L)));
+		
+		webTestClient.get().uri("/api/employees?afterId=0&limit=1")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.content.length()").isEqualTo(1)
+				.jsonPath("$.nextCursor").isEqualTo(1);
+	}
+	
+	@DisplayName("JUnit test for get employee by id method in Reactive Controller class as CBOR")
+	@Test
+	public void testGetEmployeeByIdAsCbor() throws Exception {
+		
+		Employee employee=new Employee(1L,"Chandra","Reddy","csranam@gmail.com");
+		employee.setVersion(0L);
+		when(employeeService.getEmployeeById(1L)).thenReturn(Mono.just(employee));
+		
+		byte[] body=webTestClient.get().uri("/api/employees/{id}", 1L)
+				.accept(MediaType.APPLICATION_CBOR)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentType(MediaType.APPLICATION_CBOR)
+				.expectBody(byte[].class).returnResult().getResponseBody();
+		
+		assertEquals("csranam@gmail.com", new ObjectMapper(new CBORFactory()).readValue(body, Employee.class).getEmail());
+	}
+	
+	@DisplayName("JUnit test for get employee by id method in Reactive Controller class when it does not exist")
+	@Test
+	public void testGetEmployeeByIdNotFound() {
+		
+		when(employeeService.getEmployeeById(1L)).thenReturn(Mono.empty());
+		
+		webTestClient.get().uri("/api/employees/{id}", 1L)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+	
+	@DisplayName("JUnit test for update employee method in Reactive Controller class")
+	@Test
+	public void testUpdateEmployee() {
+		
+		Employee updatedEmployee=new Employee(1L,"Ram","Reddy","ram@gmail.com");
+		when(employeeService.updateEmployee(eq(1L), any(Employee.class), isNull())).thenReturn(Mono.just(updatedEmployee));
+		
+		webTestClient.put().uri("/api/employees/{id}", 1L)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(updatedEmployee)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.firstName").isEqualTo("Ram");
+	}
+	
+	@DisplayName("JUnit test for update employee method in Reactive Controller class with a current If-Match")
+	@Test
+	public void testUpdateEmployeeIfMatch() {
+		
+		Employee updatedEmployee=new Employee(1L,"Ram","Reddy","ram@gmail.com");
+		updatedEmployee.setVersion(4L);
+		when(employeeService.updateEmployee(eq(1L), any(Employee.class), eq(3L))).thenReturn(Mono.just(updatedEmployee));
+		
+		webTestClient.put().uri("/api/employees/{id}", 1L)
+				.header(HttpHeaders.IF_MATCH, "\"3\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(updatedEmployee)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"4\"");
+	}
+	
+	@DisplayName("JUnit test for patch employee method in Reactive Controller class with a stale If-Match")
+	@Test
+	public void testPatchEmployeeStaleIfMatch() {
+		
+		when(employeeService.patchEmployee(eq(1L), any(Employee.class), eq(3L)))
+				.thenReturn(Mono.error(new OptimisticLockingFailureException("Employee 1 is no longer at version 3")));
+		
+		webTestClient.patch().uri("/api/employees/{id}", 1L)
+				.header(HttpHeaders.IF_MATCH, "\"3\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Employee.builder().email("ram@gmail.com").build())
+				.exchange()
+				.expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+	}
+	
+	@DisplayName("JUnit test for patch employee method in Reactive Controller class with a weak If-Match")
+	@Test
+	public void testPatchEmployeeWeakIfMatch() {
+		
+		webTestClient.patch().uri("/api/employees/{id}", 1L)
+				.header(HttpHeaders.IF_MATCH, "W/\"3\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Employee.builder().email("ram@gmail.com").build())
+				.exchange()
+				.expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+		verify(employeeService, never()).patchEmployee(anyLong(), any(Employee.class), any());
+	}
+	
+	@DisplayName("JUnit test for delete employee method in Reactive Controller class")
+	@Test
+	public void testDeleteEmployee() {
+		
+		when(employeeService.deleteEmployee(1L)).thenReturn(Mono.just(true));
+		
+		webTestClient.delete().uri("/api/employees/{id}", 1L)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("Employee deleted successfully");
+	}
+	
+	@DisplayName("JUnit test for delete employee method in Reactive Controller class -ve scenario")
+	@Test
+	public void testNegativeDeleteEmployee() {
+		
+		when(employeeService.deleteEmployee(1L)).thenReturn(Mono.just(false));
+		
+		webTestClient.delete().uri("/api/employees/{id}", 1L)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+}
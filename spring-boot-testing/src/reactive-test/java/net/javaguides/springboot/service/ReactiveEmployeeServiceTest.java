@@ -0,0 +1,161 @@
+package net.javaguides.springboot.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import net.javaguides.springboot.exception.ResourceNotFoundException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.ReactiveEmployeeRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveEmployeeServiceTest {
+	
+	@Mock
+	private ReactiveEmployeeRepository employeeRepository;
+	
+	@InjectMocks
+	private ReactiveEmployeeService employeeService;
+	
+	@DisplayName("JUnit test for reactive save employee method")
+	@Test
+	public void testSaveEmployee() {
+		
+		Employee employee=new Employee(5L,"Chandra","Reddy","csranam@gmail.com");
+		when(employeeRepository.save(employee)).thenReturn(Mono.just(employee));
+		
+		StepVerifier.create(employeeService.saveEmployee(employee))
+				.expectNextMatches(savedEmployee -> savedEmployee.getId() == 0L)
+				.verifyComplete();
+	}
+	
+	@DisplayName("JUnit test for reactive save employee method with a duplicate email")
+	@Test
+	public void testSaveEmployeeDuplicateEmail() {
+		
+		Employee employee=new Employee(1L,"Chandra","Reddy","csranam@gmail.com");
+		when(employeeRepository.save(employee)).thenReturn(Mono.error(new DuplicateKeyException(
+				"duplicate key value violates unique constraint \"uk_employees_email\"")));
+		
+		StepVerifier.create(employeeService.saveEmployee(employee))
+				.expectError(ResourceNotFoundException.class)
+				.verify();
+	}
+	
+	@DisplayName("JUnit test for reactive get employee page method")
+	@Test
+	public void testGetEmployeePage() {
+		
+		when(employeeRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenReturn(Flux.just(
+				new Employee(1L,"Chandra","Reddy","csranam@gmail.com"),
+				new Employee(2L,"Revathi","Vaka","revtishere@gmail.com"),
+				new Employee(3L,"Duckie","Anam","duckie@gmail.com")));
+		
+		StepVerifier.create(employeeService.getEmployeePage(0L, 2))
+				.expectNextMatches(page -> page.getContent().size() == 2 && page.getNextCursor() == 2L)
+				.verifyComplete();
+	}
+	
+	@DisplayName("JUnit test for reactive update employee method")
+	@Test
+	public void testUpdateEmployee() {
+		
+		when(employeeRepository.updateById(1L, "Ram", "Reddy", "ram@gmail.com")).thenReturn(Mono.just(1));
+		
+		StepVerifier.create(employeeService.updateEmployee(1L, new Employee(0L,"Ram","Reddy","ram@gmail.com"), null))
+				.expectNextMatches(employee -> employee.getId() == 1L && employee.getEmail().equals("ram@gmail.com"))
+				.verifyComplete();
+		
+		verify(employeeRepository, never()).findById(anyLong());
+	}
+	
+	@DisplayName("JUnit test for reactive update employee method when the employee does not exist")
+	@Test
+	public void testUpdateEmployeeNotFound() {
+		
+		when(employeeRepository.updateById(1L, "Ram", "Reddy", "ram@gmail.com")).thenReturn(Mono.just(0));
+		
+		StepVerifier.create(employeeService.updateEmployee(1L, new Employee(0L,"Ram","Reddy","ram@gmail.com"), null))
+				.verifyComplete();
+	}
+	
+	@DisplayName("JUnit test for reactive update employee method at the expected version")
+	@Test
+	public void testUpdateEmployeeAtVersion() {
+		
+		when(employeeRepository.updateByIdAndVersion(1L, 3L, "Ram", "Reddy", "ram@gmail.com")).thenReturn(Mono.just(1));
+		
+		StepVerifier.create(employeeService.updateEmployee(1L, new Employee(0L,"Ram","Reddy","ram@gmail.com"), 3L))
+				.expectNextMatches(employee -> employee.getVersion() == 4L)
+				.verifyComplete();
+	}
+	
+	@DisplayName("JUnit test for reactive update employee method at a stale version")
+	@Test
+	public void testUpdateEmployeeStaleVersion() {
+		
+		when(employeeRepository.updateByIdAndVersion(1L, 3L, "Ram", "Reddy", "ram@gmail.com")).thenReturn(Mono.just(0));
+		when(employeeRepository.existsById(1L)).thenReturn(Mono.just(true));
+		
+		StepVerifier.create(employeeService.updateEmployee(1L, new Employee(0L,"Ram","Reddy","ram@gmail.com"), 3L))
+				.expectError(OptimisticLockingFailureException.class)
+				.verify();
+	}
+	
+	@DisplayName("JUnit test for reactive patch employee method at the expected version of a missing employee")
+	@Test
+	public void testPatchEmployeeAtVersionNotFound() {
+		
+		when(employeeRepository.updateNonNullByIdAndVersion(2L, 3L, null, null, "ram@gmail.com")).thenReturn(Mono.just(0));
+		when(employeeRepository.existsById(2L)).thenReturn(Mono.just(false));
+		
+		StepVerifier.create(employeeService.patchEmployee(2L, Employee.builder().email("ram@gmail.com").build(), 3L))
+				.expectNext(false)
+				.verifyComplete();
+	}
+	
+	@DisplayName("JUnit test for reactive patch employee method")
+	@Test
+	public void testPatchEmployee() {
+		
+		when(employeeRepository.updateNonNullById(1L, null, null, "ram@gmail.com")).thenReturn(Mono.just(1));
+		when(employeeRepository.updateNonNullById(2L, null, null, "ram@gmail.com")).thenReturn(Mono.just(0));
+		
+		Employee changes=Employee.builder().email("ram@gmail.com").build();
+		
+		StepVerifier.create(employeeService.patchEmployee(1L, changes, null)).expectNext(true).verifyComplete();
+		StepVerifier.create(employeeService.patchEmployee(2L, changes, null)).expectNext(false).verifyComplete();
+	}
+	
+	@DisplayName("JUnit test for reactive get all employees method")
+	@Test
+	public void testGetAllEmployees() {
+		
+		when(employeeRepository.findAll(any(Sort.class))).thenReturn(Flux.fromIterable(List.of(
+				new Employee(1L,"Chandra","Reddy","csranam@gmail.com"),
+				new Employee(2L,"Revathi","Vaka","revtishere@gmail.com"))));
+		
+		StepVerifier.create(employeeService.getAllEmployees())
+				.expectNextCount(2)
+				.verifyComplete();
+	}
+
+}
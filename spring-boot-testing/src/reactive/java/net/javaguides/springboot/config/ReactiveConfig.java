@@ -0,0 +1,45 @@
+package net.javaguides.springboot.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.relational.core.mapping.NamingStrategy;
+
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Infrastructure for the {@code reactive} profile, which serves the API with
+ * WebFlux and R2DBC instead of Spring MVC and JPA.
+ * <p>
+ * Tomcat is also on the classpath and would otherwise be picked as the reactive
+ * server; Netty is declared explicitly so requests run on its small, fixed set of
+ * event-loop threads.
+ */
+@Configuration(proxyBeanMethods=false)
+@Profile("reactive")
+public class ReactiveConfig {
+
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+	/**
+	 * Maps {@link Employee} to its table. R2DBC does not read the entity's JPA
+	 * {@code @Table}, and the servlet build has no Spring Data Relational for an
+	 * annotation of its own; columns keep the default snake-case names.
+	 */
+	@Bean
+	public NamingStrategy namingStrategy() {
+		return new NamingStrategy() {
+
+			@Override
+			public String getTableName(Class<?> type) {
+				return type == Employee.class ? Employee.TABLE_NAME : NamingStrategy.super.getTableName(type);
+			}
+
+		};
+	}
+
+}
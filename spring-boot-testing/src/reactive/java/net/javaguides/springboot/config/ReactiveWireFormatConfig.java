@@ -0,0 +1,88 @@
+package net.javaguides.springboot.config;
+
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link WireFormatConfig}: the Smile and CBOR codecs,
+ * built from the same mappers as the servlet stack's converters.
+ */
+@Configuration(proxyBeanMethods=false)
+@Profile("reactive")
+public class ReactiveWireFormatConfig {
+
+	/**
+	 * The media types are given explicitly, as these codecs fall back to the
+	 * JSON ones without them. Custom writers are asked before the default ones,
+	 * so a JSON encoder is registered ahead of CBOR to keep JSON the answer when
+	 * {@code Accept} allows any type. Smile has a default slot after JSON and
+	 * takes that instead.
+	 */
+	@Bean
+	public CodecCustomizer binaryCodecCustomizer(Jackson2ObjectMapperBuilder builder, ObjectMapper objectMapper) {
+		ObjectMapper smileMapper=WireFormatConfig.smileMapper(builder);
+		ObjectMapper cborMapper=WireFormatConfig.cborMapper(builder);
+		return configurer -> {
+			configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, WireFormatConfig.APPLICATION_SMILE));
+			configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, WireFormatConfig.APPLICATION_SMILE));
+			configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+			configurer.customCodecs().register(new SingleValueCborEncoder(cborMapper));
+			configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+		};
+	}
+
+	/**
+	 * Spring's CBOR encoder only implements {@code encodeValue} and rejects every
+	 * publisher in {@code encode}, which is what the WebFlux writers call. A
+	 * {@code Mono} is written as its value. A {@code Flux} is written as an
+	 * indefinite-length array, one element at a time between the start and break
+	 * bytes, so a list response is not buffered whole before it is sent.
+	 */
+	static final class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+		private static final byte START_INDEFINITE_ARRAY=(byte) 0x9F;
+
+		private static final byte BREAK=(byte) 0xFF;
+
+		SingleValueCborEncoder(ObjectMapper mapper) {
+			super(mapper, MediaType.APPLICATION_CBOR);
+		}
+
+		@Override
+		public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+				ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+			if(inputStream instanceof Mono) {
+				return Mono.from(inputStream)
+						.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+						.flux();
+			}
+			return Flux.concat(
+					Mono.fromCallable(() -> bufferFactory.wrap(new byte[] {START_INDEFINITE_ARRAY})),
+					Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)),
+					Mono.fromCallable(() -> bufferFactory.wrap(new byte[] {BREAK})));
+		}
+	}
+
+}
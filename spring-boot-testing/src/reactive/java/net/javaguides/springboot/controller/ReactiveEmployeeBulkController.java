@@ -0,0 +1,57 @@
+package net.javaguides.springboot.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import net.javaguides.springboot.dto.BulkResponse;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.ReactiveEmployeeBulkService;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/employees/bulk")
+@Profile("reactive")
+public class ReactiveEmployeeBulkController {
+
+	@Autowired
+	private ReactiveEmployeeBulkService employeeBulkService;
+
+	@Value("${app.employees.bulk.max-size:10000}")
+	private int maxBulkSize;
+
+	@PostMapping
+	public Mono<ResponseEntity<BulkResponse>> saveEmployees(@RequestBody List<Employee> employees) {
+		if(employees.size() > maxBulkSize) {
+			return Mono.just(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+		}
+		return employeeBulkService.saveEmployees(employees).map(ResponseEntity::ok);
+	}
+
+	@PutMapping
+	public Mono<ResponseEntity<BulkResponse>> updateEmployees(@RequestBody List<Employee> employees) {
+		if(employees.size() > maxBulkSize) {
+			return Mono.just(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+		}
+		return employeeBulkService.updateEmployees(employees).map(ResponseEntity::ok);
+	}
+
+	@DeleteMapping
+	public Mono<ResponseEntity<BulkResponse>> deleteEmployees(@RequestBody List<Long> employeeIds) {
+		if(employeeIds.size() > maxBulkSize) {
+			return Mono.just(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+		}
+		return employeeBulkService.deleteEmployees(employeeIds).map(ResponseEntity::ok);
+	}
+
+}
@@ -0,0 +1,129 @@
+package net.javaguides.springboot.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.ReactiveEmployeeService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@link EmployeeController} contract served with WebFlux. List endpoints
+ * return a {@link Flux} that is encoded as it is emitted, as a JSON array or,
+ * for {@code Accept: application/x-ndjson}, one employee per line, with the
+ * connection's write demand pacing the database reads.
+ */
+@RestController
+@RequestMapping("/api")
+@Profile("reactive")
+public class ReactiveEmployeeController {
+
+	@Autowired
+	private ReactiveEmployeeService employeeService;
+
+	@Value("${app.employees.page.max-limit:1000}")
+	private int maxPageLimit;
+
+	@PostMapping("/employees")
+	@ResponseStatus(HttpStatus.CREATED)
+	public Mono<Employee> saveEmployee(@RequestBody Employee employee) {
+		return employeeService.saveEmployee(employee);
+	}
+
+	@GetMapping(value="/allemployees", produces={MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+	public Flux<Employee> getAllEmployees() {
+		return employeeService.getAllEmployees();
+	}
+
+	@GetMapping("/employees")
+	public Mono<EmployeePage<Employee>> getEmployeePage(@RequestParam(value="afterId", defaultValue="0") long afterId,
+			@RequestParam(value="limit", defaultValue="100") int limit) {
+		return employeeService.getEmployeePage(afterId, Math.max(1, Math.min(limit, maxPageLimit)));
+	}
+
+	@GetMapping(value="/employees/stream", produces={MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+	public Flux<Employee> streamEmployees() {
+		return employeeService.getAllEmployees();
+	}
+
+	/** Sends the version as the {@code ETag}, so a matching {@code If-None-Match} is answered with 304 and no body. */
+	@GetMapping("/employees/{id}")
+	public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") long employeeId){
+		return employeeService.getEmployeeById(employeeId)
+				.map(employee -> ResponseEntity.ok().eTag(EmployeeController.etag(employee.getVersion())).body(employee))
+				.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	@GetMapping("/employees/by-email")
+	public Mono<ResponseEntity<Employee>> getEmployeeByEmail(@RequestParam("email") String email){
+		return employeeService.getEmployeeByEmail(email)
+				.map(ResponseEntity::ok)
+				.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	/** Takes {@code If-Match} like {@link EmployeeController#updateEmployeeById}. */
+	@PutMapping("/employees/{id}")
+	public Mono<ResponseEntity<Employee>> updateEmployeeById(@PathVariable("id") long employeeId, @RequestBody Employee employee,
+			@RequestHeader(value=HttpHeaders.IF_MATCH, required=false) String ifMatch){
+		Long expectedVersion=EmployeeController.expectedVersion(ifMatch);
+		return employeeService.updateEmployee(employeeId, employee, expectedVersion)
+				.map(updatedEmployee -> expectedVersion == null
+						? ResponseEntity.ok(updatedEmployee)
+						: ResponseEntity.ok().eTag(EmployeeController.etag(updatedEmployee.getVersion())).body(updatedEmployee))
+				.onErrorMap(OptimisticLockingFailureException.class, ReactiveEmployeeController::preconditionFailed)
+				.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	/** Takes {@code If-Match} like {@link EmployeeController#patchEmployeeById}. */
+	@PatchMapping("/employees/{id}")
+	public Mono<ResponseEntity<Void>> patchEmployeeById(@PathVariable("id") long employeeId, @RequestBody Employee employee,
+			@RequestHeader(value=HttpHeaders.IF_MATCH, required=false) String ifMatch){
+		Long expectedVersion=EmployeeController.expectedVersion(ifMatch);
+		return employeeService.patchEmployee(employeeId, employee, expectedVersion)
+				.map(updated -> {
+					if(!updated) {
+						return ResponseEntity.notFound().<Void>build();
+					}
+					if(expectedVersion == null) {
+						return ResponseEntity.noContent().<Void>build();
+					}
+					// the update moved the employee from the expected version to the next
+					return ResponseEntity.noContent().eTag(EmployeeController.etag(expectedVersion + 1)).<Void>build();
+				})
+				.onErrorMap(OptimisticLockingFailureException.class, ReactiveEmployeeController::preconditionFailed);
+	}
+
+	private static Throwable preconditionFailed(OptimisticLockingFailureException e) {
+		return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage(), e);
+	}
+
+	@DeleteMapping("/employees/{id}")
+	public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable("id") long employeeId){
+		return employeeService.deleteEmployee(employeeId)
+				.map(deleted -> deleted
+						? new ResponseEntity<String>("Employee deleted successfully",HttpStatus.OK)
+						: ResponseEntity.notFound().<String>build());
+	}
+
+}
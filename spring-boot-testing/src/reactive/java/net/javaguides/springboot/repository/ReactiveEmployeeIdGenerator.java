@@ -0,0 +1,75 @@
+package net.javaguides.springboot.repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import net.javaguides.springboot.model.Employee;
+import reactor.core.publisher.Mono;
+
+/**
+ * Assigns ids to new employees saved through {@link ReactiveEmployeeRepository}.
+ * The id column has no database default, so ids come from the same sequence
+ * Hibernate uses and with the same pooled-lo scheme: a sequence value {@code lo}
+ * reserves {@code lo .. lo + ID_ALLOCATION_SIZE - 1}, which costs one sequence
+ * call per block rather than per row and never overlaps a block taken by the
+ * servlet side.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveEmployeeIdGenerator implements BeforeConvertCallback<Employee> {
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	private final AtomicReference<IdBlock> block=new AtomicReference<>();
+
+	@Override
+	public Mono<Employee> onBeforeConvert(Employee employee, SqlIdentifier table) {
+		if(employee.getId() != 0L) {
+			return Mono.just(employee);
+		}
+		return nextId().map(id -> {
+			employee.setId(id);
+			return employee;
+		});
+	}
+
+	Mono<Long> nextId() {
+		IdBlock current=block.get();
+		if(current != null) {
+			long id=current.next.getAndIncrement();
+			if(id < current.limit) {
+				return Mono.just(id);
+			}
+		}
+		// concurrent callers may each fetch a block; the ones not kept are simply skipped
+		return databaseClient.sql("select nextval('" + Employee.ID_SEQUENCE + "')")
+				.map(row -> row.get(0, Long.class))
+				.one()
+				.map(lo -> {
+					block.set(new IdBlock(lo + 1, lo + Employee.ID_ALLOCATION_SIZE));
+					return lo;
+				});
+	}
+
+	private static final class IdBlock {
+
+		private final AtomicLong next;
+
+		private final long limit;
+
+		private IdBlock(long next, long limit) {
+			this.next=new AtomicLong(next);
+			this.limit=limit;
+		}
+
+	}
+
+}
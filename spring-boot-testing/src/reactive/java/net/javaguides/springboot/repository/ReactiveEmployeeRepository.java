@@ -0,0 +1,67 @@
+package net.javaguides.springboot.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+
+import net.javaguides.springboot.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the {@code employees} table for the reactive profile.
+ * The schema comes from {@code db/employees-schema.sql}; new rows get their ids from
+ * {@link ReactiveEmployeeIdGenerator}.
+ */
+public interface ReactiveEmployeeRepository extends R2dbcRepository<Employee,Long>{
+
+	Mono<Employee> findByEmail(String email);
+
+	Flux<Employee> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+
+	@Query("select email from employees where email in (:emails)")
+	Flux<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+	@Query("select id from employees where id in (:ids)")
+	Flux<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+	@Modifying
+	@Query("update employees set first_name = :firstName, last_name = :lastName, email = :email,"
+			+ " version = version + 1 where id = :id")
+	Mono<Integer> updateById(@Param("id") long id, @Param("firstName") String firstName,
+			@Param("lastName") String lastName, @Param("email") String email);
+
+	@Modifying
+	@Query("update employees set first_name = coalesce(:firstName, first_name), last_name = coalesce(:lastName, last_name),"
+			+ " email = coalesce(:email, email), version = version + 1 where id = :id")
+	Mono<Integer> updateNonNullById(@Param("id") long id, @Param("firstName") String firstName,
+			@Param("lastName") String lastName, @Param("email") String email);
+
+	/** {@link #updateById} that only applies while the row is at {@code version}. */
+	@Modifying
+	@Query("update employees set first_name = :firstName, last_name = :lastName, email = :email,"
+			+ " version = version + 1 where id = :id and version = :version")
+	Mono<Integer> updateByIdAndVersion(@Param("id") long id, @Param("version") long version,
+			@Param("firstName") String firstName, @Param("lastName") String lastName, @Param("email") String email);
+
+	/** {@link #updateNonNullById} that only applies while the row is at {@code version}. */
+	@Modifying
+	@Query("update employees set first_name = coalesce(:firstName, first_name), last_name = coalesce(:lastName, last_name),"
+			+ " email = coalesce(:email, email), version = version + 1 where id = :id and version = :version")
+	Mono<Integer> updateNonNullByIdAndVersion(@Param("id") long id, @Param("version") long version,
+			@Param("firstName") String firstName, @Param("lastName") String lastName, @Param("email") String email);
+
+	/** Like {@code deleteById}, but tells whether there was a row to delete. */
+	@Modifying
+	@Query("delete from employees where id = :id")
+	Mono<Integer> deleteEmployeeById(@Param("id") long id);
+
+	@Modifying
+	@Query("delete from employees where id in (:ids)")
+	Mono<Long> deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+}
@@ -0,0 +1,156 @@
+package net.javaguides.springboot.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import net.javaguides.springboot.dto.BulkItemResult;
+import net.javaguides.springboot.dto.BulkItemResult.Status;
+import net.javaguides.springboot.dto.BulkResponse;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.ReactiveEmployeeRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeBulkService}: the same per-item
+ * results, with lookups as chunked IN queries and each request in one
+ * transaction.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeBulkService {
+
+	@Autowired
+	private ReactiveEmployeeRepository employeeRepository;
+
+	@Transactional
+	public Mono<BulkResponse> saveEmployees(List<Employee> employees) {
+		Set<String> emails=new HashSet<>();
+		for(Employee employee : employees) {
+			if(EmployeeBulkService.isComplete(employee)) {
+				emails.add(employee.getEmail());
+			}
+		}
+		return inChunks(emails, employeeRepository::findExistingEmails)
+				.collect(HashSet<String>::new, Set::add)
+				.flatMap(existingEmails -> {
+					BulkItemResult[] results=new BulkItemResult[employees.size()];
+					Set<String> acceptedEmails=new HashSet<>();
+					List<Employee> accepted=new ArrayList<>();
+					List<Integer> acceptedIndexes=new ArrayList<>();
+					for(int i=0; i < employees.size(); i++) {
+						Employee employee=employees.get(i);
+						if(!EmployeeBulkService.isComplete(employee)) {
+							results[i]=new BulkItemResult(i, null, Status.INVALID, EmployeeBulkService.REQUIRED_FIELDS_MESSAGE);
+						} else if(existingEmails.contains(employee.getEmail()) || !acceptedEmails.add(employee.getEmail())) {
+							results[i]=new BulkItemResult(i, null, Status.DUPLICATE,
+									"Employee already exist with given email:" +employee.getEmail());
+						} else {
+							employee.setId(0L);
+							accepted.add(employee);
+							acceptedIndexes.add(i);
+						}
+					}
+					return employeeRepository.saveAll(accepted)
+							.index()
+							.doOnNext(saved -> {
+								int index=acceptedIndexes.get(saved.getT1().intValue());
+								results[index]=new BulkItemResult(index, saved.getT2().getId(), Status.CREATED, null);
+							})
+							.then(Mono.fromSupplier(() -> BulkResponse.of(Arrays.asList(results))));
+				});
+	}
+
+	/**
+	 * Rows whose email is taken, see {@link EmployeeBulkService.EmailClaims},
+	 * are reported as {@code DUPLICATE}.
+	 */
+	@Transactional
+	public Mono<BulkResponse> updateEmployees(List<Employee> employees) {
+		Set<Long> ids=new HashSet<>();
+		Set<String> emails=new HashSet<>();
+		for(Employee employee : employees) {
+			if(employee != null) {
+				ids.add(employee.getId());
+			}
+			if(EmployeeBulkService.isComplete(employee)) {
+				emails.add(employee.getEmail());
+			}
+		}
+		return inChunks(ids, employeeRepository::findAllById)
+				.collectMap(Employee::getId)
+				// after the ids, as both run on the transaction's connection
+				.zipWhen(savedEmployees -> inChunks(emails, employeeRepository::findExistingEmails).collectList())
+				.flatMap(loaded -> {
+					Map<Long, Employee> savedEmployees=loaded.getT1();
+					EmployeeBulkService.EmailClaims emailClaims=new EmployeeBulkService.EmailClaims(loaded.getT2(),
+							savedEmployees.values());
+					List<BulkItemResult> results=new ArrayList<>(employees.size());
+					Map<Long, Employee> changed=new HashMap<>();
+					for(int i=0; i < employees.size(); i++) {
+						Employee employee=employees.get(i);
+						if(!EmployeeBulkService.isComplete(employee)) {
+							results.add(new BulkItemResult(i, null, Status.INVALID, EmployeeBulkService.REQUIRED_FIELDS_MESSAGE));
+							continue;
+						}
+						Employee savedEmployee=savedEmployees.get(employee.getId());
+						if(savedEmployee == null) {
+							results.add(new BulkItemResult(i, employee.getId(), Status.NOT_FOUND, null));
+							continue;
+						}
+						if(!emailClaims.claim(employee.getId(), employee.getEmail())) {
+							results.add(new BulkItemResult(i, employee.getId(), Status.DUPLICATE,
+									"Employee already exist with given email:" +employee.getEmail()));
+							continue;
+						}
+						savedEmployee.setFirstName(employee.getFirstName());
+						savedEmployee.setLastName(employee.getLastName());
+						savedEmployee.setEmail(employee.getEmail());
+						changed.put(savedEmployee.getId(), savedEmployee);
+						results.add(new BulkItemResult(i, employee.getId(), Status.UPDATED, null));
+					}
+					return employeeRepository.saveAll(changed.values()).then(Mono.just(BulkResponse.of(results)));
+				});
+	}
+
+	@Transactional
+	public Mono<BulkResponse> deleteEmployees(List<Long> ids) {
+		return inChunks(new HashSet<>(ids), employeeRepository::findExistingIds)
+				.collect(HashSet<Long>::new, Set::add)
+				.flatMap(existingIds -> inChunks(existingIds, employeeRepository::deleteAllByIdIn)
+						.then(Mono.fromSupplier(() -> {
+							Set<Long> deletedIds=new HashSet<>();
+							List<BulkItemResult> results=new ArrayList<>(ids.size());
+							for(int i=0; i < ids.size(); i++) {
+								Long id=ids.get(i);
+								Status status=existingIds.contains(id) && deletedIds.add(id) ? Status.DELETED : Status.NOT_FOUND;
+								results.add(new BulkItemResult(i, id, status, null));
+							}
+							return BulkResponse.of(results);
+						})));
+	}
+
+	/**
+	 * Runs {@code query} once per {@link EmployeeBulkService#IN_CLAUSE_CHUNK_SIZE}
+	 * values, one chunk after the other.
+	 */
+	static <T, R> Flux<R> inChunks(Collection<T> values, Function<List<T>, ? extends Publisher<R>> query) {
+		return Flux.fromIterable(values)
+				.buffer(EmployeeBulkService.IN_CLAUSE_CHUNK_SIZE)
+				.concatMap(query);
+	}
+
+}
@@ -0,0 +1,139 @@
+package net.javaguides.springboot.service;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.exception.ResourceNotFoundException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.ReactiveEmployeeRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeService} for the reactive profile.
+ * Same rules and error messages; an empty {@link Mono} stands in for an empty
+ * {@code Optional}.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeService {
+
+	@Autowired
+	private ReactiveEmployeeRepository employeeRepository;
+
+	public Mono<Employee> saveEmployee(Employee employee) {
+		employee.setId(0L);
+		return employeeRepository.save(employee)
+				.onErrorMap(DataIntegrityViolationException.class, e -> duplicateEmailOr(e, employee));
+	}
+
+	/**
+	 * Emits the whole table in id order as rows arrive from the driver; demand
+	 * from the subscriber is what pulls further rows.
+	 */
+	public Flux<Employee> getAllEmployees() {
+		return employeeRepository.findAll(Sort.by("id"));
+	}
+
+	public Mono<EmployeePage<Employee>> getEmployeePage(long afterId, int limit) {
+		return employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(limit + 1))
+				.collectList()
+				.map(employees -> {
+					if(employees.size() <= limit) {
+						return new EmployeePage<>(employees, null);
+					}
+					return new EmployeePage<>(employees.subList(0, limit), employees.get(limit - 1).getId());
+				});
+	}
+
+	public Mono<Employee> getEmployeeById(long Id) {
+		return employeeRepository.findById(Id);
+	}
+
+	public Mono<Employee> getEmployeeByEmail(String email) {
+		return employeeRepository.findByEmail(email);
+	}
+
+	/**
+	 * Overwrites the editable fields with one UPDATE; empty when there is no
+	 * employee with that id. With an expected version the new version is known
+	 * and set on the returned employee, and the update fails with an
+	 * {@link OptimisticLockingFailureException} when the employee is at another
+	 * version.
+	 *
+	 * @param expectedVersion when not null, the update only applies at that version
+	 */
+	public Mono<Employee> updateEmployee(long Id, Employee employee, Long expectedVersion) {
+		Mono<Integer> update=expectedVersion == null
+				? employeeRepository.updateById(Id, employee.getFirstName(), employee.getLastName(), employee.getEmail())
+				: employeeRepository.updateByIdAndVersion(Id, expectedVersion, employee.getFirstName(), employee.getLastName(),
+						employee.getEmail());
+		return update
+				.onErrorMap(DataIntegrityViolationException.class, e -> duplicateEmailOr(e, employee))
+				.flatMap(updated -> applied(updated, Id, expectedVersion))
+				.filter(applied -> applied)
+				.map(applied -> {
+					Employee replacedEmployee=new Employee(Id, employee.getFirstName(), employee.getLastName(), employee.getEmail());
+					if(expectedVersion != null) {
+						replacedEmployee.setVersion(expectedVersion + 1);
+					}
+					return replacedEmployee;
+				});
+	}
+
+	/**
+	 * Sets the non-null fields of {@code changes} with one UPDATE; emits false
+	 * when there is no employee with that id. Fails like {@link #updateEmployee}
+	 * on a version mismatch.
+	 *
+	 * @param expectedVersion when not null, the update only applies at that version
+	 */
+	public Mono<Boolean> patchEmployee(long Id, Employee changes, Long expectedVersion) {
+		Mono<Integer> update=expectedVersion == null
+				? employeeRepository.updateNonNullById(Id, changes.getFirstName(), changes.getLastName(), changes.getEmail())
+				: employeeRepository.updateNonNullByIdAndVersion(Id, expectedVersion, changes.getFirstName(),
+						changes.getLastName(), changes.getEmail());
+		return update
+				.onErrorMap(DataIntegrityViolationException.class, e -> duplicateEmailOr(e, changes))
+				.flatMap(updated -> applied(updated, Id, expectedVersion));
+	}
+
+	/**
+	 * A conditional update that changed nothing either missed the row or its
+	 * version; only then is the id looked up to tell which.
+	 */
+	private Mono<Boolean> applied(int updated, long Id, Long expectedVersion) {
+		if(updated > 0 || expectedVersion == null) {
+			return Mono.just(updated > 0);
+		}
+		return employeeRepository.existsById(Id).flatMap(exists -> exists
+				? Mono.error(new OptimisticLockingFailureException("Employee " + Id + " is no longer at version " + expectedVersion))
+				: Mono.just(false));
+	}
+
+	/** Emits false when there is no employee with that id. */
+	public Mono<Boolean> deleteEmployee(long Id) {
+		return employeeRepository.deleteEmployeeById(Id).map(deleted -> deleted > 0);
+	}
+
+	/**
+	 * R2DBC drivers report the violated constraint only in the message, so the
+	 * constraint name is looked for there.
+	 */
+	private static Throwable duplicateEmailOr(DataIntegrityViolationException e, Employee employee) {
+		String message=e.getMostSpecificCause().getMessage();
+		if(message != null && message.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_UNIQUE_CONSTRAINT)) {
+			return new ResourceNotFoundException("Employee already exist with given email:" +employee.getEmail(), e);
+		}
+		return e;
+	}
+
+}
@@ -1,10 +1,10 @@
 package net.javaguides.springboot;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class SpringBootTestingApplicationTests {
+import net.javaguides.springboot.integration.AbstractionContainerBaseTest;
+
+class SpringBootTestingApplicationTests extends AbstractionContainerBaseTest {
 
 	@Test
 	void contextLoads() {
@@ -0,0 +1,187 @@
+package net.javaguides.springboot.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot.config.CacheConfig;
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Two invalidators on one in-memory transport stand in for two instances of
+ * the application, each with its own caches.
+ */
+public class EmployeeCacheInvalidatorTest {
+
+	private final InMemoryInvalidationTransport transport=new InMemoryInvalidationTransport();
+
+	private Node writer;
+
+	private Node reader;
+
+	private record Node(EmployeeCacheInvalidator invalidator, CacheManager cacheManager, Cache secondLevelCache,
+			SimpleMeterRegistry meterRegistry) {
+
+		org.springframework.cache.Cache byId() {
+			return cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID);
+		}
+
+		org.springframework.cache.Cache byEmail() {
+			return cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL);
+		}
+
+		void cache(Employee employee) {
+			byId().put(employee.getId(), employee);
+			byEmail().put(employee.getEmail(), employee);
+		}
+
+	}
+
+	private Node node(InvalidationTransport transport) {
+		CacheManager cacheManager=new ConcurrentMapCacheManager(CacheConfig.EMPLOYEES_BY_ID, CacheConfig.EMPLOYEES_BY_EMAIL);
+		EntityManagerFactory entityManagerFactory=mock(EntityManagerFactory.class);
+		Cache secondLevelCache=mock(Cache.class);
+		when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+		SimpleMeterRegistry meterRegistry=new SimpleMeterRegistry();
+
+		EmployeeCacheInvalidator invalidator=new EmployeeCacheInvalidator();
+		ReflectionTestUtils.setField(invalidator, "cacheManager", cacheManager);
+		ReflectionTestUtils.setField(invalidator, "entityManagerFactory", entityManagerFactory);
+		ReflectionTestUtils.setField(invalidator, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(invalidator, "transport", transport);
+		invalidator.init();
+		return new Node(invalidator, cacheManager, secondLevelCache, meterRegistry);
+	}
+
+	@BeforeEach
+	public void setup() {
+		writer=node(transport);
+		reader=node(transport);
+		for(Node node : new Node[] { writer, reader }) {
+			node.cache(Employee.builder().id(1L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build());
+			node.cache(Employee.builder().id(2L).firstName("lekha").lastName("Reddy").email("lekha@gmail.com").build());
+		}
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@DisplayName("JUnit test for a change evicting the employee on the other instances")
+	@Test
+	public void testEvictsOnOtherInstances() {
+
+		writer.invalidator().employeeChanged(1L);
+
+		assertNull(reader.byId().get(1L));
+		assertNotNull(reader.byId().get(2L));
+		assertNull(reader.byEmail().get("lekha@gmail.com"));
+		verify(reader.secondLevelCache()).evict(Employee.class, 1L);
+		// the writer's own caches are left to its cache annotations
+		assertNotNull(writer.byId().get(1L));
+		verify(writer.secondLevelCache(), never()).evict(Employee.class, 1L);
+
+		assertEquals(1, writer.meterRegistry().get("employee.cache.invalidation.publish").tag("outcome", "success").timer().count());
+		assertEquals(1, reader.meterRegistry().get("employee.cache.invalidation.apply").timer().count());
+		assertEquals(0, writer.meterRegistry().get("employee.cache.invalidation.apply").timer().count());
+		assertEquals(1, reader.meterRegistry().get("employee.cache.invalidation.staleness").timer().count());
+	}
+
+	@DisplayName("JUnit test for a bulk change clearing the other instances")
+	@Test
+	public void testEvictsAllOnOtherInstances() {
+
+		writer.invalidator().allEmployeesChanged();
+
+		assertNull(reader.byId().get(1L));
+		assertNull(reader.byId().get(2L));
+		verify(reader.secondLevelCache()).evict(Employee.class);
+	}
+
+	@DisplayName("JUnit test for an invalidation inside a transaction waiting for the commit")
+	@Test
+	public void testPublishesAfterCommit() {
+
+		TransactionSynchronizationManager.initSynchronization();
+		writer.invalidator().employeeChanged(1L);
+
+		assertNotNull(reader.byId().get(1L));
+
+		TransactionSynchronizationUtils.triggerAfterCommit();
+
+		assertNull(reader.byId().get(1L));
+	}
+
+	@DisplayName("JUnit test for a transport that delivers on commit being published to before the commit")
+	@Test
+	public void testPublishesBeforeCommitWhenTransportDeliversOnCommit() {
+
+		InvalidationTransport onCommitTransport=mock(InvalidationTransport.class);
+		when(onCommitTransport.deliversOnCommit()).thenReturn(true);
+		Node node=node(onCommitTransport);
+
+		TransactionSynchronizationManager.initSynchronization();
+		node.invalidator().employeeChanged(1L);
+
+		verify(onCommitTransport, never()).publish(anyString());
+
+		TransactionSynchronizationUtils.triggerBeforeCommit(false);
+		TransactionSynchronizationUtils.triggerAfterCommit();
+
+		verify(onCommitTransport).publish(anyString());
+	}
+
+	@DisplayName("JUnit test for lost messages clearing the caches")
+	@Test
+	public void testClearsOnLostMessages() {
+
+		InvalidationTransport disconnectingTransport=mock(InvalidationTransport.class);
+		Node node=node(disconnectingTransport);
+		node.cache(Employee.builder().id(1L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build());
+		ArgumentCaptor<InvalidationTransport.Listener> listener=ArgumentCaptor.forClass(InvalidationTransport.Listener.class);
+		verify(disconnectingTransport).subscribe(listener.capture());
+
+		listener.getValue().onMessagesLost();
+
+		assertNull(node.byId().get(1L));
+		assertNull(node.byEmail().get("csranam@gmail.com"));
+		verify(node.secondLevelCache()).evict(Employee.class);
+		assertEquals(1, node.meterRegistry().get("employee.cache.invalidation.lost").counter().count());
+	}
+
+	@DisplayName("JUnit test for a failed publish being counted instead of thrown")
+	@Test
+	public void testCountsFailedPublish() {
+
+		transport.subscribe(message -> {
+			throw new IllegalStateException("transport down");
+		});
+
+		writer.invalidator().employeeChanged(1L);
+
+		assertEquals(1, writer.meterRegistry().get("employee.cache.invalidation.publish").tag("outcome", "failure").timer().count());
+	}
+
+}
@@ -0,0 +1,89 @@
+package net.javaguides.springboot.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+
+	private final SingleFlight<Long, String> singleFlight=new SingleFlight<>();
+
+	private final ExecutorService executor=Executors.newFixedThreadPool(8);
+
+	@AfterEach
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	/** Starts the calls and waits until all but the first are waiting on it. */
+	private List<Future<String>> callWhileLoading(int calls, SingleFlight.Loader<String> loader) throws InterruptedException {
+		List<Future<String>> results=new ArrayList<>();
+		for(int i=0; i < calls; i++) {
+			results.add(executor.submit(() -> {
+				try {
+					return singleFlight.execute(1L, loader);
+				} catch(Throwable e) {
+					throw new IllegalStateException(e);
+				}
+			}));
+		}
+		long deadline=System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while(singleFlight.getLoaded() + singleFlight.getShared() < calls && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		return results;
+	}
+
+	@DisplayName("JUnit test for concurrent calls with the same key sharing one load")
+	@Test
+	public void testSharesRunningLoad() throws Exception {
+
+		CountDownLatch release=new CountDownLatch(1);
+		AtomicInteger loads=new AtomicInteger();
+		List<Future<String>> results=callWhileLoading(8, () -> {
+			loads.incrementAndGet();
+			release.await();
+			return "Chandra";
+		});
+		release.countDown();
+
+		for(Future<String> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Chandra");
+		}
+		assertThat(loads).hasValue(1);
+		assertThat(singleFlight.getShared()).isEqualTo(7);
+		assertThat(singleFlight.getCoalescingRatio()).isEqualTo(7 / 8.0);
+	}
+
+	@DisplayName("JUnit test for a failed load failing the waiting calls and the next call loading again")
+	@Test
+	public void testSharesFailureThenLoadsAgain() throws Throwable {
+
+		CountDownLatch release=new CountDownLatch(1);
+		List<Future<String>> results=callWhileLoading(3, () -> {
+			release.await();
+			throw new IllegalArgumentException("database down");
+		});
+		release.countDown();
+
+		for(Future<String> result : results) {
+			assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+					.hasRootCauseInstanceOf(IllegalArgumentException.class);
+		}
+		assertThat(singleFlight.execute(1L, () -> "lekha")).isEqualTo("lekha");
+		assertThat(singleFlight.getLoaded()).isEqualTo(2);
+	}
+
+}
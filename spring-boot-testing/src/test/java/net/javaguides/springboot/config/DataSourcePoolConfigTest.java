@@ -0,0 +1,68 @@
+package net.javaguides.springboot.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+public class DataSourcePoolConfigTest {
+
+	@DisplayName("JUnit test for the pool size formula and its cap")
+	@Test
+	public void testPoolSize() {
+
+		assertEquals(17, DataSourcePoolConfig.poolSize(8, 1, 0));
+		assertEquals(12, DataSourcePoolConfig.poolSize(8, 1, 12));
+		assertEquals(2, DataSourcePoolConfig.poolSize(1, 0, 1));
+	}
+
+	@DisplayName("JUnit test for sizing the Hikari pool from the database cores")
+	@Test
+	public void testSizesHikariPool() {
+
+		MockEnvironment environment=new MockEnvironment()
+				.withProperty("app.datasource.pool.database-cores", "4")
+				.withProperty("app.datasource.pool.expected-concurrency", "50");
+		BeanPostProcessor sizer=DataSourcePoolConfig.hikariPoolSizer(environment);
+
+		try (HikariDataSource dataSource=new HikariDataSource()) {
+			sizer.postProcessAfterInitialization(dataSource, "dataSource");
+			assertEquals(9, dataSource.getMaximumPoolSize());
+		}
+	}
+
+	@DisplayName("JUnit test for the default pool size being kept without the database cores")
+	@Test
+	public void testKeepsDefaultPoolSizeWithoutDatabaseCores() {
+
+		MockEnvironment environment=new MockEnvironment()
+				.withProperty("app.datasource.pool.expected-concurrency", "50");
+		BeanPostProcessor sizer=DataSourcePoolConfig.hikariPoolSizer(environment);
+
+		try (HikariDataSource dataSource=new HikariDataSource()) {
+			int defaultSize=dataSource.getMaximumPoolSize();
+			sizer.postProcessAfterInitialization(dataSource, "dataSource");
+			assertEquals(defaultSize, dataSource.getMaximumPoolSize());
+		}
+	}
+
+	@DisplayName("JUnit test for an explicit maximum pool size being kept")
+	@Test
+	public void testKeepsExplicitPoolSize() {
+
+		MockEnvironment environment=new MockEnvironment()
+				.withProperty(DataSourcePoolConfig.MAXIMUM_POOL_SIZE, "30");
+		BeanPostProcessor sizer=DataSourcePoolConfig.hikariPoolSizer(environment);
+
+		try (HikariDataSource dataSource=new HikariDataSource()) {
+			dataSource.setMaximumPoolSize(30);
+			sizer.postProcessAfterInitialization(dataSource, "dataSource");
+			assertEquals(30, dataSource.getMaximumPoolSize());
+		}
+	}
+
+}
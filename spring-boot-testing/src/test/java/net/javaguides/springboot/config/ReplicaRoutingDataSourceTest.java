@@ -0,0 +1,200 @@
+package net.javaguides.springboot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.servlet.http.Cookie;
+import net.javaguides.springboot.config.ReplicaRoutingDataSource.RequestScope;
+
+/**
+ * Embedded H2 databases stand in for the primary and the replicas; each one
+ * only knows its own name, so a query tells which database answered.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+	private final Map<String, EmbeddedDatabase> databases=new LinkedHashMap<>();
+
+	private final String prefix="routing" + System.nanoTime() + "-";
+
+	private ReplicaRoutingDataSource routingDataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionTemplate readOnly;
+
+	private TransactionTemplate readWrite;
+
+	@BeforeEach
+	public void setup() {
+		start("primary");
+		start("replica1");
+		start("replica2");
+		Map<String, DataSource> replicas=new LinkedHashMap<>();
+		replicas.put("replica1", connect("replica1"));
+		replicas.put("replica2", connect("replica2"));
+		replicas.put("replica3", connect("replica3"));
+		routingDataSource=new ReplicaRoutingDataSource(connect("primary"), replicas, Duration.ofSeconds(5));
+		routingDataSource.checkHealth();
+
+		DataSource dataSource=new LazyConnectionDataSourceProxy(routingDataSource);
+		jdbcTemplate=new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager=new DataSourceTransactionManager(dataSource);
+		readOnly=new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readWrite=new TransactionTemplate(transactionManager);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		databases.values().forEach(EmbeddedDatabase::shutdown);
+	}
+
+	/** Creates the database, which then only knows its own name. */
+	private void start(String name) {
+		EmbeddedDatabase database=new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.setName(prefix + name)
+				.build();
+		new JdbcTemplate(database).execute("create table node as select '" + name + "' as name");
+		databases.put(name, database);
+	}
+
+	private void stop(String name) {
+		databases.remove(name).shutdown();
+	}
+
+	/** Connections fail while the database is stopped instead of creating an empty one. */
+	private DataSource connect(String name) {
+		return new DriverManagerDataSource("jdbc:h2:mem:" + prefix + name + ";IFEXISTS=TRUE", "sa", "");
+	}
+
+	private String read() {
+		return readOnly.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+	}
+
+	private String write() {
+		return readWrite.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+	}
+
+	@DisplayName("JUnit test for read-only transactions going round-robin to the healthy replicas")
+	@Test
+	public void testRoutesReadOnlyToReplicas() {
+
+		assertThat(List.of(read(), read(), read(), read())).containsExactly("replica1", "replica2", "replica1", "replica2");
+		assertThat(routingDataSource.getHealthyReplicas()).isEqualTo(2);
+		assertThat(write()).isEqualTo("primary");
+		assertThat(jdbcTemplate.queryForObject("select name from node", String.class)).isEqualTo("primary");
+	}
+
+	@DisplayName("JUnit test for reads going to the primary when no replica is healthy")
+	@Test
+	public void testFallsBackToPrimary() {
+
+		stop("replica1");
+		stop("replica2");
+
+		assertThat(read()).isEqualTo("primary");
+		assertThat(routingDataSource.getHealthyReplicas()).isZero();
+	}
+
+	@DisplayName("JUnit test for failing over to another replica and the health check bringing one back")
+	@Test
+	public void testFailsOverAndRestoresReplica() {
+
+		stop("replica2");
+		assertThat(List.of(read(), read(), read())).containsOnly("replica1");
+		assertThat(routingDataSource.getHealthyReplicas()).isEqualTo(1);
+
+		start("replica3");
+		routingDataSource.checkHealth();
+
+		assertThat(routingDataSource.getHealthyReplicas()).isEqualTo(2);
+		assertThat(List.of(read(), read())).containsExactlyInAnyOrder("replica1", "replica3");
+	}
+
+	@DisplayName("JUnit test for a request reading its own writes from the primary")
+	@Test
+	public void testRequestReadsOwnWrites() {
+
+		try (RequestScope scope=ReplicaRoutingDataSource.openRequest(false)) {
+			assertThat(read()).isEqualTo("replica1");
+			write();
+			assertThat(read()).isEqualTo("primary");
+		}
+		try (RequestScope scope=ReplicaRoutingDataSource.openRequest(true)) {
+			assertThat(read()).isEqualTo("primary");
+		}
+		assertThat(read()).isEqualTo("replica2");
+	}
+
+	@DisplayName("JUnit test for connections with explicit credentials coming from the primary")
+	@Test
+	public void testCredentialsConnectToPrimary() throws Exception {
+
+		try (RequestScope scope=ReplicaRoutingDataSource.openRequest(false)) {
+			try (Connection connection=routingDataSource.getConnection("sa", "");
+					Statement statement=connection.createStatement();
+					ResultSet resultSet=statement.executeQuery("select name from node")) {
+				resultSet.next();
+				assertThat(resultSet.getString(1)).isEqualTo("primary");
+			}
+			assertThat(read()).isEqualTo("primary");
+		}
+	}
+
+	@DisplayName("JUnit test for the cookie keeping a client on the primary after a write")
+	@Test
+	public void testFilterKeepsWriterOnPrimary() throws Exception {
+
+		Clock clock=Clock.fixed(Instant.ofEpochMilli(1_000_000), ZoneOffset.UTC);
+		ReadYourWritesFilter filter=new ReadYourWritesFilter(Duration.ofSeconds(5), clock);
+		List<String> reads=new ArrayList<>();
+
+		MockHttpServletResponse response=new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("PUT", "/api/employees/1"), response, (req, res) -> reads.add(read()));
+		Cookie cookie=response.getCookie(ReadYourWritesFilter.COOKIE);
+		assertThat(cookie.getValue()).isEqualTo("1005000");
+		assertThat(cookie.getMaxAge()).isEqualTo(5);
+
+		MockHttpServletRequest sticky=new MockHttpServletRequest("GET", "/api/employees/1");
+		sticky.setCookies(cookie);
+		filter.doFilter(sticky, new MockHttpServletResponse(), (req, res) -> reads.add(read()));
+
+		MockHttpServletRequest expired=new MockHttpServletRequest("GET", "/api/employees/1");
+		expired.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, "999999"));
+		MockHttpServletResponse expiredResponse=new MockHttpServletResponse();
+		filter.doFilter(expired, expiredResponse, (req, res) -> reads.add(read()));
+
+		assertThat(reads).containsExactly("replica1", "primary", "replica2");
+		assertThat(expiredResponse.getCookie(ReadYourWritesFilter.COOKIE)).isNull();
+	}
+
+}
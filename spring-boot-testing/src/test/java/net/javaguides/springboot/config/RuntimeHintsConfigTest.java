@@ -0,0 +1,33 @@
+package net.javaguides.springboot.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeSearchIndexes;
+
+public class RuntimeHintsConfigTest {
+
+	@DisplayName("JUnit test for the runtime hints of the native image")
+	@Test
+	public void testRegistersHints() {
+
+		RuntimeHints hints=new RuntimeHints();
+		new RuntimeHintsConfig.EmployeeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+		assertTrue(RuntimeHintsPredicates.reflection().onType(Employee.class).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onType(EmployeeSearchIndexes.class).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection()
+				.onType(TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider")).test(hints));
+		assertTrue(RuntimeHintsPredicates.resource()
+				.forResource("META-INF/services/org.hibernate.boot.spi.AdditionalMappingContributor").test(hints));
+		assertTrue(RuntimeHintsPredicates.resource().forResource("application.conf").test(hints));
+		assertTrue(RuntimeHintsPredicates.resource().forResource("db/employees-schema.sql").test(hints));
+	}
+
+}
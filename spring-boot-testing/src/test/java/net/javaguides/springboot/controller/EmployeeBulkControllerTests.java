@@ -0,0 +1,133 @@
+package net.javaguides.springboot.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.javaguides.springboot.dto.BulkItemResult;
+import net.javaguides.springboot.dto.BulkItemResult.Status;
+import net.javaguides.springboot.dto.BulkResponse;
+import net.javaguides.springboot.dto.EmployeeSearch;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeBulkService;
+
+@WebMvcTest(EmployeeBulkController.class)
+@TestPropertySource(properties="app.employees.bulk.max-size=2")
+public class EmployeeBulkControllerTests {
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@MockBean
+	private EmployeeBulkService employeeBulkService;
+	
+	private ObjectMapper objectMapper=new ObjectMapper();
+	
+	@DisplayName("JUnit test for bulk save method in Bulk Controller class")
+	@Test
+	public void testSaveEmployees() throws Exception {
+		
+		List<Employee> employees=new ArrayList<>();
+		employees.add(Employee.builder().firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build());
+		employees.add(Employee.builder().firstName("Revathi").lastName("Vaka").email("csranam@gmail.com").build());
+		
+		when(employeeBulkService.saveEmployees(Mockito.anyList())).thenReturn(BulkResponse.of(List.of(
+				new BulkItemResult(0, 1L, Status.CREATED, null),
+				new BulkItemResult(1, null, Status.DUPLICATE, "Employee already exist with given email:csranam@gmail.com"))));
+		
+		ResultActions response=mockMvc.perform(post("/api/employees/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(employees)));
+		
+		response.andExpect(status().isOk())
+				.andDo(print())
+				.andExpect(jsonPath("$.succeeded", is(1)))
+				.andExpect(jsonPath("$.failed", is(1)))
+				.andExpect(jsonPath("$.results[0].id", is(1)))
+				.andExpect(jsonPath("$.results[1].status", is("DUPLICATE")));
+	}
+	
+	@DisplayName("JUnit test for bulk save method in Bulk Controller class when the batch is too large")
+	@Test
+	public void testSaveEmployeesTooLarge() throws Exception {
+		
+		List<Employee> employees=new ArrayList<>();
+		for(int i=0; i < 3; i++) {
+			employees.add(Employee.builder().firstName("Chandra").lastName("Reddy").email("csranam"+i+"@gmail.com").build());
+		}
+		
+		ResultActions response=mockMvc.perform(post("/api/employees/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(employees)));
+		
+		response.andExpect(status().isPayloadTooLarge());
+		verify(employeeBulkService, never()).saveEmployees(Mockito.anyList());
+	}
+	
+	@DisplayName("JUnit test for bulk delete method in Bulk Controller class")
+	@Test
+	public void testDeleteEmployees() throws Exception {
+		
+		when(employeeBulkService.deleteEmployees(List.of(1L, 2L))).thenReturn(BulkResponse.of(List.of(
+				new BulkItemResult(0, 1L, Status.DELETED, null),
+				new BulkItemResult(1, 2L, Status.NOT_FOUND, null))));
+		
+		ResultActions response=mockMvc.perform(delete("/api/employees/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[1,2]"));
+		
+		response.andExpect(status().isOk())
+				.andDo(print())
+				.andExpect(jsonPath("$.succeeded", is(1)))
+				.andExpect(jsonPath("$.results[1].status", is("NOT_FOUND")));
+	}
+
+	@DisplayName("JUnit test for deleting matching employees in Bulk Controller class")
+	@Test
+	public void testDeleteEmployeesMatching() throws Exception {
+		
+		when(employeeBulkService.deleteEmployeesMatching(Mockito.any(EmployeeSearch.class))).thenReturn(3L);
+		
+		ResultActions response=mockMvc.perform(delete("/api/employees/bulk/matching").param("email", "test"));
+		
+		response.andExpect(status().isOk())
+				.andDo(print())
+				.andExpect(jsonPath("$.deleted", is(3)));
+	}
+	
+	@DisplayName("JUnit test for a matching delete without filters in Bulk Controller class")
+	@Test
+	public void testDeleteEmployeesMatchingWithoutFilter() throws Exception {
+		
+		when(employeeBulkService.deleteEmployeesMatching(Mockito.any(EmployeeSearch.class)))
+				.thenThrow(new IllegalArgumentException("at least one of firstName, lastName and email is required"));
+		
+		ResultActions response=mockMvc.perform(delete("/api/employees/bulk/matching"));
+		
+		response.andExpect(status().isBadRequest())
+				.andDo(print());
+	}
+
+}
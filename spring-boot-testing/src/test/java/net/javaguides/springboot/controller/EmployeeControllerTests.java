@@ -1,18 +1,31 @@
 package net.javaguides.springboot.controller;
 
 import static org.hamcrest.CoreMatchers.is;
-import static org.mockito.Mockito.doNothing;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,14 +36,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
+import net.javaguides.springboot.config.WireFormatConfig;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeSearch;
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.dto.EmployeeView;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.service.EmployeeService;
 
@@ -76,7 +99,7 @@ public class EmployeeControllerTests {
 		listOfEmployees.add(Employee.builder().id(1L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build());
 		listOfEmployees.add(Employee.builder().id(2L).firstName("Revathi").lastName("Vaka").email("revtishere@gmail.com").build());
 		
-		when(employeeService.getAllEmployees()).thenReturn(listOfEmployees);
+		when(employeeService.getAllEmployeesUnlessNotModified(Mockito.any(),Mockito.anyInt())).thenReturn(Optional.of(listOfEmployees));
 		
 		ResultActions response=mockMvc.perform(get("/api/allemployees"));
 		
@@ -86,6 +109,267 @@ public class EmployeeControllerTests {
 	}
 
 	
+	@DisplayName("JUnit test for get all employees method in Controller class streaming a table over the threshold")
+	@Test
+	public void testGetAllEmployeesOverThreshold() throws Exception {
+		
+		when(employeeService.getAllEmployeesUnlessNotModified(Mockito.any(),Mockito.anyInt())).thenReturn(Optional.empty());
+		doAnswer(invocation -> {
+			Consumer<String> tag=invocation.getArgument(0);
+			Consumer<Employee> consumer=invocation.getArgument(1);
+			tag.accept("2711-2faf080-0");
+			consumer.accept(Employee.builder().id(1L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build());
+			return null;
+		}).when(employeeService).streamAllEmployees(Mockito.any(), Mockito.any());
+		
+		MvcResult result=mockMvc.perform(get("/api/allemployees"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		
+		// the tag read with the streamed rows, not the one of the earlier check
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"2711-2faf080-0\""))
+				.andExpect(jsonPath("$.size()", is(1)));
+	}
+	
+	@DisplayName("JUnit test for get all employees method in Controller class as Smile")
+	@Test
+	public void testGetAllEmployeesAsSmile() throws Exception {
+		
+		List<Employee> listOfEmployees=new ArrayList<>();
+		listOfEmployees.add(Employee.builder().id(1L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build());
+		listOfEmployees.add(Employee.builder().id(2L).firstName("Revathi").lastName("Vaka").email("revtishere@gmail.com").build());
+		
+		when(employeeService.getAllEmployeesUnlessNotModified(Mockito.any(),Mockito.anyInt())).thenReturn(Optional.of(listOfEmployees));
+		
+		MvcResult result=mockMvc.perform(get("/api/allemployees").accept(WireFormatConfig.APPLICATION_SMILE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(WireFormatConfig.APPLICATION_SMILE))
+				.andReturn();
+		
+		Employee[] employees=new ObjectMapper(new SmileFactory()).readValue(result.getResponse().getContentAsByteArray(), Employee[].class);
+		assertEquals(2, employees.length);
+		assertEquals("revtishere@gmail.com", employees[1].getEmail());
+	}
+	
+	@DisplayName("JUnit test for Save method in Controller Class with a Smile body")
+	@Test
+	public void testSaveEmployeeFromSmile() throws Exception {
+		
+		Employee employee = new Employee(1L,"Chandra","Reddy","csranam@gmail.com");
+		ObjectMapper smileMapper=new ObjectMapper(new SmileFactory());
+		
+		when(employeeService.saveEmployee(Mockito.any(Employee.class))).thenReturn(employee);
+		
+		mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/employees")
+				.contentType(WireFormatConfig.APPLICATION_SMILE)
+				.accept(MediaType.APPLICATION_JSON)
+				.content(smileMapper.writeValueAsBytes(employee)))
+				.andDo(print())
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.email",is(employee.getEmail())));
+	}
+
+	@DisplayName("JUnit test for keyset paginated employees method in Controller class")
+	@Test
+	public void testGetEmployeePage() throws Exception {
+		
+		List<Employee> listOfEmployees=new ArrayList<>();
+		listOfEmployees.add(Employee.builder().id(11L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build());
+		listOfEmployees.add(Employee.builder().id(12L).firstName("Revathi").lastName("Vaka").email("revtishere@gmail.com").build());
+		
+		when(employeeService.getEmployeePage(10L, 2)).thenReturn(new EmployeePage<>(listOfEmployees, 12L));
+		
+		ResultActions response=mockMvc.perform(get("/api/employees").param("afterId", "10").param("limit", "2"));
+		
+		response.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content.size()", is(2)))
+				.andExpect(jsonPath("$.nextCursor", is(12)))
+				.andDo(print());
+	}
+	
+	@DisplayName("JUnit test for keyset paginated employees method with selected fields in Controller class")
+	@Test
+	public void testGetEmployeePageWithFields() throws Exception {
+		
+		EmployeeView view=EmployeeView.of(Employee.builder().id(11L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build(),
+				Set.of("id", "email"));
+		
+		when(employeeService.getEmployeeViewPage(0L, 100, new LinkedHashSet<>(List.of("id", "email"))))
+				.thenReturn(new EmployeePage<>(List.of(view), null));
+		
+		ResultActions response=mockMvc.perform(get("/api/employees").param("fields", "email"));
+		
+		response.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].id", is(11)))
+				.andExpect(jsonPath("$.content[0].email", is("csranam@gmail.com")))
+				.andExpect(jsonPath("$.content[0].firstName").doesNotExist())
+				.andDo(print());
+	}
+	
+	@DisplayName("JUnit test for keyset paginated employees method with an unknown field in Controller class")
+	@Test
+	public void testGetEmployeePageWithUnknownField() throws Exception {
+		
+		ResultActions response=mockMvc.perform(get("/api/employees").param("fields", "salary"));
+		
+		response.andExpect(status().isBadRequest())
+				.andDo(print());
+		verify(employeeService, never()).getEmployeeViewPage(Mockito.anyLong(), Mockito.anyInt(), Mockito.any());
+	}
+	
+	@DisplayName("JUnit test for get employee by id method with selected fields in Controller class")
+	@Test
+	public void testGetEmployeeByIdWithFields() throws Exception {
+		
+		Employee employee=Employee.builder().id(1L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build();
+		when(employeeService.getEmployeeById(1L)).thenReturn(Optional.of(employee));
+		
+		ResultActions response=mockMvc.perform(get("/api/employees/{id}", 1L).param("fields", "firstName,lastName"));
+		
+		response.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id", is(1)))
+				.andExpect(jsonPath("$.firstName", is("Chandra")))
+				.andExpect(jsonPath("$.email").doesNotExist())
+				.andDo(print());
+	}
+	
+	@DisplayName("JUnit test for search employees method in Controller class")
+	@Test
+	public void testSearchEmployees() throws Exception {
+		
+		List<Employee> listOfEmployees=List.of(Employee.builder().id(3L).firstName("Ram").lastName("Reddy").email("ram@gmail.com").build());
+		
+		when(employeeService.searchEmployees(Mockito.any(EmployeeSearch.class), Mockito.eq(20)))
+				.thenReturn(new EmployeeSearchPage(listOfEmployees, "bmV4dA"));
+		
+		ResultActions response=mockMvc.perform(get("/api/employees/search")
+				.param("firstName", "ra").param("sort", "lastName").param("limit", "20"));
+		
+		response.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].firstName", is("Ram")))
+				.andExpect(jsonPath("$.nextCursor", is("bmV4dA")))
+				.andDo(print());
+		verify(employeeService).searchEmployees(Mockito.argThat(search -> "ra".equals(search.getFirstName())
+				&& "lastName".equals(search.getSort())), Mockito.eq(20));
+	}
+	
+	@DisplayName("JUnit test for search employees method with an unknown sort field in Controller class")
+	@Test
+	public void testSearchEmployeesWithUnknownSort() throws Exception {
+		
+		when(employeeService.searchEmployees(Mockito.any(EmployeeSearch.class), Mockito.anyInt()))
+				.thenThrow(new IllegalArgumentException("Unknown sort field: salary"));
+		
+		ResultActions response=mockMvc.perform(get("/api/employees/search").param("sort", "salary"));
+		
+		response.andExpect(status().isBadRequest())
+				.andDo(print());
+	}
+	
+	@DisplayName("JUnit test for streaming employees as NDJSON in Controller class")
+	@Test
+	public void testStreamEmployeesAsNdjson() throws Exception {
+		
+		doAnswer(invocation -> {
+			Consumer<Employee> consumer=invocation.getArgument(0);
+			consumer.accept(Employee.builder().id(1L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build());
+			consumer.accept(Employee.builder().id(2L).firstName("Revathi").lastName("Vaka").email("revtishere@gmail.com").build());
+			return null;
+		}).when(employeeService).streamAllEmployees(Mockito.any());
+		
+		MvcResult result=mockMvc.perform(get("/api/employees/stream").accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+				.andExpect(content().string(
+						"{\"id\":1,\"firstName\":\"Chandra\",\"lastName\":\"Reddy\",\"email\":\"csranam@gmail.com\"}\n"
+						+ "{\"id\":2,\"firstName\":\"Revathi\",\"lastName\":\"Vaka\",\"email\":\"revtishere@gmail.com\"}\n"));
+	}
+	
+	@DisplayName("JUnit test for streaming employees as CBOR in Controller class")
+	@Test
+	public void testStreamEmployeesAsCbor() throws Exception {
+		
+		doAnswer(invocation -> {
+			Consumer<Employee> consumer=invocation.getArgument(0);
+			consumer.accept(Employee.builder().id(1L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build());
+			consumer.accept(Employee.builder().id(2L).firstName("Revathi").lastName("Vaka").email("revtishere@gmail.com").build());
+			return null;
+		}).when(employeeService).streamAllEmployees(Mockito.any());
+		
+		MvcResult result=mockMvc.perform(get("/api/employees/stream").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		
+		MvcResult streamed=mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn();
+		
+		Employee[] employees=new ObjectMapper(new CBORFactory()).readValue(streamed.getResponse().getContentAsByteArray(), Employee[].class);
+		assertEquals(2, employees.length);
+		assertEquals("Chandra", employees[0].getFirstName());
+	}
+
+	
+	@DisplayName("JUnit test for get employee by id method in Controller class with a current If-None-Match")
+	@Test
+	public void testGetEmployeeByIdNotModified() throws Exception {
+		
+		long employeeId=1L;
+		when(employeeService.getEmployeeVersion(employeeId)).thenReturn(Optional.of(3L));
+		
+		mockMvc.perform(get("/api/employees/{id}",employeeId).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+				.andDo(print())
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+				.andExpect(content().string(""));
+		verify(employeeService, never()).getEmployeeById(employeeId);
+	}
+	
+	
+	@DisplayName("JUnit test for get employee by id method in Controller class with an outdated If-None-Match")
+	@Test
+	public void testGetEmployeeByIdModified() throws Exception {
+		
+		long employeeId=1L;
+		Employee employee=new Employee(employeeId, "Chandra", "Reddy", "csranam@gmail.com", 4L);
+		when(employeeService.getEmployeeVersion(employeeId)).thenReturn(Optional.of(4L));
+		when(employeeService.getEmployeeById(employeeId)).thenReturn(Optional.of(employee));
+		
+		mockMvc.perform(get("/api/employees/{id}",employeeId).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+				.andExpect(jsonPath("$.email",is(employee.getEmail())))
+				.andExpect(jsonPath("$.version").doesNotExist());
+	}
+	
+	
+	@DisplayName("JUnit test for get all employees method in Controller class with a current If-None-Match")
+	@Test
+	public void testGetAllEmployeesNotModified() throws Exception {
+		
+		when(employeeService.getAllEmployeesUnlessNotModified(Mockito.any(),Mockito.anyInt())).thenAnswer(invocation -> {
+			Predicate<String> notModified=invocation.getArgument(0);
+			assertTrue(notModified.test("2-3-0"));
+			return Optional.empty();
+		});
+		
+		mockMvc.perform(get("/api/allemployees").header(HttpHeaders.IF_NONE_MATCH, "W/\"2-3-0\""))
+				.andDo(print())
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"2-3-0\""));
+		verify(employeeService, never()).streamAllEmployees(Mockito.any(), Mockito.any());
+	}
+	
+	
 	@DisplayName("JUnit test for get employee by id method in Controller class +ve scenario")
 	@Test
 	public void testGetEmployeeById() throws Exception {
@@ -127,23 +411,39 @@ public class EmployeeControllerTests {
 				.andDo(print());	
 	}
 	
-	@DisplayName("JUnit test for update employee by id method in Controller class +ve scenario")
+	@DisplayName("JUnit test for get employee by email method in Controller class")
 	@Test
-	public void testUpdateEmployeeById() throws JsonProcessingException, Exception {
-		long employeeId=1L;
-		Employee savedEmployee=Employee.builder()
+	public void testGetEmployeeByEmail() throws Exception {
+		
+		Employee employee=Employee.builder()
+				.id(1L)
 				.firstName("Chandra")
 				.lastName("Reddy")
 				.email("csranam@gmail.com")
 				.build();
+		
+		when(employeeService.getEmployeeByEmail(employee.getEmail())).thenReturn(Optional.of(employee));
+		
+		ResultActions response = mockMvc.perform(get("/api/employees/by-email").param("email", employee.getEmail()));
+		
+		response.andExpect(status().isOk())
+				.andDo(print())
+				.andExpect(jsonPath("$.id",is(1)))
+				.andExpect(jsonPath("$.email",is(employee.getEmail())));
+	}
+	
+	@DisplayName("JUnit test for update employee by id method in Controller class +ve scenario")
+	@Test
+	public void testUpdateEmployeeById() throws JsonProcessingException, Exception {
+		long employeeId=1L;
 		Employee updatedEmployee=Employee.builder()
 				.firstName("Revathi")
 				.lastName("Vaka")
 				.email("revtishere@gmail.com")
 				.build();
 		
-		when(employeeService.getEmployeeById(employeeId)).thenReturn(Optional.of(savedEmployee));
-		when(employeeService.updateEmployee(Mockito.any(Employee.class))).thenReturn(savedEmployee);
+		when(employeeService.replaceEmployee(Mockito.eq(employeeId), Mockito.any(Employee.class), Mockito.isNull()))
+				.thenAnswer(invocation -> Optional.of(invocation.getArgument(1)));
 		
 		ResultActions response=mockMvc.perform(put("/api/employees/{id}",employeeId)
 				.contentType(MediaType.APPLICATION_JSON)
@@ -163,24 +463,122 @@ public class EmployeeControllerTests {
 	public void testNegativeUpdateEmployeeById() throws JsonProcessingException, Exception {
 		
 		long employeeId=1L;
-		Employee savedEmployee=Employee.builder()
-				.firstName("Chandra")
-				.lastName("Reddy")
-				.email("csranam@gmail.com")
+		Employee updatedEmployee=Employee.builder()
+				.firstName("Revathi")
+				.lastName("Vaka")
+				.email("revtishere@gmail.com")
 				.build();
+		
+		when(employeeService.replaceEmployee(Mockito.eq(employeeId), Mockito.any(Employee.class), Mockito.isNull())).thenReturn(Optional.empty());
+		
+		ResultActions response=mockMvc.perform(put("/api/employees/{id}",employeeId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(updatedEmployee)));
+		
+		response.andExpect(status().isNotFound())
+				.andDo(print());
+	}
+	
+	@DisplayName("JUnit test for update employee by id method in Controller class with a current If-Match")
+	@Test
+	public void testUpdateEmployeeByIdIfMatch() throws JsonProcessingException, Exception {
+		long employeeId=1L;
 		Employee updatedEmployee=Employee.builder()
 				.firstName("Revathi")
 				.lastName("Vaka")
 				.email("revtishere@gmail.com")
 				.build();
 		
-		when(employeeService.getEmployeeById(employeeId)).thenReturn(Optional.empty());
-		when(employeeService.updateEmployee(Mockito.any(Employee.class))).thenReturn(savedEmployee);
+		when(employeeService.replaceEmployee(Mockito.eq(employeeId), Mockito.any(Employee.class), Mockito.eq(3L)))
+				.thenReturn(Optional.of(new Employee(employeeId, "Revathi", "Vaka", "revtishere@gmail.com", 4L)));
+		
+		ResultActions response=mockMvc.perform(put("/api/employees/{id}",employeeId)
+				.header(HttpHeaders.IF_MATCH, "\"3\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(updatedEmployee)));
+		
+		response.andExpect(status().isOk())
+				.andDo(print())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+				.andExpect(jsonPath("$.firstName",is(updatedEmployee.getFirstName())));
+	}
+	
+	
+	@DisplayName("JUnit test for update employee by id method in Controller class with a stale If-Match")
+	@Test
+	public void testUpdateEmployeeByIdStaleIfMatch() throws JsonProcessingException, Exception {
+		long employeeId=1L;
+		Employee updatedEmployee=Employee.builder()
+				.firstName("Revathi")
+				.lastName("Vaka")
+				.email("revtishere@gmail.com")
+				.build();
+		
+		when(employeeService.replaceEmployee(Mockito.eq(employeeId), Mockito.any(Employee.class), Mockito.eq(3L)))
+				.thenThrow(new OptimisticLockingFailureException("Employee 1 is no longer at version 3"));
 		
 		ResultActions response=mockMvc.perform(put("/api/employees/{id}",employeeId)
+				.header(HttpHeaders.IF_MATCH, "\"3\"")
 				.contentType(MediaType.APPLICATION_JSON)
 				.content(objectMapper.writeValueAsString(updatedEmployee)));
 		
+		response.andExpect(status().isPreconditionFailed())
+				.andDo(print());
+	}
+	
+	
+	@DisplayName("JUnit test for patch employee by id method in Controller class with a weak If-Match")
+	@Test
+	public void testPatchEmployeeByIdWeakIfMatch() throws JsonProcessingException, Exception {
+		long employeeId=1L;
+		Employee changes=Employee.builder()
+				.email("revtishere@gmail.com")
+				.build();
+		
+		ResultActions response=mockMvc.perform(patch("/api/employees/{id}",employeeId)
+				.header(HttpHeaders.IF_MATCH, "W/\"3\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(changes)));
+		
+		response.andExpect(status().isPreconditionFailed())
+				.andDo(print());
+		verify(employeeService, never()).patchEmployee(Mockito.anyLong(), Mockito.any(Employee.class), Mockito.any());
+	}
+	
+	@DisplayName("JUnit test for patch employee by id method in Controller class +ve scenario")
+	@Test
+	public void testPatchEmployeeById() throws JsonProcessingException, Exception {
+		long employeeId=1L;
+		Employee changes=Employee.builder()
+				.email("revtishere@gmail.com")
+				.build();
+		
+		when(employeeService.patchEmployee(Mockito.eq(employeeId), Mockito.any(Employee.class), Mockito.isNull())).thenReturn(true);
+		
+		ResultActions response=mockMvc.perform(patch("/api/employees/{id}",employeeId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(changes)));
+		
+		response.andExpect(status().isNoContent())
+				.andDo(print());
+		verify(employeeService, never()).getEmployeeById(employeeId);
+	}
+	
+	
+	@DisplayName("JUnit test for patch employee by id method in Controller class -ve scenario")
+	@Test
+	public void testNegativePatchEmployeeById() throws JsonProcessingException, Exception {
+		long employeeId=1L;
+		Employee changes=Employee.builder()
+				.email("revtishere@gmail.com")
+				.build();
+		
+		when(employeeService.patchEmployee(Mockito.eq(employeeId), Mockito.any(Employee.class), Mockito.isNull())).thenReturn(false);
+		
+		ResultActions response=mockMvc.perform(patch("/api/employees/{id}",employeeId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(changes)));
+		
 		response.andExpect(status().isNotFound())
 				.andDo(print());
 	}
@@ -190,7 +588,7 @@ public class EmployeeControllerTests {
 	public void testDeleteEmployeeById() throws Exception {
 		long employeeId=1L;
 		
-		doNothing().when(employeeService).deleteEmployee(employeeId);
+		when(employeeService.deleteEmployee(employeeId)).thenReturn(true);
 		
 		ResultActions response=mockMvc.perform(delete("/api/employees/{id}",employeeId));
 		
@@ -198,4 +596,17 @@ public class EmployeeControllerTests {
 				.andDo(print());
 		
 	}
+	
+	@DisplayName("JUnit test for delete employee by id method in Controller class -ve scenario")
+	@Test
+	public void testNegativeDeleteEmployeeById() throws Exception {
+		long employeeId=1L;
+		
+		when(employeeService.deleteEmployee(employeeId)).thenReturn(false);
+		
+		ResultActions response=mockMvc.perform(delete("/api/employees/{id}",employeeId));
+		
+		response.andExpect(status().isNotFound())
+				.andDo(print());
+	}
 }
@@ -0,0 +1,106 @@
+package net.javaguides.springboot.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.javaguides.springboot.dto.IngestStatus;
+import net.javaguides.springboot.dto.IngestStatus.State;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeIngestService;
+import net.javaguides.springboot.service.EmployeeService;
+
+@WebMvcTest(controllers={EmployeeController.class, EmployeeIngestController.class},
+		properties={"app.employees.ingest.enabled=true", "app.employees.ingest.retry-after=2s"})
+public class EmployeeIngestControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private EmployeeService employeeService;
+
+	@MockBean
+	private EmployeeIngestService employeeIngestService;
+
+	private ObjectMapper objectMapper=new ObjectMapper();
+
+	@DisplayName("JUnit test for accepting an employee into the ingestion queue")
+	@Test
+	public void testSaveEmployeeQueued() throws Exception {
+
+		Employee employee=Employee.builder().firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build();
+		when(employeeIngestService.submit(Mockito.any(Employee.class))).thenReturn(Optional.of(IngestStatus.queued("abc")));
+
+		mockMvc.perform(post("/api/employees")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsBytes(employee)))
+				.andDo(print())
+				.andExpect(status().isAccepted())
+				.andExpect(header().string("Location", "/api/employees/ingest/abc"))
+				.andExpect(jsonPath("$.trackingId", is("abc")))
+				.andExpect(jsonPath("$.state", is("QUEUED")));
+
+		verify(employeeService, never()).saveEmployee(Mockito.any(Employee.class));
+	}
+
+	@DisplayName("JUnit test for rejecting an employee while the ingestion queue is full")
+	@Test
+	public void testSaveEmployeeQueueFull() throws Exception {
+
+		Employee employee=Employee.builder().firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build();
+		when(employeeIngestService.submit(Mockito.any(Employee.class))).thenReturn(Optional.empty());
+
+		mockMvc.perform(post("/api/employees")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsBytes(employee)))
+				.andDo(print())
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string("Retry-After", "2"));
+	}
+
+	@DisplayName("JUnit test for the status of an ingested employee")
+	@Test
+	public void testGetStatus() throws Exception {
+
+		when(employeeIngestService.getStatus("abc")).thenReturn(Optional.of(new IngestStatus("abc", State.CREATED, 7L, null)));
+
+		mockMvc.perform(get("/api/employees/ingest/{trackingId}", "abc"))
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.state", is("CREATED")))
+				.andExpect(jsonPath("$.id", is(7)));
+	}
+
+	@DisplayName("JUnit test for the status of an unknown tracking id")
+	@Test
+	public void testGetUnknownStatus() throws Exception {
+
+		when(employeeIngestService.getStatus("abc")).thenReturn(Optional.empty());
+
+		mockMvc.perform(get("/api/employees/ingest/{trackingId}", "abc"))
+				.andDo(print())
+				.andExpect(status().isNotFound());
+	}
+
+}
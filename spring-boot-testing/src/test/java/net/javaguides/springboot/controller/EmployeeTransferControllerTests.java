@@ -0,0 +1,108 @@
+package net.javaguides.springboot.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import net.javaguides.springboot.dto.EmployeeFormat;
+import net.javaguides.springboot.exception.InvalidImportException;
+import net.javaguides.springboot.service.EmployeeTransferService;
+
+@WebMvcTest(EmployeeTransferController.class)
+public class EmployeeTransferControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private EmployeeTransferService employeeTransferService;
+
+	@DisplayName("JUnit test for importing a CSV file")
+	@Test
+	public void testImportCsv() throws Exception {
+
+		when(employeeTransferService.importEmployees(eq(EmployeeFormat.CSV), any(InputStream.class))).thenReturn(2L);
+
+		mockMvc.perform(post("/api/employees/import")
+				.contentType(EmployeeFormat.TEXT_CSV_VALUE)
+				.content("firstName,lastName,email\nChandra,Reddy,csranam@gmail.com\nRevathi,Vaka,revtishere@gmail.com\n"))
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.imported", is(2)));
+	}
+
+	@DisplayName("JUnit test for importing an NDJSON file with an incomplete record")
+	@Test
+	public void testImportNdjsonInvalidRecord() throws Exception {
+
+		when(employeeTransferService.importEmployees(eq(EmployeeFormat.NDJSON), any(InputStream.class)))
+				.thenThrow(new InvalidImportException(1, "firstName, lastName and email are required", null));
+
+		mockMvc.perform(post("/api/employees/import")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content("{\"firstName\":\"Chandra\"}\n"))
+				.andDo(print())
+				.andExpect(status().isBadRequest());
+	}
+
+	@DisplayName("JUnit test for importing a file with an email that already exists")
+	@Test
+	public void testImportDuplicateEmail() throws Exception {
+
+		when(employeeTransferService.importEmployees(eq(EmployeeFormat.CSV), any(InputStream.class)))
+				.thenThrow(new DuplicateKeyException("duplicate key value violates unique constraint \"uk_employees_email\""));
+
+		mockMvc.perform(post("/api/employees/import")
+				.contentType(EmployeeFormat.TEXT_CSV_VALUE)
+				.content("firstName,lastName,email\nChandra,Reddy,csranam@gmail.com\n"))
+				.andDo(print())
+				.andExpect(status().isConflict());
+	}
+
+	@DisplayName("JUnit test for exporting the table as CSV")
+	@Test
+	public void testExportCsv() throws Exception {
+
+		when(employeeTransferService.exportEmployees(eq(EmployeeFormat.CSV), any(OutputStream.class))).thenAnswer(invocation -> {
+			OutputStream output=invocation.getArgument(1);
+			output.write("id,firstName,lastName,email\n1,Chandra,Reddy,csranam@gmail.com\n".getBytes(StandardCharsets.UTF_8));
+			return 1L;
+		});
+
+		MvcResult result=mockMvc.perform(get("/api/employees/export").accept(EmployeeFormat.TEXT_CSV_VALUE))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(EmployeeFormat.TEXT_CSV_VALUE))
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"employees.csv\""))
+				.andExpect(content().string("id,firstName,lastName,email\n1,Chandra,Reddy,csranam@gmail.com\n"));
+	}
+
+}
@@ -1,27 +1,88 @@
 package net.javaguides.springboot.integration;
 
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.PostgreSQLContainer;
-import org.testcontainers.junit.jupiter.Container;
 
-public class AbstractionContainerBaseTest {
-	
-	static final PostgreSQLContainer postgresqlContainer;
-	
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Base class of the tests that boot the whole application. Every subclass
+ * shares one application context and one database, so keep the annotations
+ * here: anything a subclass adds to its configuration (@MockBean, properties,
+ * profiles) starts another context.
+ * <p>
+ * The database is a PostgreSQL container, started once per JVM and reused
+ * across runs when testcontainers.reuse.enable is set in
+ * ~/.testcontainers.properties. Without Docker the tests run on embedded H2 in
+ * PostgreSQL mode; -Dtest.database=h2 or -Dtest.database=postgres forces one.
+ * <p>
+ * The table is truncated and the caches cleared before each test. Rolling back
+ * a test transaction would leave rows the request committed in the caches.
+ */
+@SpringBootTest(webEnvironment=SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+public abstract class AbstractionContainerBaseTest {
+
+	static final PostgreSQLContainer<?> postgresqlContainer;
+
 	static {
-		postgresqlContainer=new PostgreSQLContainer("postgres")
-		        .withDatabaseName("test")
-		        .withUsername("test")
-		        .withPassword("test");
+		if(usePostgres()) {
+			postgresqlContainer=new PostgreSQLContainer<>("postgres")
+					.withDatabaseName("test")
+					.withUsername("test")
+					.withPassword("test")
+					.withReuse(true);
 			postgresqlContainer.start();
+		} else {
+			postgresqlContainer=null;
+		}
+	}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private static boolean usePostgres() {
+		return switch(System.getProperty("test.database", "")) {
+			case "postgres" -> true;
+			case "h2" -> false;
+			default -> DockerClientFactory.instance().isDockerAvailable();
+		};
+	}
+
+	@DynamicPropertySource
+	static void setProperties(DynamicPropertyRegistry registry) {
+		if(postgresqlContainer != null) {
+			registry.add("spring.datasource.url", postgresqlContainer::getJdbcUrl);
+			registry.add("spring.datasource.username", postgresqlContainer::getUsername);
+			registry.add("spring.datasource.password", postgresqlContainer::getPassword);
+		} else {
+			registry.add("spring.datasource.url", () -> "jdbc:h2:mem:integration;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+			registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+			registry.add("spring.datasource.username", () -> "sa");
+			registry.add("spring.datasource.password", () -> "");
+		}
+	}
+
+	@BeforeEach
+	void resetDatabase() {
+		jdbcTemplate.execute("truncate table " + Employee.TABLE_NAME);
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+		entityManagerFactory.getCache().evictAll();
 	}
-	   
-	   @DynamicPropertySource
-	   static void setProperties(DynamicPropertyRegistry registry) {
-	       registry.add("spring.datasource.url", postgresqlContainer::getJdbcUrl);
-	       registry.add("spring.datasource.username", postgresqlContainer::getUsername);
-	       registry.add("spring.datasource.password", postgresqlContainer::getPassword);
-	   }
 
 }
@@ -1,5 +1,6 @@
 package net.javaguides.springboot.integration;
 
+import static net.javaguides.springboot.sql.SqlResultMatchers.sql;
 import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -12,12 +13,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import java.util.ArrayList;
 import java.util.List;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -28,8 +26,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.repository.EmployeeRepository;
 
-@SpringBootTest(webEnvironment=SpringBootTest.WebEnvironment.RANDOM_PORT)
-@AutoConfigureMockMvc
 public class EmployeeControllerIntegrationTest extends AbstractionContainerBaseTest {
 	
   	@Autowired
@@ -41,11 +37,6 @@ public class EmployeeControllerIntegrationTest extends AbstractionContainerBaseT
 	@Autowired
 	private ObjectMapper objectMapper;
 	
-	@BeforeEach
-	void setup() {
-		employeeRepository.deleteAll();
-	}
-	
 	@DisplayName("JUnit test for Save method in Controller Class")
 	@Test
 	public void testSaveEmployee() throws Exception {
@@ -78,8 +69,11 @@ public class EmployeeControllerIntegrationTest extends AbstractionContainerBaseT
 		
 		ResultActions response=mockMvc.perform(get("/api/allemployees"));
 		
+		// the table version for the ETag, then the rows, in one transaction
 		response.andExpect(status().isOk())
 				.andExpect(jsonPath("$.size()", is(listOfEmployees.size())))
+				.andExpect(sql().statements(2))
+				.andExpect(sql().rows(3))
 				.andDo(print());
 	}
 	
@@ -100,7 +94,12 @@ public class EmployeeControllerIntegrationTest extends AbstractionContainerBaseT
 				.andDo(print())
 				.andExpect(jsonPath("$.firstName",is(employee.getFirstName())))
 				.andExpect(jsonPath("$.lastName",is(employee.getLastName())))
-				.andExpect(jsonPath("$.email",is(employee.getEmail())));
+				.andExpect(jsonPath("$.email",is(employee.getEmail())))
+				.andExpect(sql().statementsAtMost(1));
+		
+		mockMvc.perform(get("/api/employees/{id}",employee.getId()))
+				.andExpect(status().isOk())
+				.andExpect(sql().statements(0));
 	}
 	
 		@DisplayName("JUnit test for get employee by id method in Controller class -ve scenario")
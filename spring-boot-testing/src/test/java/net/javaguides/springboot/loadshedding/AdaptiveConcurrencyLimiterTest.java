@@ -0,0 +1,81 @@
+package net.javaguides.springboot.loadshedding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+	private static final long WINDOW=TimeUnit.MILLISECONDS.toNanos(100);
+
+	private static final long LATENCY=TimeUnit.MILLISECONDS.toNanos(5);
+
+	private long now=0;
+
+	/** Fills the limiter and completes every request with the given latency, for one window. */
+	private void runWindow(AdaptiveConcurrencyLimiter limiter, long latency, int requests) {
+		int admitted=0;
+		while(admitted < requests && limiter.tryAcquire()) {
+			admitted++;
+		}
+		now+=WINDOW;
+		for(int i=0; i < admitted; i++) {
+			limiter.release(latency, true, now);
+		}
+	}
+
+	@DisplayName("JUnit test for requests over the limit being turned away")
+	@Test
+	public void testRejectsOverLimit() {
+
+		AdaptiveConcurrencyLimiter limiter=new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, WINDOW, now);
+
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+		limiter.release(LATENCY, true, now);
+		assertTrue(limiter.tryAcquire());
+		assertEquals(2, limiter.getInFlight());
+	}
+
+	@DisplayName("JUnit test for the limit growing while latency holds and shrinking when it rises")
+	@Test
+	public void testFollowsLatency() {
+
+		AdaptiveConcurrencyLimiter limiter=new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5, WINDOW, now);
+		for(int window=0; window < 50; window++) {
+			runWindow(limiter, LATENCY, 1_000);
+		}
+		int grown=limiter.getLimit();
+		assertThat(grown).isGreaterThan(60);
+
+		for(int window=0; window < 20; window++) {
+			runWindow(limiter, LATENCY * 10, 1_000);
+		}
+		assertThat(limiter.getLimit()).isLessThan(grown / 2);
+
+		for(int window=0; window < 100; window++) {
+			runWindow(limiter, LATENCY * 100, 1_000);
+		}
+		assertEquals(4, limiter.getLimit());
+	}
+
+	@DisplayName("JUnit test for the limit staying put while most of it is unused")
+	@Test
+	public void testDoesNotGrowWhenIdle() {
+
+		AdaptiveConcurrencyLimiter limiter=new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5, WINDOW, now);
+		for(int window=0; window < 20; window++) {
+			runWindow(limiter, LATENCY, 5);
+		}
+
+		assertEquals(20, limiter.getLimit());
+	}
+
+}
@@ -0,0 +1,82 @@
+package net.javaguides.springboot.loadshedding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LoadSheddingInterceptorTest {
+
+	private final SimpleMeterRegistry meterRegistry=new SimpleMeterRegistry();
+
+	private static MockHttpServletRequest request(String method, String pattern, String client) {
+		MockHttpServletRequest request=new MockHttpServletRequest(method, pattern);
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+		request.addHeader("X-Client-Id", client);
+		return request;
+	}
+
+	@DisplayName("JUnit test for a client over its rate getting 429 while others go through")
+	@Test
+	public void testRateLimitsPerClient() {
+
+		LoadSheddingInterceptor interceptor=new LoadSheddingInterceptor(1, 2, 1000, Map.of(), "X-Client-Id", null, meterRegistry);
+
+		assertTrue(interceptor.preHandle(request("GET", "/api/employees/{id}", "a"), new MockHttpServletResponse(), null));
+		assertTrue(interceptor.preHandle(request("GET", "/api/employees/{id}", "a"), new MockHttpServletResponse(), null));
+		MockHttpServletResponse response=new MockHttpServletResponse();
+		assertFalse(interceptor.preHandle(request("GET", "/api/employees/{id}", "a"), response, null));
+		assertEquals(429, response.getStatus());
+		assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+
+		assertTrue(interceptor.preHandle(request("GET", "/api/employees/{id}", "b"), new MockHttpServletResponse(), null));
+		assertTrue(interceptor.preHandle(request("DELETE", "/api/employees/{id}", "a"), new MockHttpServletResponse(), null));
+		assertEquals(1, meterRegistry.get("http.server.requests.shed").tag("reason", "rate_limit").counter().count());
+	}
+
+	@DisplayName("JUnit test for an endpoint rate shared by all clients")
+	@Test
+	public void testRateLimitsPerEndpoint() {
+
+		LoadSheddingInterceptor interceptor=new LoadSheddingInterceptor(0, 1, 1000, Map.of("GET /api/allemployees", 1.0),
+				"X-Client-Id", null, meterRegistry);
+
+		assertTrue(interceptor.preHandle(request("GET", "/api/allemployees", "a"), new MockHttpServletResponse(), null));
+		MockHttpServletResponse response=new MockHttpServletResponse();
+		assertFalse(interceptor.preHandle(request("GET", "/api/allemployees", "b"), response, null));
+		assertEquals(429, response.getStatus());
+		assertTrue(interceptor.preHandle(request("GET", "/api/employees/{id}", "b"), new MockHttpServletResponse(), null));
+	}
+
+	@DisplayName("JUnit test for 503 once the concurrency limit is reached, until a request completes")
+	@Test
+	public void testShedsOverConcurrencyLimit() {
+
+		AdaptiveConcurrencyLimiter limiter=new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5, 100_000_000L, System.nanoTime());
+		LoadSheddingInterceptor interceptor=new LoadSheddingInterceptor(0, 1, 1000, Map.of(), "", limiter, meterRegistry);
+
+		MockHttpServletRequest first=request("GET", "/api/employees/{id}", "a");
+		MockHttpServletResponse firstResponse=new MockHttpServletResponse();
+		assertTrue(interceptor.preHandle(first, firstResponse, null));
+		MockHttpServletResponse response=new MockHttpServletResponse();
+		assertFalse(interceptor.preHandle(request("GET", "/api/employees/{id}", "b"), response, null));
+		assertEquals(503, response.getStatus());
+		assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+
+		interceptor.afterCompletion(first, firstResponse, null, null);
+		assertEquals(0, limiter.getInFlight());
+		assertTrue(interceptor.preHandle(request("GET", "/api/employees/{id}", "b"), new MockHttpServletResponse(), null));
+		assertEquals(1, meterRegistry.get("http.server.requests.shed").tag("reason", "concurrency").counter().count());
+	}
+
+}
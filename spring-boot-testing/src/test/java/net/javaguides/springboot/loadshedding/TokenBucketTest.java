@@ -0,0 +1,67 @@
+package net.javaguides.springboot.loadshedding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTest {
+
+	private static final long MILLIS=TimeUnit.MILLISECONDS.toNanos(1);
+
+	@DisplayName("JUnit test for a burst being served and the next token waiting for the refill")
+	@Test
+	public void testBurstThenRefill() {
+
+		long now=1_000 * MILLIS;
+		TokenBucket bucket=new TokenBucket(10, 3, now);
+
+		assertEquals(0, bucket.tryAcquire(now));
+		assertEquals(0, bucket.tryAcquire(now));
+		assertEquals(0, bucket.tryAcquire(now));
+		assertEquals(100 * MILLIS, bucket.tryAcquire(now));
+		assertEquals(40 * MILLIS, bucket.tryAcquire(now + 60 * MILLIS));
+		assertEquals(0, bucket.tryAcquire(now + 100 * MILLIS));
+		assertEquals(0, bucket.tryAcquire(now + 1_000 * MILLIS));
+	}
+
+	@DisplayName("JUnit test for concurrent callers never getting more than the burst")
+	@Test
+	public void testConcurrentAcquire() throws Exception {
+
+		long now=System.nanoTime();
+		TokenBucket bucket=new TokenBucket(1, 50, now);
+		AtomicInteger granted=new AtomicInteger();
+		CountDownLatch start=new CountDownLatch(1);
+		ExecutorService executor=Executors.newFixedThreadPool(8);
+		try {
+			for(int thread=0; thread < 8; thread++) {
+				executor.execute(() -> {
+					try {
+						start.await();
+					} catch(InterruptedException e) {
+						return;
+					}
+					for(int i=0; i < 100; i++) {
+						if(bucket.tryAcquire(now) == 0) {
+							granted.incrementAndGet();
+						}
+					}
+				});
+			}
+			start.countDown();
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+
+		assertEquals(50, granted.get());
+	}
+
+}
@@ -0,0 +1,79 @@
+package net.javaguides.springboot.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+
+public class MetricGroupsTest {
+	
+	private Statistics statistics;
+	
+	private MetricGroups metricGroups;
+	
+	@BeforeEach
+	public void setup() {
+		statistics=mock(Statistics.class);
+		SessionFactory sessionFactory=mock(SessionFactory.class);
+		when(sessionFactory.getStatistics()).thenReturn(statistics);
+		EntityManagerFactory entityManagerFactory=mock(EntityManagerFactory.class);
+		when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+		
+		DefaultListableBeanFactory beanFactory=new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("entityManagerFactory", entityManagerFactory);
+		MockEnvironment environment=new MockEnvironment()
+				.withProperty("app.metrics.repository.enabled", "false");
+		metricGroups=new MetricGroups(environment, beanFactory.getBeanProvider(MeterRegistry.class),
+				beanFactory.getBeanProvider(EntityManagerFactory.class), beanFactory.getBeanProvider(JvmGcMetrics.class));
+		metricGroups.afterSingletonsInstantiated();
+	}
+	
+	@DisplayName("JUnit test for metric groups starting from the configured state")
+	@Test
+	public void testInitialState() {
+		
+		assertTrue(metricGroups.isEnabled(MetricGroup.HTTP));
+		assertFalse(metricGroups.isEnabled(MetricGroup.REPOSITORY));
+		verify(statistics).setStatisticsEnabled(true);
+	}
+	
+	@DisplayName("JUnit test for switching Hibernate statistics off at runtime")
+	@Test
+	public void testDisableHibernate() {
+		
+		metricGroups.setEnabled(MetricGroup.HIBERNATE, false);
+		
+		assertFalse(metricGroups.isEnabled(MetricGroup.HIBERNATE));
+		assertFalse(metricGroups.asMap().get("hibernate"));
+		verify(statistics).setStatisticsEnabled(false);
+	}
+	
+	@DisplayName("JUnit test for the metric groups endpoint rejecting an unknown group")
+	@Test
+	public void testEndpointUnknownGroup() {
+		
+		MetricGroupsEndpoint endpoint=new MetricGroupsEndpoint();
+		ReflectionTestUtils.setField(endpoint, "metricGroups", metricGroups);
+		
+		assertThrows(InvalidEndpointRequestException.class, () -> endpoint.setEnabled("sockets", false));
+		assertFalse(endpoint.setEnabled("http", false).get("http"));
+	}
+
+}
@@ -1,8 +1,62 @@
 package net.javaguides.springboot.repository;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import net.javaguides.springboot.config.JpaConfig;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeJdbcRepository.TableVersion;
 
 @DataJpaTest
+@Import({JpaConfig.class, EmployeeJdbcRepository.class})
 public class EmployeeRepositoryTests {
 
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private EmployeeJdbcRepository employeeJdbcRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DisplayName("JUnit test for the plain SQL updates bumping the version and honouring the expected one")
+	@Test
+	public void testUpdateBumpsVersion() {
+
+		Employee employee=employeeRepository.saveAndFlush(Employee.builder().firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build());
+		long id=employee.getId();
+
+		assertThat(employeeRepository.findVersionById(id)).contains(0L);
+		assertEquals(1, employeeJdbcRepository.update(id, "Revathi", "Vaka", "revtishere@gmail.com", 0L));
+		assertEquals(0, employeeJdbcRepository.update(id, "Lekha", "Reddy", "lekha@gmail.com", 0L));
+		assertEquals(1, employeeJdbcRepository.updateNonNull(id, null, null, "lekha@gmail.com", null));
+		assertThat(employeeRepository.findVersionById(id)).contains(2L);
+		assertThat(employeeRepository.findVersionById(id + 1)).isEmpty();
+	}
+
+	@DisplayName("JUnit test for the table version moving with inserts done outside Hibernate")
+	@Test
+	public void testTableVersion() {
+
+		TableVersion emptyTable=employeeJdbcRepository.tableVersion();
+		// relies on the column default, like the import path
+		jdbcTemplate.update("insert into employees (id, first_name, last_name, email) values (100000, 'Chandra', 'Reddy', 'csranam@gmail.com')");
+		TableVersion oneRow=employeeJdbcRepository.tableVersion();
+		employeeJdbcRepository.update(100000L, "Revathi", "Vaka", "revtishere@gmail.com", null);
+
+		assertNotEquals(emptyTable.tag(), oneRow.tag());
+		assertNotEquals(oneRow.tag(), employeeJdbcRepository.tableVersion().tag());
+		assertEquals(1, oneRow.rows());
+		assertThat(employeeRepository.findVersionById(100000L)).contains(1L);
+	}
+
 }
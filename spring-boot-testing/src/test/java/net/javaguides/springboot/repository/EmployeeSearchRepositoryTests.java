@@ -0,0 +1,122 @@
+package net.javaguides.springboot.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+
+import net.javaguides.springboot.dto.EmployeeSearch;
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.model.Employee;
+
+@JdbcTest(properties="spring.datasource.url=jdbc:h2:mem:search")
+@Import(EmployeeSearchRepository.class)
+@Sql(scripts="/db/employees-schema.sql", statements={
+		"insert into employees (id, first_name, last_name, email) values (1, 'Chandra', 'Reddy', 'csranam@gmail.com')",
+		"insert into employees (id, first_name, last_name, email) values (2, 'Revathi', 'Vaka', 'revtishere@gmail.com')",
+		"insert into employees (id, first_name, last_name, email) values (3, 'Ram', 'Reddy', 'ram@gmail.com')",
+		"insert into employees (id, first_name, last_name, email) values (4, 'ramesh', 'Anam', 'ramesh@gmail.com')",
+		"insert into employees (id, first_name, last_name, email) values (5, 'Duckie', 'Anam', 'duckie@gmail.com')"
+})
+public class EmployeeSearchRepositoryTests {
+	
+	@Autowired
+	private EmployeeSearchRepository employeeSearchRepository;
+	
+	@DisplayName("JUnit test for case-insensitive prefix search")
+	@Test
+	public void testSearchByPrefix() {
+		
+		EmployeeSearch search=new EmployeeSearch();
+		search.setFirstName("RAM");
+		
+		EmployeeSearchPage page=employeeSearchRepository.search(search, 10);
+		
+		assertThat(page.getContent()).extracting(Employee::getId).containsExactly(3L, 4L);
+		assertNull(page.getNextCursor());
+	}
+	
+	@DisplayName("JUnit test for combined filters")
+	@Test
+	public void testSearchByTwoFields() {
+		
+		EmployeeSearch search=new EmployeeSearch();
+		search.setLastName("reddy");
+		search.setEmail("cs");
+		
+		EmployeeSearchPage page=employeeSearchRepository.search(search, 10);
+		
+		assertThat(page.getContent()).extracting(Employee::getId).containsExactly(1L);
+	}
+	
+	@DisplayName("JUnit test for wildcards in the search text being matched literally")
+	@Test
+	public void testSearchEscapesWildcards() {
+		
+		EmployeeSearch search=new EmployeeSearch();
+		search.setFirstName("r%");
+		
+		assertThat(employeeSearchRepository.search(search, 10).getContent()).isEmpty();
+	}
+	
+	@DisplayName("JUnit test for keyset pages sorted by a non-unique field")
+	@Test
+	public void testSearchPagesSortedByLastName() {
+		
+		for(String direction : List.of("asc", "desc")) {
+			EmployeeSearch search=new EmployeeSearch();
+			search.setSort("lastName");
+			search.setDirection(direction);
+			List<Long> ids=new ArrayList<>();
+			EmployeeSearchPage page;
+			do {
+				page=employeeSearchRepository.search(search, 2);
+				page.getContent().forEach(employee -> ids.add(employee.getId()));
+				search.setAfter(page.getNextCursor());
+			} while(page.getNextCursor() != null);
+			
+			List<Long> expected=List.of(4L, 5L, 1L, 3L, 2L);
+			assertThat(ids).containsExactlyElementsOf(direction.equals("asc") ? expected : expected.reversed());
+		}
+	}
+	
+	@DisplayName("JUnit test for a cursor used with another sort field being rejected")
+	@Test
+	public void testSearchRejectsCursorForOtherSort() {
+		
+		EmployeeSearch search=new EmployeeSearch();
+		search.setSort("email");
+		String cursor=employeeSearchRepository.search(search, 1).getNextCursor();
+		
+		search.setSort("firstName");
+		search.setAfter(cursor);
+		
+		assertThrows(IllegalArgumentException.class, search::validate);
+	}
+
+	@DisplayName("JUnit test for deleting matching employees a chunk at a time")
+	@Test
+	public void testDeleteMatchingInChunks() {
+		
+		EmployeeSearch search=new EmployeeSearch();
+		search.setLastName("ANAM");
+		
+		assertEquals(1, employeeSearchRepository.deleteMatching(search, 1));
+		assertThat(employeeSearchRepository.search(search, 10).getContent()).extracting(Employee::getId).containsExactly(5L);
+		assertEquals(1, employeeSearchRepository.deleteMatching(search, 1));
+		assertEquals(0, employeeSearchRepository.deleteMatching(search, 1));
+		assertThat(employeeSearchRepository.search(new EmployeeSearch(), 10).getContent()).extracting(Employee::getId)
+				.containsExactly(1L, 2L, 3L);
+	}
+
+}
@@ -0,0 +1,63 @@
+package net.javaguides.springboot.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import net.javaguides.springboot.model.Employee;
+
+@JdbcTest(properties="spring.datasource.url=jdbc:h2:mem:transfer")
+@Import(EmployeeTransferRepository.class)
+@Sql(scripts="/db/employees-schema.sql", statements=
+		"insert into employees (id, first_name, last_name, email) values (100000, 'Chandra', 'Reddy', 'csranam@gmail.com')")
+public class EmployeeTransferRepositoryTests {
+
+	@Autowired
+	private EmployeeTransferRepository employeeTransferRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DisplayName("JUnit test for batched inserts with ids taken from the sequence in blocks")
+	@Test
+	public void testInsertAll() {
+
+		List<Employee> employees=new ArrayList<>();
+		for(int i=0; i < Employee.ID_ALLOCATION_SIZE + 2; i++) {
+			employees.add(Employee.builder().firstName("First" + i).lastName("Last" + i).email("import" + i + "@example.com").build());
+		}
+
+		assertFalse(employeeTransferRepository.isCopySupported());
+		employeeTransferRepository.insertAll(employees);
+
+		assertEquals(Employee.ID_ALLOCATION_SIZE + 3, jdbcTemplate.queryForObject("select count(*) from employees", Integer.class));
+		assertThat(employees).extracting(Employee::getId).doesNotHaveDuplicates().doesNotContain(0L, 100000L);
+		long firstBlock=employees.get(0).getId();
+		assertEquals(firstBlock + Employee.ID_ALLOCATION_SIZE - 1, employees.get(Employee.ID_ALLOCATION_SIZE - 1).getId());
+		assertEquals("import51@example.com", jdbcTemplate.queryForObject("select email from employees where id = ?",
+				String.class, employees.get(51).getId()));
+	}
+
+	@DisplayName("JUnit test for an insert that repeats an existing email")
+	@Test
+	public void testInsertAllDuplicateEmail() {
+
+		List<Employee> employees=List.of(Employee.builder().firstName("Duckie").lastName("Anam").email("csranam@gmail.com").build());
+
+		assertThrows(DuplicateKeyException.class, () -> employeeTransferRepository.insertAll(employees));
+	}
+
+}
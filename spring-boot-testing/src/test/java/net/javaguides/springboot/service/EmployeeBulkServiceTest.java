@@ -0,0 +1,227 @@
+package net.javaguides.springboot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import net.javaguides.springboot.cache.EmployeeCacheInvalidator;
+import net.javaguides.springboot.config.CacheConfig;
+import net.javaguides.springboot.dto.BulkItemResult.Status;
+import net.javaguides.springboot.dto.BulkResponse;
+import net.javaguides.springboot.dto.EmployeeSearch;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeJdbcRepository;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.repository.EmployeeSearchRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeBulkServiceTest {
+	
+	@Mock
+	private EmployeeRepository employeeRepository;
+	
+	@Mock
+	private EmployeeSearchRepository employeeSearchRepository;
+	
+	@Mock
+	private EmployeeJdbcRepository employeeJdbcRepository;
+	
+	@Mock
+	private EntityManagerFactory entityManagerFactory;
+	
+	@Mock
+	private Cache cache;
+	
+	@Mock
+	private CacheManager cacheManager;
+	
+	@Mock
+	private org.springframework.cache.Cache springCache;
+	
+	@Mock
+	private EmployeeCacheInvalidator employeeCacheInvalidator;
+	
+	@InjectMocks
+	private EmployeeBulkService employeeBulkService;
+	
+	@DisplayName("JUnit test for bulk save reporting created, duplicate and invalid rows")
+	@Test
+	public void testSaveEmployees() {
+		
+		List<Employee> employees=new ArrayList<>();
+		employees.add(Employee.builder().firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build());
+		employees.add(Employee.builder().firstName("Revathi").lastName("Vaka").email("revtishere@gmail.com").build());
+		employees.add(Employee.builder().firstName("Duckie").lastName("Anam").email("csranam@gmail.com").build());
+		employees.add(Employee.builder().firstName("Lekha").build());
+		
+		when(employeeRepository.findExistingEmails(anyCollection())).thenReturn(List.of("revtishere@gmail.com"));
+		when(employeeRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<Employee> saved=invocation.getArgument(0);
+			saved.forEach(employee -> employee.setId(7L));
+			return saved;
+		});
+		
+		BulkResponse response=employeeBulkService.saveEmployees(employees);
+		
+		assertEquals(1,response.getSucceeded());
+		assertEquals(3,response.getFailed());
+		assertThat(response.getResults()).extracting("status")
+				.containsExactly(Status.CREATED, Status.DUPLICATE, Status.DUPLICATE, Status.INVALID);
+		assertEquals(7L,response.getResults().get(0).getId());
+	}
+	
+	@DisplayName("JUnit test for bulk save checking existing emails in chunks")
+	@Test
+	public void testSaveEmployeesChunksEmailLookup() {
+		
+		List<Employee> employees=new ArrayList<>();
+		for(int i=0; i < EmployeeBulkService.IN_CLAUSE_CHUNK_SIZE + 1; i++) {
+			employees.add(Employee.builder().firstName("First"+i).lastName("Last").email("employee"+i+"@gmail.com").build());
+		}
+		
+		when(employeeRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+		when(employeeRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		
+		BulkResponse response=employeeBulkService.saveEmployees(employees);
+		
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Collection<String>> emails=ArgumentCaptor.forClass(Collection.class);
+		verify(employeeRepository, times(2)).findExistingEmails(emails.capture());
+		assertThat(emails.getAllValues()).extracting(Collection::size)
+				.containsExactly(EmployeeBulkService.IN_CLAUSE_CHUNK_SIZE, 1);
+		assertEquals(employees.size(),response.getSucceeded());
+	}
+	
+	@DisplayName("JUnit test for bulk update reporting updated and missing rows")
+	@Test
+	public void testUpdateEmployees() {
+		
+		Employee savedEmployee=Employee.builder().id(1L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build();
+		
+		List<Employee> employees=new ArrayList<>();
+		employees.add(Employee.builder().id(1L).firstName("lekha").lastName("Reddy").email("lekha@gmail.com").build());
+		employees.add(Employee.builder().id(2L).firstName("Revathi").lastName("Vaka").email("revtishere@gmail.com").build());
+		
+		when(employeeRepository.findAllById(any())).thenReturn(List.of(savedEmployee));
+		
+		BulkResponse response=employeeBulkService.updateEmployees(employees);
+		
+		assertThat(response.getResults()).extracting("status").containsExactly(Status.UPDATED, Status.NOT_FOUND);
+		assertEquals("lekha@gmail.com",savedEmployee.getEmail());
+		assertEquals("lekha",savedEmployee.getFirstName());
+	}
+	
+	@DisplayName("JUnit test for bulk update reporting emails taken in the table or by an earlier row")
+	@Test
+	public void testUpdateEmployeesWithTakenEmails() {
+		
+		Employee chandra=Employee.builder().id(1L).firstName("Chandra").lastName("Reddy").email("csranam@gmail.com").build();
+		Employee revathi=Employee.builder().id(2L).firstName("Revathi").lastName("Vaka").email("revtishere@gmail.com").build();
+		Employee lekha=Employee.builder().id(3L).firstName("Lekha").lastName("Reddy").email("lekha@gmail.com").build();
+		
+		List<Employee> employees=new ArrayList<>();
+		// keeps its own email
+		employees.add(Employee.builder().id(1L).firstName("Chandra").lastName("Anam").email("csranam@gmail.com").build());
+		// takes the email of another employee
+		employees.add(Employee.builder().id(2L).firstName("Revathi").lastName("Vaka").email("lekha@gmail.com").build());
+		employees.add(Employee.builder().id(2L).firstName("Revathi").lastName("Vaka").email("revathi@gmail.com").build());
+		// takes the new email of an earlier row
+		employees.add(Employee.builder().id(3L).firstName("Lekha").lastName("Reddy").email("revathi@gmail.com").build());
+		
+		when(employeeRepository.findAllById(any())).thenReturn(List.of(chandra, revathi, lekha));
+		when(employeeRepository.findExistingEmails(anyCollection())).thenReturn(List.of("csranam@gmail.com", "lekha@gmail.com"));
+		
+		BulkResponse response=employeeBulkService.updateEmployees(employees);
+		
+		assertThat(response.getResults()).extracting("status")
+				.containsExactly(Status.UPDATED, Status.DUPLICATE, Status.UPDATED, Status.DUPLICATE);
+		assertEquals("Anam",chandra.getLastName());
+		assertEquals("revathi@gmail.com",revathi.getEmail());
+		assertEquals("lekha@gmail.com",lekha.getEmail());
+	}
+	
+	@DisplayName("JUnit test for bulk delete with one batch and the deleted rows of each id")
+	@Test
+	public void testDeleteEmployees() {
+		
+		when(employeeJdbcRepository.deleteAllById(List.of(1L, 2L, 3L))).thenReturn(new int[] {1, 1, 0});
+		
+		BulkResponse response=employeeBulkService.deleteEmployees(List.of(1L, 2L, 2L, 3L));
+		
+		assertThat(response.getResults()).extracting("status")
+				.containsExactly(Status.DELETED, Status.DELETED, Status.NOT_FOUND, Status.NOT_FOUND);
+		assertEquals(2,response.getSucceeded());
+	}
+
+	@DisplayName("JUnit test for deleting matching employees until a chunk comes back empty")
+	@Test
+	public void testDeleteEmployeesMatching() {
+		
+		ReflectionTestUtils.setField(employeeBulkService, "deleteChunkSize", 2);
+		EmployeeSearch search=new EmployeeSearch();
+		search.setEmail("test");
+		when(employeeSearchRepository.deleteMatching(search, 2)).thenReturn(2, 1, 0);
+		when(entityManagerFactory.getCache()).thenReturn(cache);
+		when(cacheManager.getCache(anyString())).thenReturn(springCache);
+		
+		assertEquals(3, employeeBulkService.deleteEmployeesMatching(search));
+		verify(employeeSearchRepository, times(3)).deleteMatching(search, 2);
+		verify(cache).evict(Employee.class);
+		verify(springCache, times(2)).clear();
+		verify(employeeCacheInvalidator).allEmployeesChanged();
+	}
+	
+	@DisplayName("JUnit test for clearing the caches when deleting matching employees fails part way")
+	@Test
+	public void testDeleteEmployeesMatchingFailure() {
+		
+		ReflectionTestUtils.setField(employeeBulkService, "deleteChunkSize", 2);
+		EmployeeSearch search=new EmployeeSearch();
+		search.setEmail("test");
+		when(employeeSearchRepository.deleteMatching(search, 2)).thenReturn(2).thenThrow(new QueryTimeoutException("canceled"));
+		when(entityManagerFactory.getCache()).thenReturn(cache);
+		when(cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID)).thenReturn(springCache);
+		when(cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL)).thenReturn(springCache);
+		
+		assertThrows(QueryTimeoutException.class, () -> employeeBulkService.deleteEmployeesMatching(search));
+		verify(cache).evict(Employee.class);
+		verify(springCache, times(2)).clear();
+		verify(employeeCacheInvalidator).allEmployeesChanged();
+	}
+	
+	@DisplayName("JUnit test for a delete without filters being rejected")
+	@Test
+	public void testDeleteEmployeesMatchingRequiresFilter() {
+		
+		assertThrows(IllegalArgumentException.class, () -> employeeBulkService.deleteEmployeesMatching(new EmployeeSearch()));
+		verify(employeeSearchRepository, never()).deleteMatching(any(), anyInt());
+	}
+
+}
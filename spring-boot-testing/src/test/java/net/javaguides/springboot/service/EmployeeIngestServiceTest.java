@@ -0,0 +1,133 @@
+package net.javaguides.springboot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.springboot.dto.BulkItemResult;
+import net.javaguides.springboot.dto.BulkItemResult.Status;
+import net.javaguides.springboot.dto.BulkResponse;
+import net.javaguides.springboot.dto.IngestStatus;
+import net.javaguides.springboot.dto.IngestStatus.State;
+import net.javaguides.springboot.model.Employee;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeIngestServiceTest {
+
+	@Mock
+	private EmployeeBulkService employeeBulkService;
+
+	@Spy
+	private MeterRegistry meterRegistry=new SimpleMeterRegistry();
+
+	@InjectMocks
+	private EmployeeIngestService employeeIngestService;
+
+	@BeforeEach
+	public void setup() {
+		ReflectionTestUtils.setField(employeeIngestService, "queueCapacity", 2);
+		ReflectionTestUtils.setField(employeeIngestService, "batchSize", 10);
+		ReflectionTestUtils.setField(employeeIngestService, "statusRetention", Duration.ofMinutes(1));
+		ReflectionTestUtils.setField(employeeIngestService, "running", true);
+		employeeIngestService.init();
+	}
+
+	@DisplayName("JUnit test for writing queued employees in one batch")
+	@Test
+	public void testWritePending() {
+
+		when(employeeBulkService.saveEmployees(anyList())).thenReturn(BulkResponse.of(List.of(
+				new BulkItemResult(0, 7L, Status.CREATED, null),
+				new BulkItemResult(1, null, Status.DUPLICATE, "Employee already exist with given email:revtishere@gmail.com"))));
+
+		IngestStatus first=employeeIngestService.submit(employee("csranam@gmail.com")).orElseThrow();
+		IngestStatus second=employeeIngestService.submit(employee("revtishere@gmail.com")).orElseThrow();
+		assertEquals(State.QUEUED, employeeIngestService.getStatus(first.getTrackingId()).orElseThrow().getState());
+
+		assertEquals(2, employeeIngestService.writePending());
+
+		verify(employeeBulkService, times(1)).saveEmployees(anyList());
+		IngestStatus created=employeeIngestService.getStatus(first.getTrackingId()).orElseThrow();
+		assertEquals(State.CREATED, created.getState());
+		assertEquals(7L, created.getId());
+		assertEquals(State.DUPLICATE, employeeIngestService.getStatus(second.getTrackingId()).orElseThrow().getState());
+		assertEquals(0, employeeIngestService.writePending());
+	}
+
+	@DisplayName("JUnit test for queued employees outliving the retention of outcomes")
+	@Test
+	public void testQueuedStatusIsNotEvicted() {
+
+		ReflectionTestUtils.setField(employeeIngestService, "statusRetention", Duration.ZERO);
+		employeeIngestService.init();
+		when(employeeBulkService.saveEmployees(anyList())).thenReturn(BulkResponse.of(List.of(
+				new BulkItemResult(0, 7L, Status.CREATED, null))));
+
+		IngestStatus queued=employeeIngestService.submit(employee("csranam@gmail.com")).orElseThrow();
+		assertEquals(State.QUEUED, employeeIngestService.getStatus(queued.getTrackingId()).orElseThrow().getState());
+
+		employeeIngestService.writePending();
+
+		assertTrue(employeeIngestService.getStatus(queued.getTrackingId()).isEmpty());
+	}
+
+	@DisplayName("JUnit test for refusing employees while the queue is full")
+	@Test
+	public void testSubmitWhenQueueFull() {
+
+		assertTrue(employeeIngestService.submit(employee("a@example.com")).isPresent());
+		assertTrue(employeeIngestService.submit(employee("b@example.com")).isPresent());
+
+		assertTrue(employeeIngestService.submit(employee("c@example.com")).isEmpty());
+	}
+
+	@DisplayName("JUnit test for retrying a failed batch one employee at a time")
+	@Test
+	public void testWritePendingRetriesFailedBatch() {
+
+		List<List<Employee>> calls=new ArrayList<>();
+		when(employeeBulkService.saveEmployees(anyList())).thenAnswer(invocation -> {
+			List<Employee> employees=new ArrayList<>(invocation.getArgument(0));
+			calls.add(employees);
+			if(employees.size() > 1 || employees.get(0).getEmail().equals("b@example.com")) {
+				throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+			}
+			return BulkResponse.of(List.of(new BulkItemResult(0, 3L, Status.CREATED, null)));
+		});
+
+		IngestStatus first=employeeIngestService.submit(employee("a@example.com")).orElseThrow();
+		IngestStatus second=employeeIngestService.submit(employee("b@example.com")).orElseThrow();
+
+		employeeIngestService.writePending();
+
+		assertThat(calls).extracting(List::size).containsExactly(2, 1, 1);
+		assertEquals(State.CREATED, employeeIngestService.getStatus(first.getTrackingId()).orElseThrow().getState());
+		assertEquals(State.FAILED, employeeIngestService.getStatus(second.getTrackingId()).orElseThrow().getState());
+	}
+
+	private static Employee employee(String email) {
+		return Employee.builder().firstName("Chandra").lastName("Reddy").email(email).build();
+	}
+
+}
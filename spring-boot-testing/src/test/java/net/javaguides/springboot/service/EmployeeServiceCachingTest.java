@@ -0,0 +1,266 @@
+package net.javaguides.springboot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.springboot.cache.CoalescingAspect;
+import net.javaguides.springboot.cache.EmployeeCacheInvalidator;
+import net.javaguides.springboot.config.CacheConfig;
+import net.javaguides.springboot.config.ReplicaRoutingDataSource;
+import net.javaguides.springboot.config.ReplicaRoutingDataSource.RequestScope;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeJdbcRepository;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.repository.EmployeeSearchRepository;
+
+@SpringJUnitConfig
+public class EmployeeServiceCachingTest {
+	
+	@Configuration
+	@EnableAspectJAutoProxy
+	@Import({CacheConfig.class, EmployeeService.class})
+	static class Config {
+		
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager(CacheConfig.EMPLOYEES_BY_ID, CacheConfig.EMPLOYEES_BY_EMAIL);
+		}
+		
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+		
+		@Bean
+		CoalescingAspect coalescingAspect(MeterRegistry meterRegistry) {
+			return new CoalescingAspect(true, Map.of(), meterRegistry);
+		}
+	}
+	
+	@MockBean
+	private EmployeeRepository employeeRepository;
+	
+	@MockBean
+	private EmployeeJdbcRepository employeeJdbcRepository;
+	
+	@MockBean
+	private EmployeeSearchRepository employeeSearchRepository;
+	
+	@MockBean
+	private EmployeeCacheInvalidator employeeCacheInvalidator;
+	
+	@Autowired
+	private EmployeeService employeeService;
+	
+	@Autowired
+	private CacheManager cacheManager;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	private Employee employee;
+	
+	@BeforeEach
+	public void setup() {
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+		employee = Employee.builder()
+				.id(1L)
+				.firstName("Chandra")
+				.lastName("Reddy")
+				.email("csranam@gmail.com")
+				.build();
+	}
+	
+	@DisplayName("JUnit test for repeated getEmployeeById calls being served from the cache")
+	@Test
+	public void testGetEmployeeByIdIsCached() {
+		
+		when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+		
+		employeeService.getEmployeeById(1L);
+		Optional<Employee> cachedEmployee=employeeService.getEmployeeById(1L);
+		
+		assertThat(cachedEmployee).contains(employee);
+		verify(employeeRepository, times(1)).findById(1L);
+	}
+	
+	@DisplayName("JUnit test for misses not being cached")
+	@Test
+	public void testMissingEmployeeIsNotCached() {
+		
+		when(employeeRepository.findByEmail("csranam@gmail.com")).thenReturn(Optional.empty());
+		
+		employeeService.getEmployeeByEmail("csranam@gmail.com");
+		employeeService.getEmployeeByEmail("csranam@gmail.com");
+		
+		verify(employeeRepository, times(2)).findByEmail("csranam@gmail.com");
+	}
+	
+	@DisplayName("JUnit test for updates refreshing the by-id cache and clearing the by-email cache")
+	@Test
+	public void testUpdateEmployeeRefreshesCache() {
+		
+		Employee updatedEmployee=Employee.builder().id(1L).firstName("lekha").lastName("Reddy").email("lekha@gmail.com").build();
+		when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+		when(employeeRepository.findByEmail("csranam@gmail.com")).thenReturn(Optional.of(employee));
+		when(employeeRepository.saveAndFlush(any(Employee.class))).thenReturn(updatedEmployee);
+		
+		employeeService.getEmployeeById(1L);
+		employeeService.getEmployeeByEmail("csranam@gmail.com");
+		employeeService.updateEmployee(updatedEmployee);
+		
+		assertThat(employeeService.getEmployeeById(1L)).contains(updatedEmployee);
+		verify(employeeRepository, times(1)).findById(1L);
+		assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES_BY_EMAIL).get("csranam@gmail.com")).isNull();
+	}
+	
+	@DisplayName("JUnit test for versions being read from the cached employee, and only from the row on a miss")
+	@Test
+	public void testGetEmployeeVersionUsesCache() {
+		
+		employee.setVersion(5L);
+		when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+		when(employeeRepository.findVersionById(2L)).thenReturn(Optional.of(7L));
+		
+		employeeService.getEmployeeById(1L);
+		
+		assertThat(employeeService.getEmployeeVersion(1L)).contains(5L);
+		assertThat(employeeService.getEmployeeVersion(2L)).contains(7L);
+		verify(employeeRepository, never()).findVersionById(1L);
+	}
+	
+	@DisplayName("JUnit test for conditional replaces caching the employee at its new version")
+	@Test
+	public void testReplaceEmployeeAtVersionRefreshesCache() {
+		
+		when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+		when(employeeJdbcRepository.update(1L, "lekha", "Reddy", "lekha@gmail.com", 0L)).thenReturn(1);
+		
+		employeeService.getEmployeeById(1L);
+		employeeService.replaceEmployee(1L, Employee.builder().firstName("lekha").lastName("Reddy").email("lekha@gmail.com").build(), 0L);
+		
+		assertThat(employeeService.getEmployeeVersion(1L)).contains(1L);
+		assertThat(employeeService.getEmployeeById(1L)).get().extracting(Employee::getFirstName).isEqualTo("lekha");
+		verify(employeeRepository, times(1)).findById(1L);
+	}
+	
+	@DisplayName("JUnit test for deletes evicting the cached employee")
+	@Test
+	public void testDeleteEmployeeEvictsCache() {
+		
+		when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+		
+		employeeService.getEmployeeById(1L);
+		employeeService.deleteEmployee(1L);
+		employeeService.getEmployeeById(1L);
+		
+		verify(employeeRepository, times(2)).findById(1L);
+	}
+
+	@DisplayName("JUnit test for concurrent misses of the same employee sharing one query")
+	@Test
+	public void testConcurrentGetEmployeeByIdIsCoalesced() throws Exception {
+		
+		CountDownLatch release=new CountDownLatch(1);
+		when(employeeRepository.findById(1L)).thenAnswer(invocation -> {
+			release.await();
+			return Optional.of(employee);
+		});
+		double loaded=calls("loaded");
+		double shared=calls("shared");
+		ExecutorService executor=Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Optional<Employee>>> results=new ArrayList<>();
+			for(int i=0; i < 4; i++) {
+				results.add(executor.submit(() -> employeeService.getEmployeeById(1L)));
+			}
+			long deadline=System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while(calls("shared") - shared < 3 && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+			
+			for(Future<Optional<Employee>> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).contains(employee);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(employeeRepository, times(1)).findById(1L);
+		assertThat(calls("loaded") - loaded).isEqualTo(1);
+		assertThat(calls("shared") - shared).isEqualTo(3);
+	}
+	
+	@DisplayName("JUnit test for a request pinned to the primary not sharing a call in flight")
+	@Test
+	public void testGetEmployeeByIdOnPrimaryIsNotCoalesced() throws Exception {
+		
+		CountDownLatch release=new CountDownLatch(1);
+		when(employeeRepository.findById(1L)).thenAnswer(invocation -> {
+			if(!ReplicaRoutingDataSource.isRequestOnPrimary()) {
+				release.await();
+			}
+			return Optional.of(employee);
+		});
+		double loaded=calls("loaded");
+		ExecutorService executor=Executors.newFixedThreadPool(2);
+		try {
+			Future<Optional<Employee>> replicaRead=executor.submit(() -> employeeService.getEmployeeById(1L));
+			long deadline=System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while(calls("loaded") - loaded < 1 && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			
+			// would wait for the replica read if it joined it
+			Future<Optional<Employee>> primaryRead=executor.submit(() -> {
+				try (RequestScope scope=ReplicaRoutingDataSource.openRequest(true)) {
+					return employeeService.getEmployeeById(1L);
+				}
+			});
+			assertThat(primaryRead.get(5, TimeUnit.SECONDS)).contains(employee);
+			release.countDown();
+			assertThat(replicaRead.get(5, TimeUnit.SECONDS)).contains(employee);
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(employeeRepository, times(2)).findById(1L);
+	}
+	
+	/** Counted since the context started, 0 before the first call. */
+	private double calls(String outcome) {
+		FunctionCounter counter=meterRegistry.find("coalescing.calls").tag("method", "employee-by-id").tag("outcome", outcome)
+				.functionCounter();
+		return counter == null ? 0 : counter.count();
+	}
+
+}
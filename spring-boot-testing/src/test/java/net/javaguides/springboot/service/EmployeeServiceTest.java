@@ -2,10 +2,13 @@ package net.javaguides.springboot.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -15,7 +18,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,9 +28,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 
+import net.javaguides.springboot.cache.EmployeeCacheInvalidator;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeView;
 import net.javaguides.springboot.exception.ResourceNotFoundException;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeJdbcRepository;
+import net.javaguides.springboot.repository.EmployeeJdbcRepository.TableVersion;
 import net.javaguides.springboot.repository.EmployeeRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +47,12 @@ public class EmployeeServiceTest {
 	@Mock
 	private EmployeeRepository employeeRepository;
 	
+	@Mock
+	private EmployeeJdbcRepository employeeJdbcRepository;
+	
+	@Mock
+	private EmployeeCacheInvalidator employeeCacheInvalidator;
+	
 	@InjectMocks
 	private EmployeeService employeeService;
 	
@@ -54,11 +73,12 @@ public class EmployeeServiceTest {
 	@Test
 	public void testSaveEmployee() {
 				
-		when(employeeRepository.save(any(Employee.class))).thenReturn(employee);
+		when(employeeRepository.saveAndFlush(any(Employee.class))).thenReturn(employee);
 		
 		Employee savedEmployee=employeeService.saveEmployee(employee);
 		
 		assertEquals("Chandra",savedEmployee.getFirstName());
+		verify(employeeRepository,never()).findByEmail(any(String.class));
 		
 	}
 	
@@ -67,17 +87,31 @@ public class EmployeeServiceTest {
 	@Test
 	public void testSaveEmployeeException() {
 		
-		when(employeeRepository.findByEmail(employee.getEmail())).thenReturn(Optional.of(employee));
+		when(employeeRepository.saveAndFlush(any(Employee.class))).thenThrow(new DataIntegrityViolationException("duplicate key",
+				new ConstraintViolationException("duplicate key", null, Employee.EMAIL_UNIQUE_CONSTRAINT)));
 		
 		assertThrows(ResourceNotFoundException.class,() -> {
 			employeeService.saveEmployee(employee);
 			});
 		
-		verify(employeeRepository,never()).save(any(Employee.class));
+		verify(employeeRepository,never()).findByEmail(any(String.class));
 		
 	}
 	
 	
+	@DisplayName("JUnit test for Save method in Service Class passing through other integrity violations")
+	@Test
+	public void testSaveEmployeeOtherViolation() {
+		
+		when(employeeRepository.saveAndFlush(any(Employee.class))).thenThrow(new DataIntegrityViolationException("null value",
+				new ConstraintViolationException("null value", null, "employees_first_name_not_null")));
+		
+		assertThrows(DataIntegrityViolationException.class,() -> {
+			employeeService.saveEmployee(employee);
+			});
+	}
+	
+	
 	@DisplayName("JUnit test for getAllEmployees method in Service Class")
 	@Test
 	public void testGelAllEmployees() {
@@ -128,6 +162,89 @@ public class EmployeeServiceTest {
 	}
 	
 	
+	@DisplayName("JUnit test for getAllEmployeesUnlessNotModified method in Service Class")
+	@Test
+	public void testGetAllEmployeesUnlessNotModified() {
+		
+		when(employeeJdbcRepository.tableVersion()).thenReturn(new TableVersion(1, "1-1-0"));
+		when(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(3))).thenReturn(List.of(employee));
+		
+		Optional<List<Employee>> employees=employeeService.getAllEmployeesUnlessNotModified(tag -> false, 2);
+		
+		assertThat(employees).contains(List.of(employee));
+	}
+	
+	
+	@DisplayName("JUnit test for getAllEmployeesUnlessNotModified method in Service Class with a current tag")
+	@Test
+	public void testGetAllEmployeesUnlessNotModifiedCurrentTag() {
+		
+		when(employeeJdbcRepository.tableVersion()).thenReturn(new TableVersion(1, "1-1-0"));
+		
+		Optional<List<Employee>> employees=employeeService.getAllEmployeesUnlessNotModified("1-1-0"::equals, 2);
+		
+		assertThat(employees).isEmpty();
+		verify(employeeRepository, never()).findByIdGreaterThanOrderByIdAsc(any(Long.class), any());
+	}
+	
+	
+	@DisplayName("JUnit test for getEmployeePage method in Service Class when more rows follow")
+	@Test
+	public void testGetEmployeePage() {
+		
+		Employee employee1 = Employee.builder()
+				.id(2L)
+				.firstName("Revathi")
+				.lastName("Vaka")
+				.email("revtishere@gmail.com")
+				.build();
+		
+		List<Employee> employees=new ArrayList<>();
+		employees.add(employee);
+		employees.add(employee1);
+		
+		when(employeeRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), eq(PageRequest.ofSize(2)))).thenReturn(employees);
+		
+		EmployeePage<Employee> page=employeeService.getEmployeePage(0L, 1);
+		
+		assertThat(page.getContent()).containsExactly(employee);
+		assertEquals(1L,page.getNextCursor());
+	}
+	
+	
+	@DisplayName("JUnit test for getEmployeePage method in Service Class on the last page")
+	@Test
+	public void testGetLastEmployeePage() {
+		
+		when(employeeRepository.findByIdGreaterThanOrderByIdAsc(eq(1L), eq(PageRequest.ofSize(3)))).thenReturn(Collections.emptyList());
+		
+		EmployeePage<Employee> page=employeeService.getEmployeePage(1L, 2);
+		
+		assertThat(page.getContent()).isEmpty();
+		assertNull(page.getNextCursor());
+	}
+	
+	
+	@DisplayName("JUnit test for getEmployeeViewPage method in Service Class when more rows follow")
+	@Test
+	public void testGetEmployeeViewPage() {
+		
+		Set<String> fields=EmployeeView.parseFields("email");
+		EmployeeView view1=EmployeeView.of(employee, fields);
+		EmployeeView view2=new EmployeeView();
+		view2.setId(2L);
+		view2.setEmail("revtishere@gmail.com");
+		
+		when(employeeRepository.findViewsAfter(0L, fields, 2)).thenReturn(List.of(view1, view2));
+		
+		EmployeePage<EmployeeView> page=employeeService.getEmployeeViewPage(0L, 1, fields);
+		
+		assertThat(page.getContent()).containsExactly(view1);
+		assertEquals(1L,page.getNextCursor());
+		assertNull(view1.getFirstName());
+	}
+	
+	
 	@DisplayName("Junit test for getting Employee by Id method in the service class")
 	@Test
 	public void testGetEmployeeById() {
@@ -147,11 +264,23 @@ public class EmployeeServiceTest {
 	}
 	
 	
+	@DisplayName("Junit test for getting Employee by email method in the service class")
+	@Test
+	public void testGetEmployeeByEmail() {
+		
+		when(employeeRepository.findByEmail(employee.getEmail())).thenReturn(Optional.of(employee));
+		
+		Optional<Employee> savedEmployee=employeeService.getEmployeeByEmail(employee.getEmail());
+		
+		assertThat(savedEmployee).contains(employee);
+	}
+	
+	
 	@DisplayName("Junit tests for update Employee method in the service class")
 	@Test
 	public void testUpdateEmployee() {
 		
-		when(employeeRepository.save(employee)).thenReturn(employee);
+		when(employeeRepository.saveAndFlush(employee)).thenReturn(employee);
 		
 		employee.setEmail("lekha@gmail.com");
 		employee.setFirstName("lekha");
@@ -163,16 +292,117 @@ public class EmployeeServiceTest {
 	}
 	
 	
+	@DisplayName("Junit tests for replace Employee method in the service class")
+	@Test
+	public void testReplaceEmployee() {
+		
+		when(employeeJdbcRepository.update(1L, "lekha", "Reddy", "lekha@gmail.com", null)).thenReturn(1);
+		
+		Optional<Employee> updatedEmployee=employeeService.replaceEmployee(1L, new Employee(0L,"lekha","Reddy","lekha@gmail.com"), null);
+		
+		assertThat(updatedEmployee).get().extracting(Employee::getId, Employee::getFirstName, Employee::getEmail)
+				.containsExactly(1L, "lekha", "lekha@gmail.com");
+		verify(employeeRepository, never()).findById(any(Long.class));
+	}
+	
+	
+	@DisplayName("Junit tests for replace Employee method when the employee does not exist")
+	@Test
+	public void testReplaceMissingEmployee() {
+		
+		when(employeeJdbcRepository.update(2L, "lekha", "Reddy", "lekha@gmail.com", null)).thenReturn(0);
+		
+		Optional<Employee> updatedEmployee=employeeService.replaceEmployee(2L, new Employee(0L,"lekha","Reddy","lekha@gmail.com"), null);
+		
+		assertThat(updatedEmployee).isEmpty();
+	}
+	
+	
+	@DisplayName("Junit tests for replace Employee method at the expected version")
+	@Test
+	public void testReplaceEmployeeAtVersion() {
+		
+		when(employeeJdbcRepository.update(1L, "lekha", "Reddy", "lekha@gmail.com", 3L)).thenReturn(1);
+		
+		Optional<Employee> updatedEmployee=employeeService.replaceEmployee(1L, new Employee(0L,"lekha","Reddy","lekha@gmail.com"), 3L);
+		
+		assertThat(updatedEmployee).get().extracting(Employee::getVersion).isEqualTo(4L);
+		verify(employeeRepository, never()).existsById(any(Long.class));
+	}
+	
+	
+	@DisplayName("Junit tests for replace Employee method when the employee has moved on to another version")
+	@Test
+	public void testReplaceStaleEmployee() {
+		
+		when(employeeJdbcRepository.update(1L, "lekha", "Reddy", "lekha@gmail.com", 3L)).thenReturn(0);
+		when(employeeRepository.existsById(1L)).thenReturn(true);
+		
+		assertThrows(OptimisticLockingFailureException.class,
+				() -> employeeService.replaceEmployee(1L, new Employee(0L,"lekha","Reddy","lekha@gmail.com"), 3L));
+	}
+	
+	
+	@DisplayName("Junit tests for a conditional patch of an employee that does not exist")
+	@Test
+	public void testPatchMissingEmployeeAtVersion() {
+		
+		when(employeeJdbcRepository.updateNonNull(2L, null, null, "lekha@gmail.com", 3L)).thenReturn(0);
+		when(employeeRepository.existsById(2L)).thenReturn(false);
+		
+		assertThat(employeeService.patchEmployee(2L, Employee.builder().email("lekha@gmail.com").build(), 3L)).isFalse();
+	}
+	
+	
+	@DisplayName("Junit tests for patch Employee method in the service class")
+	@Test
+	public void testPatchEmployee() {
+		
+		when(employeeJdbcRepository.updateNonNull(1L, null, null, "lekha@gmail.com", null)).thenReturn(1);
+		when(employeeJdbcRepository.updateNonNull(2L, null, null, "lekha@gmail.com", null)).thenReturn(0);
+		
+		Employee changes=Employee.builder().email("lekha@gmail.com").build();
+		
+		assertThat(employeeService.patchEmployee(1L, changes, null)).isTrue();
+		assertThat(employeeService.patchEmployee(2L, changes, null)).isFalse();
+	}
+	
+	
+	@DisplayName("Junit tests for patch Employee method when the new email is taken")
+	@Test
+	public void testPatchEmployeeDuplicateEmail() {
+		
+		when(employeeJdbcRepository.updateNonNull(1L, null, null, "lekha@gmail.com", null))
+				.thenThrow(new DataIntegrityViolationException("could not execute statement",
+						new RuntimeException("Unique index or primary key violation: \"PUBLIC.UK_EMPLOYEES_EMAIL\"")));
+		
+		Employee changes=Employee.builder().email("lekha@gmail.com").build();
+		
+		assertThrows(ResourceNotFoundException.class, () -> employeeService.patchEmployee(1L, changes, null));
+	}
+	
+	
 	@DisplayName("Junit tests for delete Employee method in the service class")
 	@Test
 	public void testDeleteEmployee() {
 		
-		doNothing().when(employeeRepository).deleteById(1L);
+		when(employeeJdbcRepository.deleteById(1L)).thenReturn(1);
 		
 		long employeeId=1L;
-		employeeService.deleteEmployee(employeeId);
+		assertTrue(employeeService.deleteEmployee(employeeId));
+		
+		verify(employeeJdbcRepository, times(1)).deleteById(employeeId);
+		verify(employeeRepository, never()).deleteById(employeeId);
+		verify(employeeCacheInvalidator).employeeChanged(employeeId);
+	}
+	
+	@DisplayName("Junit tests for delete Employee method in the service class -ve scenario")
+	@Test
+	public void testDeleteMissingEmployee() {
+		
+		when(employeeJdbcRepository.deleteById(1L)).thenReturn(0);
 		
-		verify(employeeRepository, times(1)).deleteById(employeeId);
+		assertFalse(employeeService.deleteEmployee(1L));
 	}
 
 }
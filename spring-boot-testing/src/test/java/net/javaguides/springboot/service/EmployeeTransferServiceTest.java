@@ -0,0 +1,186 @@
+package net.javaguides.springboot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.javaguides.springboot.dto.EmployeeFormat;
+import net.javaguides.springboot.exception.InvalidImportException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeJdbcRepository;
+import net.javaguides.springboot.repository.EmployeeTransferRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeTransferServiceTest {
+
+	@Mock
+	private EmployeeTransferRepository employeeTransferRepository;
+
+	@Mock
+	private EmployeeJdbcRepository employeeJdbcRepository;
+
+	@Spy
+	private ObjectMapper objectMapper=new ObjectMapper();
+
+	@InjectMocks
+	private EmployeeTransferService employeeTransferService;
+
+	private final List<List<String>> insertedChunks=new ArrayList<>();
+
+	@BeforeEach
+	public void setup() {
+		ReflectionTestUtils.setField(employeeTransferService, "batchSize", 2);
+	}
+
+	@DisplayName("JUnit test for importing a CSV file in chunks")
+	@Test
+	public void testImportCsv() {
+
+		recordInsertedChunks();
+
+		long imported=employeeTransferService.importEmployees(EmployeeFormat.CSV, input(
+				"email,firstName,lastName\n"
+				+ "csranam@gmail.com,Chandra,Reddy\n"
+				+ "revtishere@gmail.com,\"Revathi, V\",Vaka\n"
+				+ "\n"
+				+ "duckie@gmail.com,Duckie,Anam\n"));
+
+		assertEquals(3, imported);
+		assertThat(insertedChunks).containsExactly(
+				List.of("csranam@gmail.com", "revtishere@gmail.com"),
+				List.of("duckie@gmail.com"));
+	}
+
+	@DisplayName("JUnit test for importing an NDJSON file")
+	@Test
+	public void testImportNdjson() {
+
+		recordInsertedChunks();
+
+		long imported=employeeTransferService.importEmployees(EmployeeFormat.NDJSON, input(
+				"{\"id\":9,\"firstName\":\"Chandra\",\"lastName\":\"Reddy\",\"email\":\"csranam@gmail.com\"}\n"
+				+ "{\"firstName\":\"Revathi\",\"lastName\":\"Vaka\",\"email\":\"revtishere@gmail.com\"}\n"));
+
+		assertEquals(2, imported);
+		assertThat(insertedChunks).containsExactly(List.of("csranam@gmail.com", "revtishere@gmail.com"));
+	}
+
+	@DisplayName("JUnit test for rejecting an import with an incomplete record")
+	@Test
+	public void testImportIncompleteRecord() {
+
+		InvalidImportException exception=assertThrows(InvalidImportException.class,
+				() -> employeeTransferService.importEmployees(EmployeeFormat.CSV, input(
+						"firstName,lastName,email\n"
+						+ "Chandra,Reddy,csranam@gmail.com\n"
+						+ "Revathi,Vaka,\n")));
+
+		assertEquals(2, exception.getRecord());
+		verify(employeeTransferRepository, never()).insertAll(anyList());
+	}
+
+	@DisplayName("JUnit test for rejecting an import with a malformed record")
+	@Test
+	public void testImportMalformedRecord() {
+
+		InvalidImportException exception=assertThrows(InvalidImportException.class,
+				() -> employeeTransferService.importEmployees(EmployeeFormat.NDJSON, input(
+						"{\"firstName\":\"Chandra\",\"lastName\":\"Reddy\",\"email\":\"csranam@gmail.com\"}\n"
+						+ "{\"firstName\":\"Revathi\",\n")));
+
+		assertEquals(2, exception.getRecord());
+	}
+
+	@DisplayName("JUnit test for exporting CSV through the cursor when COPY is not available")
+	@Test
+	public void testExportCsv() {
+
+		when(employeeTransferRepository.isCopySupported()).thenReturn(false);
+		streamEmployees(new Employee(1L,"Chandra","Reddy","csranam@gmail.com"), new Employee(2L,"Revathi, V","Vaka","revtishere@gmail.com"));
+		ByteArrayOutputStream output=new ByteArrayOutputStream();
+
+		long exported=employeeTransferService.exportEmployees(EmployeeFormat.CSV, output);
+
+		assertEquals(2, exported);
+		assertEquals("id,firstName,lastName,email\n"
+				+ "1,Chandra,Reddy,csranam@gmail.com\n"
+				+ "2,\"Revathi, V\",Vaka,revtishere@gmail.com\n", output.toString(StandardCharsets.UTF_8));
+	}
+
+	@DisplayName("JUnit test for exporting CSV with COPY on PostgreSQL")
+	@Test
+	public void testExportCsvWithCopy() {
+
+		ByteArrayOutputStream output=new ByteArrayOutputStream();
+		when(employeeTransferRepository.isCopySupported()).thenReturn(true);
+		when(employeeTransferRepository.copyOutCsv(output)).thenReturn(5L);
+
+		assertEquals(5, employeeTransferService.exportEmployees(EmployeeFormat.CSV, output));
+		verify(employeeJdbcRepository, never()).streamAll(any());
+	}
+
+	@DisplayName("JUnit test for exporting NDJSON")
+	@Test
+	public void testExportNdjson() {
+
+		streamEmployees(new Employee(1L,"Chandra","Reddy","csranam@gmail.com"));
+		ByteArrayOutputStream output=new ByteArrayOutputStream();
+
+		employeeTransferService.exportEmployees(EmployeeFormat.NDJSON, output);
+
+		assertEquals("{\"id\":1,\"firstName\":\"Chandra\",\"lastName\":\"Reddy\",\"email\":\"csranam@gmail.com\"}\n",
+				output.toString(StandardCharsets.UTF_8));
+	}
+
+	private void recordInsertedChunks() {
+		// the service reuses the chunk list, so copy it at call time
+		doAnswer(invocation -> {
+			List<Employee> chunk=invocation.getArgument(0);
+			if(!chunk.isEmpty()) {
+				insertedChunks.add(chunk.stream().map(Employee::getEmail).toList());
+			}
+			return null;
+		}).when(employeeTransferRepository).insertAll(anyList());
+	}
+
+	@SuppressWarnings("unchecked")
+	private void streamEmployees(Employee... employees) {
+		doAnswer(invocation -> {
+			Consumer<Employee> consumer=invocation.getArgument(0);
+			for(Employee employee : employees) {
+				consumer.accept(employee);
+			}
+			return null;
+		}).when(employeeJdbcRepository).streamAll(any(Consumer.class));
+	}
+
+	private static ByteArrayInputStream input(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,82 @@
+package net.javaguides.springboot.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import org.h2.jdbc.JdbcConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+public class SqlRecordingDataSourceTest {
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	public void setup() {
+		database=new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		new JdbcTemplate(database).execute("create table employees as select x as id, 'employee' || x as name from system_range(1, 10)");
+		jdbcTemplate=new JdbcTemplate(new SqlRecordingDataSource(database, Duration.ZERO, true));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@DisplayName("JUnit test for statements and rows being counted while statistics are open")
+	@Test
+	public void testCountsStatementsAndRows() {
+
+		SqlStatistics statistics;
+		try (SqlStatistics.Scope scope=SqlStatistics.open()) {
+			statistics=scope.statistics();
+			List<String> names=jdbcTemplate.queryForList("select name from employees where id <= ?", String.class, 3);
+			jdbcTemplate.update("update employees set name=? where id=?", "Chandra", 1);
+			assertThat(names).hasSize(3);
+		}
+		jdbcTemplate.queryForList("select name from employees", String.class);
+
+		assertThat(statistics.getStatements()).isEqualTo(2);
+		assertThat(statistics.getRows()).isEqualTo(3);
+		assertThat(statistics.getJdbcTime()).isPositive();
+		assertThat(statistics.getSql()).containsExactly("select name from employees where id <= ?", "update employees set name=? where id=?");
+	}
+
+	@DisplayName("JUnit test for statements over the threshold being counted as slow")
+	@Test
+	public void testCountsSlowStatements() {
+
+		jdbcTemplate=new JdbcTemplate(new SqlRecordingDataSource(database, Duration.ofNanos(1), true));
+
+		try (SqlStatistics.Scope scope=SqlStatistics.open()) {
+			jdbcTemplate.queryForObject("select count(*) from employees where id > ?", Long.class, 5);
+
+			assertThat(scope.statistics().getSlowStatements()).isEqualTo(1);
+		}
+	}
+
+	@DisplayName("JUnit test for the driver's connection still being reachable through unwrap")
+	@Test
+	public void testUnwrapsToDriverConnection() {
+
+		Boolean unwrapped=jdbcTemplate.execute((Connection connection) ->
+				connection.unwrap(JdbcConnection.class) != null && connection.isWrapperFor(Connection.class));
+
+		assertThat(unwrapped).isTrue();
+	}
+
+}
@@ -0,0 +1,58 @@
+package net.javaguides.springboot.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * MockMvc expectations on the SQL a request ran, as collected by
+ * {@link SqlStatisticsInterceptor}:
+ * <pre>
+ * mockMvc.perform(get("/api/allemployees"))
+ *         .andExpect(sql().statements(2));
+ * </pre>
+ * A failure lists the statements that ran.
+ */
+public final class SqlResultMatchers {
+
+	private SqlResultMatchers() {
+	}
+
+	public static SqlResultMatchers sql() {
+		return new SqlResultMatchers();
+	}
+
+	/** The statistics of the request; fails when none were collected for it. */
+	public static SqlStatistics statistics(MvcResult result) {
+		Object statistics=result.getRequest().getAttribute(SqlStatisticsInterceptor.ATTRIBUTE);
+		assertNotNull(statistics, "No SQL statistics for " + result.getRequest().getRequestURI()
+				+ "; is it handled by EmployeeController and app.sql.recording.enabled on?");
+		return (SqlStatistics) statistics;
+	}
+
+	public ResultMatcher statements(int expected) {
+		return result -> {
+			SqlStatistics statistics=statistics(result);
+			assertEquals(expected, statistics.getStatements(), () -> "SQL statements: " + statistics.getSql());
+		};
+	}
+
+	public ResultMatcher statementsAtMost(int max) {
+		return result -> {
+			SqlStatistics statistics=statistics(result);
+			assertTrue(statistics.getStatements() <= max,
+					() -> "Expected at most " + max + " SQL statements but ran " + statistics.getStatements() + ": " + statistics.getSql());
+		};
+	}
+
+	public ResultMatcher rows(long expected) {
+		return result -> {
+			SqlStatistics statistics=statistics(result);
+			assertEquals(expected, statistics.getRows(), () -> "SQL rows read by: " + statistics.getSql());
+		};
+	}
+
+}